@@ -0,0 +1,18 @@
+package com.technican.restservice.analytics;
+
+import com.technican.restservice.model.JobStatus;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * The jobs created on {@code day}, counted by their current status overall, per service
+ * type and per assigned technician. Zero counts are left out.
+ */
+public record DailyJobCounts(
+        LocalDate day,
+        long total,
+        Map<JobStatus, Long> byStatus,
+        Map<String, Map<JobStatus, Long>> byServiceType,
+        Map<Long, Map<JobStatus, Long>> byTechnician) {
+}
@@ -0,0 +1,142 @@
+package com.technican.restservice.analytics;
+
+import com.technican.restservice.event.JobChangedEvent;
+import com.technican.restservice.model.JobStatus;
+import com.technican.restservice.repository.DailyJobCount;
+import com.technican.restservice.repository.JobStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Job counts behind {@code GET /jobs/analytics}, kept per creation day in two sets of
+ * counters per status: one set per service type and one per technician. They are loaded from
+ * the database at startup and then adjusted from every committed {@link JobChangedEvent},
+ * so a query reads the buckets of the days asked for and never the jobs themselves.
+ *
+ * <p>The counters are {@link LongAdder}s: concurrent changes to popular buckets (today's
+ * scheduled jobs of a common service type) update separate cells instead of contending
+ * for one. Changes committed while {@link #reload()} runs may be missed or counted twice.
+ */
+@Component
+public class JobAnalytics {
+    private static final JobStatus[] STATUSES = JobStatus.values();
+
+    // Counters indexed by status ordinal, per service type and per technician
+    private static final class Day {
+        final Map<String, LongAdder[]> byServiceType = new ConcurrentHashMap<>();
+        final Map<Long, LongAdder[]> byTechnician = new ConcurrentHashMap<>();
+    }
+
+    @Autowired
+    private JobStore jobRepository;
+
+    private volatile ConcurrentSkipListMap<LocalDate, Day> days = new ConcurrentSkipListMap<>();
+
+    /** Recounts every job from the database, replacing the current counts. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        ConcurrentSkipListMap<LocalDate, Day> counted = new ConcurrentSkipListMap<>();
+        for (DailyJobCount count : jobRepository.countJobsByDay()) {
+            Day day = counted.computeIfAbsent(count.day(), d -> new Day());
+            count(day, count.serviceType(), count.technicianId(), count.status(), count.jobs());
+        }
+        days = counted;
+    }
+
+    // fallbackExecution: changes made outside a transaction (e.g. the in-memory store) count immediately
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobChanged(JobChangedEvent event) {
+        if (event.createdAt() == null) {
+            return;
+        }
+        Day day = days.computeIfAbsent(event.createdAt().toLocalDate(), d -> new Day());
+        switch (event.type()) {
+            case CREATED -> count(day, event.serviceType(), event.technicianId(), event.status(), 1);
+            case DELETED -> count(day, event.serviceType(), event.technicianId(), event.status(), -1);
+            case STATUS_CHANGED -> {
+                count(day, event.serviceType(), event.technicianId(), event.previousStatus(), -1);
+                count(day, event.serviceType(), event.technicianId(), event.status(), 1);
+            }
+            case ASSIGNED -> {
+                if (!Objects.equals(event.previousTechnicianId(), event.technicianId())) {
+                    add(day.byTechnician, event.previousTechnicianId(), event.status(), -1);
+                    add(day.byTechnician, event.technicianId(), event.status(), 1);
+                }
+            }
+        }
+    }
+
+    /** Counts for each day from {@code from} to {@code to} inclusive that has any jobs. */
+    public List<DailyJobCounts> days(LocalDate from, LocalDate to) {
+        List<DailyJobCounts> result = new ArrayList<>();
+        for (Map.Entry<LocalDate, Day> entry : days.subMap(from, true, to, true).entrySet()) {
+            long[] byStatus = new long[STATUSES.length];
+            Map<String, Map<JobStatus, Long>> byServiceType = sums(entry.getValue().byServiceType, byStatus);
+            Map<Long, Map<JobStatus, Long>> byTechnician = sums(entry.getValue().byTechnician, null);
+            long total = 0;
+            Map<JobStatus, Long> statuses = new EnumMap<>(JobStatus.class);
+            for (JobStatus status : STATUSES) {
+                total += byStatus[status.ordinal()];
+                if (byStatus[status.ordinal()] != 0) {
+                    statuses.put(status, byStatus[status.ordinal()]);
+                }
+            }
+            if (total != 0) {
+                result.add(new DailyJobCounts(entry.getKey(), total, statuses, byServiceType, byTechnician));
+            }
+        }
+        return result;
+    }
+
+    // Non-zero counts per key, sorted by key; adds each status's count to totals if given
+    private static <K extends Comparable<K>> Map<K, Map<JobStatus, Long>> sums(Map<K, LongAdder[]> buckets, long[] totals) {
+        Map<K, Map<JobStatus, Long>> sums = new TreeMap<>();
+        for (Map.Entry<K, LongAdder[]> bucket : buckets.entrySet()) {
+            Map<JobStatus, Long> counts = null;
+            for (JobStatus status : STATUSES) {
+                long jobs = bucket.getValue()[status.ordinal()].sum();
+                if (jobs != 0) {
+                    if (totals != null) {
+                        totals[status.ordinal()] += jobs;
+                    }
+                    if (counts == null) {
+                        counts = new EnumMap<>(JobStatus.class);
+                    }
+                    counts.put(status, jobs);
+                }
+            }
+            if (counts != null) {
+                sums.put(bucket.getKey(), counts);
+            }
+        }
+        return sums;
+    }
+
+    private static void count(Day day, String serviceType, Long technicianId, JobStatus status, long delta) {
+        add(day.byServiceType, serviceType, status, delta);
+        add(day.byTechnician, technicianId, status, delta);
+    }
+
+    private static <K> void add(Map<K, LongAdder[]> buckets, K key, JobStatus status, long delta) {
+        if (key != null && status != null) {
+            buckets.computeIfAbsent(key, k -> newCounters())[status.ordinal()].add(delta);
+        }
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[STATUSES.length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+}
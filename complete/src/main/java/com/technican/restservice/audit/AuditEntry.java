@@ -0,0 +1,22 @@
+package com.technican.restservice.audit;
+
+import com.technican.restservice.event.JobChangedEvent;
+import com.technican.restservice.model.JobStatus;
+
+import java.time.Instant;
+
+/**
+ * One change in a job's history: who made it, when, and the status and technician before
+ * and after. The previous values are null for {@code CREATED}; {@code actorId} is null for
+ * changes the system made on its own.
+ */
+public record AuditEntry(
+        Long jobId,
+        JobChangedEvent.Type type,
+        Long actorId,
+        JobStatus previousStatus,
+        JobStatus status,
+        Long previousTechnicianId,
+        Long technicianId,
+        Instant at) {
+}
@@ -0,0 +1,305 @@
+package com.technican.restservice.audit;
+
+import com.technican.restservice.event.JobChangedEvent;
+import com.technican.restservice.model.JobStatus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only store of {@link AuditEntry}s in memory-mapped segment files
+ * ({@code audit-00000000.seg}, {@code audit-00000001.seg}, ...), a new one started when
+ * the last is full.
+ *
+ * <p>Records have a fixed size and end with a CRC32. Each holds the position of the
+ * previous record of the same job, so a job's history is a chain read backwards from its
+ * latest record, and the only index kept in memory is job id to latest position. It is
+ * rebuilt on open by scanning the segments up to the first record that does not check
+ * out, which is where a crash stopped writing.
+ *
+ * <p>An append is a copy into the mapping; the operating system writes it out, so it
+ * survives the process dying, but a machine crash may lose what was not yet written back.
+ * A segment is forced to disk after it fills up and on close.
+ *
+ * <p>Appends run on the thread committing the change, so the slow parts of a segment
+ * change happen on a background thread: the next segment is created and mapped once the
+ * current one is half full, and a full one is forced after appends have moved on.
+ * Appends are serialized by a {@link ReentrantLock}, which a virtual thread can wait on
+ * without pinning its carrier.
+ */
+final class AuditStore implements Closeable {
+    // jobId, previous record, time (µs), actor, type, previous status, status, previous technician, technician, CRC32
+    static final int RECORD_SIZE = 8 + 8 + 8 + 8 + 1 + 1 + 1 + 8 + 8 + 4;
+    private static final long NONE = Long.MIN_VALUE;
+    private static final JobChangedEvent.Type[] TYPES = JobChangedEvent.Type.values();
+    private static final JobStatus[] STATUSES = JobStatus.values();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FileChannel fileLock;
+    // Job id to the position of its latest record; a position is segment << 32 | offset
+    private final ConcurrentHashMap<Long, Long> latest;
+    // Replaced, never changed, when a segment is added; before the index points into it
+    private volatile MappedByteBuffer[] segments;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Creates, maps and forces segments
+    private final ExecutorService background;
+    // Guarded by lock
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private int offset;
+    // The segment after the last, once it is being prepared
+    private Future<MappedByteBuffer> next;
+
+    private AuditStore(Path directory, int segmentSize, FileChannel fileLock, MappedByteBuffer[] segments,
+                       int offset, ConcurrentHashMap<Long, Long> latest) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fileLock = fileLock;
+        this.segments = segments;
+        this.offset = offset;
+        this.latest = latest;
+        this.background = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-segments");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens or creates the store in {@code directory}. New segments are {@code segmentSize}
+     * bytes; existing ones keep the size they were created with.
+     */
+    static AuditStore open(Path directory, int segmentSize) throws IOException {
+        if (segmentSize < RECORD_SIZE) {
+            throw new IllegalArgumentException("Audit segments must hold at least one record");
+        }
+        Files.createDirectories(directory);
+        FileChannel lock = FileChannel.open(directory.resolve("audit.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        // Two writers would append over each other
+        try {
+            if (lock.tryLock() == null) {
+                throw new OverlappingFileLockException();
+            }
+        } catch (OverlappingFileLockException e) {
+            lock.close();
+            throw new IllegalStateException("Audit log in " + directory + " is in use by another instance");
+        }
+        try {
+            int count = 0;
+            while (Files.exists(segmentFile(directory, count))) {
+                count++;
+            }
+            MappedByteBuffer[] segments = new MappedByteBuffer[Math.max(count, 1)];
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = map(directory, i, segmentSize);
+            }
+            ConcurrentHashMap<Long, Long> latest = new ConcurrentHashMap<>();
+            ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+            int offset = 0;
+            for (int segment = 0; segment < segments.length; segment++) {
+                MappedByteBuffer buffer = segments[segment];
+                offset = 0;
+                while (offset + RECORD_SIZE <= buffer.capacity()) {
+                    buffer.get(offset, record.array());
+                    if (!intact(record)) {
+                        break;
+                    }
+                    latest.put(record.getLong(0), position(segment, offset));
+                    offset += RECORD_SIZE;
+                }
+            }
+            MappedByteBuffer last = segments[segments.length - 1];
+            if (offset + RECORD_SIZE <= last.capacity()) {
+                last.get(offset, record.array());
+                if (!Arrays.equals(record.array(), new byte[RECORD_SIZE])) {
+                    // A torn record; clear the rest so nothing stale past it is read back later
+                    last.put(offset, new byte[last.capacity() - offset]);
+                    last.force();
+                }
+            }
+            return new AuditStore(directory, segmentSize, lock, segments, offset, latest);
+        } catch (IOException | RuntimeException e) {
+            lock.close();
+            throw e;
+        }
+    }
+
+    /** Appends the entry to its job's history. */
+    void append(AuditEntry entry) throws IOException {
+        lock.lock();
+        try {
+            write(entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(AuditEntry entry) throws IOException {
+        MappedByteBuffer[] segments = this.segments;
+        MappedByteBuffer buffer = segments[segments.length - 1];
+        if (offset + RECORD_SIZE > buffer.capacity()) {
+            MappedByteBuffer full = buffer;
+            buffer = nextSegment(segments.length);
+            background.execute(full::force);
+            segments = Arrays.copyOf(segments, segments.length + 1);
+            segments[segments.length - 1] = buffer;
+            this.segments = segments;
+            offset = 0;
+        }
+        Long previous = latest.get(entry.jobId());
+        Instant at = entry.at();
+        record.clear();
+        record.putLong(entry.jobId())
+                .putLong(previous == null ? NONE : previous)
+                .putLong(at.getEpochSecond() * 1_000_000 + at.getNano() / 1_000)
+                .putLong(orNone(entry.actorId()))
+                .put((byte) entry.type().ordinal())
+                .put(ordinal(entry.previousStatus()))
+                .put(ordinal(entry.status()))
+                .putLong(orNone(entry.previousTechnicianId()))
+                .putLong(orNone(entry.technicianId()));
+        crc.reset();
+        crc.update(record.array(), 0, RECORD_SIZE - 4);
+        record.putInt((int) crc.getValue());
+        buffer.put(offset, record.array());
+        latest.put(entry.jobId(), position(segments.length - 1, offset));
+        offset += RECORD_SIZE;
+        if (next == null && offset >= buffer.capacity() / 2) {
+            int segment = segments.length;
+            next = background.submit(() -> map(directory, segment, segmentSize));
+        }
+    }
+
+    /** The job's history, oldest first; empty if nothing was recorded for it. */
+    List<AuditEntry> history(long jobId) {
+        List<AuditEntry> entries = new ArrayList<>();
+        Long start = latest.get(jobId);
+        MappedByteBuffer[] segments = this.segments;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        long position = start == null ? NONE : start;
+        while (position != NONE) {
+            segments[(int) (position >>> 32)].get((int) position, record.array());
+            if (!intact(record) || record.getLong(0) != jobId) {
+                break;
+            }
+            entries.add(decode(record));
+            long previous = record.getLong(8);
+            // Chains only point backwards; anything else is damage
+            if (previous >= position) {
+                break;
+            }
+            position = previous;
+        }
+        Collections.reverse(entries);
+        return entries;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            // Lets pending forces finish
+            background.shutdown();
+            background.awaitTermination(10, TimeUnit.SECONDS);
+            segments[segments.length - 1].force();
+            fileLock.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The prepared segment, normally ready by now; mapped here if preparing it failed
+    private MappedByteBuffer nextSegment(int segment) throws IOException {
+        Future<MappedByteBuffer> prepared = next;
+        next = null;
+        if (prepared != null) {
+            try {
+                return prepared.get();
+            } catch (ExecutionException e) {
+                // Try once more below
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+        return map(directory, segment, segmentSize);
+    }
+
+    private static MappedByteBuffer map(Path directory, int segment, int segmentSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentFile(directory, segment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size() > 0 ? channel.size() : segmentSize;
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private static Path segmentFile(Path directory, int segment) {
+        return directory.resolve(String.format("audit-%08d.seg", segment));
+    }
+
+    private static long position(int segment, int offset) {
+        return (long) segment << 32 | offset;
+    }
+
+    private static boolean intact(ByteBuffer record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, RECORD_SIZE - 4);
+        return record.getInt(RECORD_SIZE - 4) == (int) crc.getValue();
+    }
+
+    private static AuditEntry decode(ByteBuffer record) {
+        long micros = record.getLong(16);
+        return new AuditEntry(
+                record.getLong(0),
+                TYPES[record.get(32)],
+                orNull(record.getLong(24)),
+                status(record.get(33)),
+                status(record.get(34)),
+                orNull(record.getLong(35)),
+                orNull(record.getLong(43)),
+                Instant.EPOCH.plus(micros, ChronoUnit.MICROS));
+    }
+
+    private static long orNone(Long value) {
+        return value == null ? NONE : value;
+    }
+
+    private static Long orNull(long value) {
+        return value == NONE ? null : value;
+    }
+
+    private static byte ordinal(JobStatus status) {
+        return status == null ? -1 : (byte) status.ordinal();
+    }
+
+    private static JobStatus status(byte ordinal) {
+        return ordinal < 0 ? null : STATUSES[ordinal];
+    }
+}
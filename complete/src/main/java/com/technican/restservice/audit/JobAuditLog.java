@@ -0,0 +1,59 @@
+package com.technican.restservice.audit;
+
+import com.technican.restservice.event.JobChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * History of who changed each job and how, behind {@code GET /jobs/{id}/history}. Every
+ * committed {@link JobChangedEvent} is appended to an {@link AuditStore} under
+ * {@code jobs.audit.dir} (segments of {@code jobs.audit.segment-size-mb}), on the thread
+ * that made the change; that costs a record copy into a mapped file, not a database write.
+ *
+ * <p>A change whose entry cannot be written (the next segment could not be created) has
+ * still committed, so it is only counted in {@code jobs.audit.failures}.
+ */
+@Component
+public class JobAuditLog {
+    private final AuditStore store;
+    private final Counter failures;
+
+    public JobAuditLog(@Value("${jobs.audit.dir:data/audit}") String dir,
+                       @Value("${jobs.audit.segment-size-mb:64}") int segmentSizeMb,
+                       MeterRegistry meterRegistry) throws IOException {
+        this.store = AuditStore.open(Path.of(dir), Math.toIntExact(segmentSizeMb * 1024L * 1024L));
+        this.failures = Counter.builder("jobs.audit.failures").register(meterRegistry);
+    }
+
+    // fallbackExecution: changes made outside a transaction (e.g. the in-memory store) are recorded immediately
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobChanged(JobChangedEvent event) {
+        boolean created = event.type() == JobChangedEvent.Type.CREATED;
+        try {
+            store.append(new AuditEntry(event.jobId(), event.type(), event.actorId(),
+                    created ? null : event.previousStatus(), event.status(),
+                    created ? null : event.previousTechnicianId(), event.technicianId(),
+                    event.occurredAt()));
+        } catch (IOException e) {
+            failures.increment();
+        }
+    }
+
+    /** The job's changes, oldest first; empty if none were recorded. */
+    public List<AuditEntry> history(Long jobId) {
+        return store.history(jobId);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        store.close();
+    }
+}
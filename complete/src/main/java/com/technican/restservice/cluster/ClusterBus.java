@@ -0,0 +1,41 @@
+package com.technican.restservice.cluster;
+
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Messages between the instances of a deployment. A message published on one node is
+ * delivered to the subscribers of its type on every other node, in the order that node
+ * published them; never to the publishing node itself. Delivery is asynchronous and best
+ * effort: a node that is down misses what was published meanwhile.
+ *
+ * <p>A bus may also give all messages one order that every node sees, its own messages
+ * included, and number them by their position in it; positions are then comparable across
+ * the nodes, which lets them agree on versions and feed event ids.
+ *
+ * <p>{@code cluster.bus} picks the implementation: {@code local} (the default) for a single
+ * instance, {@code file} for {@link FileClusterBus}.
+ */
+public interface ClusterBus {
+    /** Sends {@code message}, which must be serializable by Jackson, to the other nodes. */
+    void publish(Object message);
+
+    /** Calls {@code handler} with each message of {@code type} another node publishes. */
+    <T> void subscribe(Class<T> type, Consumer<T> handler);
+
+    /**
+     * Names the order in which {@link #subscribeInOrder} delivers messages, the same on every
+     * node sharing the bus; null when the bus has no such order, as with a single instance.
+     */
+    String epoch();
+
+    /** Position of the last message published before this node joined; those after it are all delivered in order. */
+    long joinedAt();
+
+    /**
+     * Calls {@code handler} with every message of {@code type}, this node's own included, and
+     * its position, in the order of {@link #epoch}: positions only grow. Called after the
+     * {@link #subscribe} handler for the same message of another node.
+     */
+    <T> void subscribeInOrder(Class<T> type, ObjLongConsumer<T> handler);
+}
@@ -0,0 +1,62 @@
+package com.technican.restservice.cluster;
+
+import com.technican.restservice.event.JobChangedEvent;
+import com.technican.restservice.event.OrderedJobChange;
+import com.technican.restservice.event.UserChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the in-process state of every node (the job list and JSON caches, ETag versions,
+ * dispatch index, analytics counters, route plans, feeds, audit history) in step with
+ * changes made on the others. Committed {@link JobChangedEvent}s and {@link UserChangedEvent}s
+ * are sent over the {@link ClusterBus}, and the ones received are published locally as if
+ * the change had been made here; the listeners need not know the difference.
+ *
+ * <p>When the bus orders its messages ({@link ClusterBus#epoch}), every job change, this
+ * node's own included, is also published as an {@link OrderedJobChange} once it has its place
+ * in that order, for state that must be the same on all nodes: ETag versions and feed event ids.
+ */
+@Component
+public class ClusterEvents {
+    // Set while a received event is published, so it is not sent back out
+    private static final ThreadLocal<Boolean> RECEIVING = new ThreadLocal<>();
+
+    private final ClusterBus bus;
+    private final ApplicationEventPublisher events;
+
+    public ClusterEvents(ClusterBus bus, ApplicationEventPublisher events) {
+        this.bus = bus;
+        this.events = events;
+        bus.subscribe(JobChangedEvent.class, this::receive);
+        bus.subscribe(UserChangedEvent.class, this::receive);
+        bus.subscribeInOrder(JobChangedEvent.class, (event, position) -> events.publishEvent(new OrderedJobChange(event, position)));
+    }
+
+    // fallbackExecution: changes made outside a transaction (e.g. the in-memory store) are sent immediately
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobChanged(JobChangedEvent event) {
+        send(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        send(event);
+    }
+
+    private void send(Object event) {
+        if (RECEIVING.get() == null) {
+            bus.publish(event);
+        }
+    }
+
+    private void receive(Object event) {
+        RECEIVING.set(Boolean.TRUE);
+        try {
+            events.publishEvent(event);
+        } finally {
+            RECEIVING.remove();
+        }
+    }
+}
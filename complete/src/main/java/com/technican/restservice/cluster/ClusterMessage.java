@@ -0,0 +1,7 @@
+package com.technican.restservice.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/** A message as it travels between nodes: who sent it, its type's simple name, and its JSON. */
+record ClusterMessage(String node, String type, JsonNode payload) {
+}
@@ -0,0 +1,297 @@
+package com.technican.restservice.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * A {@link ClusterBus} over files shared by every node in {@code cluster.file.dir}: for
+ * instances on one host or a shared volume, for development and tests, where no broker is
+ * available.
+ *
+ * <p>Messages are appended as lines of JSON to segment files ({@code bus-00000000.log},
+ * {@code bus-00000001.log}, ...) under an exclusive lock on {@code bus.lock}; a new segment
+ * is started once the newest reaches {@code cluster.file.segment-size-mb}, and all but the
+ * two before it are deleted then. Every node tails the segments from where the newest stood
+ * when the node started, every {@code cluster.file.poll-ms}, and hands the lines of other
+ * nodes to the subscribers.
+ *
+ * <p>Every node reads the same segments front to back, so the file order is the order of
+ * {@link #subscribeInOrder}: a message's position is its segment number in the high bits and
+ * the offset just past its line in the low ones. The epoch naming that order is written to
+ * {@code bus.epoch} by the first node to start on the directory.
+ *
+ * <p>Appends and reads run on the node's bus thread: {@link #publish} only serializes the
+ * message and queues it, so the request thread that committed a change never waits on the
+ * file. Messages that cannot be written or handled are counted in {@code cluster.bus.failures}.
+ */
+@Component
+@ConditionalOnProperty(name = "cluster.bus", havingValue = "file")
+public class FileClusterBus implements ClusterBus {
+    // File locks are held per JVM, so nodes sharing a JVM (tests) also exclude each other here
+    private static final ReentrantLock APPEND_LOCK = new ReentrantLock();
+    private static final int READ_SIZE = 64 * 1024;
+    // Segments kept behind the newest, for nodes still reading them
+    private static final int KEPT_SEGMENTS = 2;
+    // Low bits of a position: the offset in the segment
+    private static final int OFFSET_BITS = 40;
+
+    private final String node = UUID.randomUUID().toString();
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final long segmentSize;
+    private final Counter failures;
+    private final String epoch;
+    private final long joinedAt;
+    private final Map<String, Consumer<ClusterMessage>> subscribers = new ConcurrentHashMap<>();
+    private final Map<String, ObjLongConsumer<ClusterMessage>> orderedSubscribers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService worker;
+    // Used on the bus thread only
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+    private long appendSegment;
+    private long readSegment;
+    private FileChannel reading;
+    private long position;
+
+    @Autowired
+    public FileClusterBus(ObjectMapper objectMapper,
+                          @Value("${cluster.file.dir:data/cluster}") String dir,
+                          @Value("${cluster.file.segment-size-mb:16}") int segmentSizeMb,
+                          @Value("${cluster.file.poll-ms:20}") long pollMs,
+                          MeterRegistry meterRegistry) throws IOException {
+        this(objectMapper, Path.of(dir), segmentSizeMb * 1024L * 1024L, pollMs, meterRegistry);
+    }
+
+    FileClusterBus(ObjectMapper objectMapper, Path directory, long segmentSize, long pollMs,
+                   MeterRegistry meterRegistry) throws IOException {
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.failures = Counter.builder("cluster.bus.failures").register(meterRegistry);
+        Files.createDirectories(directory);
+        this.epoch = readEpoch();
+        while (Files.exists(segmentFile(readSegment + 1))) {
+            readSegment++;
+        }
+        this.appendSegment = readSegment;
+        this.reading = open(readSegment);
+        this.position = reading.size();
+        this.joinedAt = position(readSegment, position);
+        this.worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-bus");
+            thread.setDaemon(true);
+            return thread;
+        });
+        worker.scheduleWithFixedDelay(this::poll, pollMs, pollMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void publish(Object message) {
+        try {
+            ClusterMessage envelope = new ClusterMessage(node, message.getClass().getSimpleName(), objectMapper.valueToTree(message));
+            ByteArrayOutputStream json = new ByteArrayOutputStream();
+            objectMapper.writeValue(json, envelope);
+            json.write('\n');
+            worker.execute(() -> append(json.toByteArray()));
+        } catch (IOException | RejectedExecutionException e) {
+            failures.increment();
+        }
+    }
+
+    @Override
+    public <T> void subscribe(Class<T> type, Consumer<T> handler) {
+        subscribers.put(type.getSimpleName(), message -> {
+            try {
+                handler.accept(objectMapper.treeToValue(message.payload(), type));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public String epoch() {
+        return epoch;
+    }
+
+    @Override
+    public long joinedAt() {
+        return joinedAt;
+    }
+
+    @Override
+    public <T> void subscribeInOrder(Class<T> type, ObjLongConsumer<T> handler) {
+        orderedSubscribers.put(type.getSimpleName(), (message, position) -> {
+            try {
+                handler.accept(objectMapper.treeToValue(message.payload(), type), position);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        // Lets queued messages go out
+        worker.shutdown();
+        worker.awaitTermination(5, TimeUnit.SECONDS);
+        reading.close();
+    }
+
+    // The first node to start on the directory picks the epoch; it lasts as long as the directory
+    private String readEpoch() throws IOException {
+        APPEND_LOCK.lock();
+        try (FileChannel lockFile = FileChannel.open(directory.resolve("bus.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            lockFile.lock();
+            Path file = directory.resolve("bus.epoch");
+            if (!Files.exists(file)) {
+                Files.writeString(file, Long.toString(System.currentTimeMillis(), 36));
+            }
+            return Files.readString(file).trim();
+        } finally {
+            APPEND_LOCK.unlock();
+        }
+    }
+
+    private void append(byte[] json) {
+        APPEND_LOCK.lock();
+        try (FileChannel lockFile = FileChannel.open(directory.resolve("bus.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Released when the channel closes
+            lockFile.lock();
+            // Other nodes may have started newer segments
+            while (Files.exists(segmentFile(appendSegment + 1))) {
+                appendSegment++;
+            }
+            if (Files.exists(segmentFile(appendSegment)) && Files.size(segmentFile(appendSegment)) >= segmentSize) {
+                appendSegment++;
+                if (appendSegment > KEPT_SEGMENTS) {
+                    Files.deleteIfExists(segmentFile(appendSegment - 1 - KEPT_SEGMENTS));
+                }
+            }
+            try (FileChannel segment = open(appendSegment)) {
+                ByteBuffer buffer = ByteBuffer.wrap(json);
+                long end = segment.size();
+                while (buffer.hasRemaining()) {
+                    end += segment.write(buffer, end);
+                }
+            }
+        } catch (IOException e) {
+            failures.increment();
+        } finally {
+            APPEND_LOCK.unlock();
+        }
+    }
+
+    private void poll() {
+        try {
+            while (true) {
+                read();
+                if (!Files.exists(segmentFile(readSegment + 1))) {
+                    return;
+                }
+                // A segment is complete once the next exists; what was appended before that is read above
+                read();
+                FileChannel next;
+                try {
+                    next = FileChannel.open(segmentFile(readSegment + 1), StandardOpenOption.READ);
+                    readSegment++;
+                } catch (NoSuchFileException e) {
+                    // Deleted while this node lagged that far behind; what it held is lost
+                    failures.increment();
+                    while (Files.exists(segmentFile(readSegment + 1))) {
+                        readSegment++;
+                    }
+                    next = open(readSegment);
+                }
+                reading.close();
+                reading = next;
+                position = 0;
+                line.reset();
+            }
+        } catch (IOException e) {
+            failures.increment();
+        }
+    }
+
+    private void read() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_SIZE);
+        int read;
+        while ((read = reading.read(buffer.clear(), position)) > 0) {
+            long start = position;
+            position += read;
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                if (b != '\n') {
+                    line.write(b);
+                } else {
+                    deliver(line.toByteArray(), position(readSegment, start + i + 1));
+                    line.reset();
+                }
+            }
+        }
+    }
+
+    private void deliver(byte[] json, long at) {
+        ClusterMessage message;
+        try {
+            message = objectMapper.readValue(json, ClusterMessage.class);
+        } catch (IOException e) {
+            failures.increment();
+            return;
+        }
+        // Each handler on its own: one that fails must not keep the message from the other
+        Consumer<ClusterMessage> subscriber = subscribers.get(message.type());
+        if (subscriber != null && !node.equals(message.node())) {
+            handle(() -> subscriber.accept(message));
+        }
+        ObjLongConsumer<ClusterMessage> ordered = orderedSubscribers.get(message.type());
+        if (ordered != null) {
+            handle(() -> ordered.accept(message, at));
+        }
+    }
+
+    private void handle(Runnable handler) {
+        try {
+            handler.run();
+        } catch (RuntimeException e) {
+            failures.increment();
+        }
+    }
+
+    private static long position(long segment, long offset) {
+        return segment << OFFSET_BITS | offset;
+    }
+
+    private FileChannel open(long segment) throws IOException {
+        return FileChannel.open(segmentFile(segment), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private Path segmentFile(long segment) {
+        return directory.resolve(String.format("bus-%08d.log", segment));
+    }
+}
@@ -0,0 +1,35 @@
+package com.technican.restservice.cluster;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+/** The bus of a single instance: there are no other nodes to send to or hear from. */
+@Component
+@ConditionalOnProperty(name = "cluster.bus", havingValue = "local", matchIfMissing = true)
+public class LocalClusterBus implements ClusterBus {
+    @Override
+    public void publish(Object message) {
+    }
+
+    @Override
+    public <T> void subscribe(Class<T> type, Consumer<T> handler) {
+    }
+
+    // Local events are already in the one order there is
+    @Override
+    public String epoch() {
+        return null;
+    }
+
+    @Override
+    public long joinedAt() {
+        return 0;
+    }
+
+    @Override
+    public <T> void subscribeInOrder(Class<T> type, ObjLongConsumer<T> handler) {
+    }
+}
@@ -4,9 +4,12 @@ import com.technican.restservice.model.User;
 import com.technican.restservice.security.JwtUtil;
 import com.technican.restservice.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 public class AuthController {
@@ -19,8 +22,15 @@ public class AuthController {
     public ResponseEntity<?> login(@RequestBody Map<String, String> req) {
         String username = req.get("username");
         String password = req.get("password");
-        var userOpt = userService.findByUsername(username);
-        if (userOpt.isEmpty() || !userService.checkPassword(password, userOpt.get().getPassword())) {
+        Optional<User> userOpt;
+        try {
+            userOpt = userService.authenticate(username, password);
+        } catch (RejectedExecutionException e) {
+            // Hashing pool saturated: shed the login instead of tying up a request thread
+            return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", "Too many logins in progress, retry shortly"));
+        }
+        if (userOpt.isEmpty()) {
             return ResponseEntity.status(401).body(Map.of("error", "Invalid credentials"));
         }
         User user = userOpt.get();
@@ -0,0 +1,21 @@
+package com.technican.restservice.controller;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * CBOR ({@code application/cbor}) as an alternative to JSON for clients that ask for it in
+ * {@code Accept}, and as a request body format. Built from Spring Boot's Jackson settings, so
+ * a CBOR document has exactly the fields and values of its JSON counterpart, dates included;
+ * only the encoding is binary.
+ */
+@Configuration
+public class CborConfig {
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,42 @@
+package com.technican.restservice.controller;
+
+import com.technican.restservice.service.EncodedJobs;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link EncodedJobs} response bodies straight to the response stream. Picked up
+ * by Spring Boot ahead of the Jackson converter.
+ */
+@Component
+public class EncodedJobsConverter extends AbstractHttpMessageConverter<EncodedJobs> {
+    public EncodedJobsConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return EncodedJobs.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected EncodedJobs readInternal(Class<? extends EncodedJobs> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Encoded jobs are only written", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(EncodedJobs jobs, HttpOutputMessage outputMessage) throws IOException {
+        jobs.writeTo(outputMessage.getBody());
+    }
+}
@@ -1,12 +1,43 @@
 package com.technican.restservice.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.technican.restservice.analytics.JobAnalytics;
+import com.technican.restservice.audit.AuditEntry;
+import com.technican.restservice.audit.JobAuditLog;
+import com.technican.restservice.dispatch.DispatchIndex;
+import com.technican.restservice.dispatch.DispatchService;
+import com.technican.restservice.feed.JobFeed;
+import com.technican.restservice.ingest.StatusEvent;
+import com.technican.restservice.ingest.StatusIngestor;
 import com.technican.restservice.model.Job;
 import com.technican.restservice.model.JobStatus;
-import com.technican.restservice.security.JwtUtil;
+import com.technican.restservice.model.Role;
+import com.technican.restservice.repository.JobQuery;
+import com.technican.restservice.route.RoutePlan;
+import com.technican.restservice.route.RouteService;
+import com.technican.restservice.security.AuthenticatedUser;
+import com.technican.restservice.service.JobJsonCache;
 import com.technican.restservice.service.JobService;
+import com.technican.restservice.service.JobVersions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 @RestController
@@ -16,30 +47,52 @@ public class JobController {
     private JobService jobService;
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private JobVersions jobVersions;
+
+    @Autowired
+    private JobFeed jobFeed;
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private RouteService routeService;
+
+    @Autowired
+    private StatusIngestor statusIngestor;
+
+    @Autowired
+    private JobAuditLog jobAuditLog;
+
+    @Autowired
+    private JobAnalytics jobAnalytics;
+
+    @Autowired
+    private JobJsonCache jobJsonCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+    // Clients may keep listings but must revalidate them (If-None-Match) on every poll
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    private static final int DISPATCHERS = AuthenticatedUser.mask(Role.ADMIN, Role.SCHEDULER);
+    private static final int MAX_ANALYTICS_DAYS = 366;
+    private static final int JOB_CREATORS = AuthenticatedUser.mask(Role.ADMIN, Role.SCHEDULER, Role.TECHNICIAN);
 
 
     // Create a new job (admin, technician, scheduler)
     @PostMapping
-    public ResponseEntity<?> createJob(@RequestBody Job job, @RequestHeader("Authorization") String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+    public ResponseEntity<?> createJob(@RequestBody Job job, @AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
             return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
         }
-        String token = authHeader.substring(7);
-        Set<String> roles;
-        Long userId;
-        try {
-            roles = jwtUtil.getRolesFromToken(token);
-            userId = jwtUtil.getUserIdFromToken(token);
-        } catch (Exception e) {
-            return ResponseEntity.status(401).body(Map.of("error", "Invalid token"));
-        }
-        if (!(roles.contains("ADMIN") || roles.contains("TECHNICIAN") || roles.contains("SCHEDULER"))) {
+        if (!user.hasAnyRole(JOB_CREATORS)) {
             return ResponseEntity.status(403).body(Map.of("error", "Not authorized to create jobs"));
         }
         // Only admin, scheduler can create jobs for any customer; technician can only create for themselves
-        if (roles.contains("TECHNICIAN") && !roles.contains("ADMIN") && !roles.contains("SCHEDULER")) {
-            job.setTechnicianId(userId);
+        if (user.hasRole(Role.TECHNICIAN) && !user.hasAnyRole(DISPATCHERS)) {
+            job.setTechnicianId(user.getUserId());
         }
         try {
             Job created = jobService.createJob(job);
@@ -50,70 +103,185 @@ public class JobController {
     }
 
 
-    // List all jobs (admin, scheduler only)
+    // Bulk-create jobs from a JSON array or an NDJSON stream (admin, technician, scheduler)
+    @PostMapping(path = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON_VALUE})
+    public ResponseEntity<?> createJobs(InputStream body, @AuthenticationPrincipal AuthenticatedUser user) throws IOException {
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
+        }
+        if (!user.hasAnyRole(JOB_CREATORS)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Not authorized to create jobs"));
+        }
+        boolean technicianOnly = user.hasRole(Role.TECHNICIAN) && !user.hasAnyRole(DISPATCHERS);
+        // readValues walks a top-level array element by element, or whitespace-separated
+        // NDJSON values, so the request is never materialized as a whole
+        try (MappingIterator<Job> jobs = objectMapper.readerFor(Job.class).readValues(body)) {
+            Iterator<Job> source = !technicianOnly ? jobs : new Iterator<>() {
+                public boolean hasNext() { return jobs.hasNext(); }
+                public Job next() {
+                    Job job = jobs.next();
+                    job.setTechnicianId(user.getUserId());
+                    return job;
+                }
+            };
+            return ResponseEntity.ok(jobService.createJobs(source));
+        }
+    }
+
+    // List all jobs (admin, scheduler only), one keyset page at a time
     @GetMapping
-    public ResponseEntity<?> listJobs(@RequestHeader("Authorization") String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+    public ResponseEntity<?> listJobs(@AuthenticationPrincipal AuthenticatedUser user, JobListRequest params, WebRequest request) {
+        if (user == null) {
             return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
         }
-        String token = authHeader.substring(7);
-        Set<String> roles;
+        if (!user.hasAnyRole(DISPATCHERS)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Not authorized to list all jobs"));
+        }
+        JobQuery query;
+        int limit;
         try {
-            roles = jwtUtil.getRolesFromToken(token);
-        } catch (Exception e) {
-            return ResponseEntity.status(401).body(Map.of("error", "Invalid token"));
+            query = params.toQuery();
+            limit = params.pageSize();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
-        if (!(roles.contains("ADMIN") || roles.contains("SCHEDULER"))) {
-            return ResponseEntity.status(403).body(Map.of("error", "Not authorized to list all jobs"));
+        // JobListRequest is a record, so its toString covers every query parameter
+        String etag = jobVersions.allJobsETag(params);
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        List<Job> page = jobService.findPage(query, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE);
+        if (page.size() == limit) {
+            String next = query.cursorAfter(page.get(page.size() - 1));
+            String link = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", next)
+                    .replaceQueryParam("limit", limit)
+                    .toUriString();
+            response.header("X-Next-Cursor", next).header(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"");
+        }
+        // Listings copy each job's cached JSON instead of serializing the jobs again
+        return response.body(jobJsonCache.encode(page));
+    }
+
+    // Stream all matching jobs as NDJSON (admin, scheduler only); memory use does not grow with the job count
+    @GetMapping(produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamJobs(@AuthenticationPrincipal AuthenticatedUser user, JobListRequest params) {
+        if (user == null) {
+            return streamError(401, "Authentication required");
         }
-        return ResponseEntity.ok(jobService.findAll());
+        if (!user.hasAnyRole(DISPATCHERS)) {
+            return streamError(403, "Not authorized to list all jobs");
+        }
+        JobQuery query;
+        try {
+            query = params.toQuery();
+        } catch (IllegalArgumentException e) {
+            return streamError(400, e.getMessage());
+        }
+        StreamingResponseBody body = out -> jobService.streamJobs(query, job -> {
+            try {
+                out.write(jobJsonCache.json(job));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_VALUE)).body(body);
+    }
+
+    // Streaming handlers must return a StreamingResponseBody, so errors are written through one too
+    private ResponseEntity<StreamingResponseBody> streamError(int status, String message) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, Map.of("error", message)));
     }
 
     // Technician: view assigned jobs; Customer: view their jobs/requests
     @GetMapping("/my")
-    public ResponseEntity<?> myJobs(@RequestHeader("Authorization") String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+    public ResponseEntity<?> myJobs(@AuthenticationPrincipal AuthenticatedUser user, WebRequest request) {
+        if (user == null) {
             return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
         }
-        String token = authHeader.substring(7);
-        Set<String> roles;
-        Long userId;
-        try {
-            roles = jwtUtil.getRolesFromToken(token);
-            userId = jwtUtil.getUserIdFromToken(token);
-        } catch (Exception e) {
-            return ResponseEntity.status(401).body(Map.of("error", "Invalid token"));
+        boolean technician = user.hasRole(Role.TECHNICIAN);
+        if (!technician && !user.hasRole(Role.CUSTOMER)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Not authorized"));
+        }
+        // An unchanged poll is answered from the version counter alone
+        String etag = technician ? jobVersions.technicianJobsETag(user.getUserId()) : jobVersions.customerJobsETag(user.getUserId());
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        List<Job> jobs = technician ? jobService.findByTechnicianId(user.getUserId()) : jobService.findByCustomerId(user.getUserId());
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(jobJsonCache.encode(jobs));
+    }
+
+    // Visiting order for a technician's scheduled jobs: technicians get their own, admin/scheduler pass technicianId
+    @GetMapping("/route")
+    public ResponseEntity<?> route(@AuthenticationPrincipal AuthenticatedUser user,
+                                   @RequestParam(required = false) Long technicianId, WebRequest request) {
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
         }
-        if (roles.contains("TECHNICIAN")) {
-            return ResponseEntity.ok(jobService.findByTechnicianId(userId));
-        } else if (roles.contains("CUSTOMER")) {
-            return ResponseEntity.ok(jobService.findByCustomerId(userId));
+        if (user.hasAnyRole(DISPATCHERS)) {
+            if (technicianId == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "technicianId is required"));
+            }
+        } else if (user.hasRole(Role.TECHNICIAN) && (technicianId == null || technicianId.equals(user.getUserId()))) {
+            technicianId = user.getUserId();
         } else {
-            return ResponseEntity.status(403).body(Map.of("error", "Not authorized"));
+            return ResponseEntity.status(403).body(Map.of("error", "Not authorized to view this route"));
+        }
+        // The route changes only with the technician's jobs, so it shares their version
+        String etag = jobVersions.technicianJobsETag(technicianId);
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
         }
+        Optional<RoutePlan> plan = routeService.planFor(technicianId);
+        if (plan.isEmpty()) {
+            return ResponseEntity.status(404).body(Map.of("error", "Technician not found"));
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(plan.get());
+    }
+
+    private static ResponseEntity<?> notModified(String etag) {
+        return ResponseEntity.status(304).eTag(etag).cacheControl(REVALIDATE).build();
+    }
+
+    // Push job changes as Server-Sent Events: technicians and customers get their own jobs, admin/scheduler get all.
+    // Reconnecting clients send Last-Event-ID to receive what they missed.
+    @GetMapping(path = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> feed(@AuthenticationPrincipal AuthenticatedUser user,
+                                           @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        // An event stream has no room for a JSON error body, so refusals are status-only
+        if (user == null) {
+            return ResponseEntity.status(401).build();
+        }
+        SseEmitter emitter;
+        if (user.hasAnyRole(DISPATCHERS)) {
+            emitter = jobFeed.subscribeAll(lastEventId);
+        } else if (user.hasRole(Role.TECHNICIAN)) {
+            emitter = jobFeed.subscribeTechnician(user.getUserId(), lastEventId);
+        } else if (user.hasRole(Role.CUSTOMER)) {
+            emitter = jobFeed.subscribeCustomer(user.getUserId(), lastEventId);
+        } else {
+            return ResponseEntity.status(403).build();
+        }
+        // Keep proxies from buffering the stream
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).header("X-Accel-Buffering", "no").body(emitter);
     }
 
 
     // Update job status (admin, scheduler, assigned technician)
     @PutMapping("/{id}/status")
-    public ResponseEntity<?> updateJobStatus(@PathVariable Long id, @RequestBody Map<String, String> req, @RequestHeader("Authorization") String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+    public ResponseEntity<?> updateJobStatus(@PathVariable Long id, @RequestBody Map<String, String> req, @AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
             return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
         }
-        String token = authHeader.substring(7);
-        Set<String> roles;
-        Long userId;
-        try {
-            roles = jwtUtil.getRolesFromToken(token);
-            userId = jwtUtil.getUserIdFromToken(token);
-        } catch (Exception e) {
-            return ResponseEntity.status(401).body(Map.of("error", "Invalid token"));
-        }
         Job job = jobService.findById(id).orElse(null);
         if (job == null) {
             return ResponseEntity.status(404).body(Map.of("error", "Job not found"));
         }
-        if (!(roles.contains("ADMIN") || roles.contains("SCHEDULER") || (roles.contains("TECHNICIAN") && Objects.equals(job.getTechnicianId(), userId)))) {
+        if (!(user.hasAnyRole(DISPATCHERS) || (user.hasRole(Role.TECHNICIAN) && Objects.equals(job.getTechnicianId(), user.getUserId())))) {
             return ResponseEntity.status(403).body(Map.of("error", "Not authorized to update job status"));
         }
         String status = req.get("status");
@@ -126,24 +294,52 @@ public class JobController {
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", "Invalid status value"));
         }
-        jobService.updateJobStatus(id, newStatus);
+        try {
+            if (jobService.updateJobStatus(id, newStatus).isEmpty()) {
+                return ResponseEntity.status(404).body(Map.of("error", "Job not found"));
+            }
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        }
         return ResponseEntity.ok(Map.of("status", newStatus));
     }
 
+    // Queue status updates recorded offline by a device (admin, scheduler, technician); acknowledged once
+    // logged to disk and applied shortly after. Technicians' events only apply to jobs assigned to them.
+    @PostMapping("/status-events")
+    public ResponseEntity<?> ingestStatusEvents(@RequestBody List<StatusEventRequest> req, @AuthenticationPrincipal AuthenticatedUser user) throws IOException {
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
+        }
+        boolean dispatcher = user.hasAnyRole(DISPATCHERS);
+        if (!dispatcher && !user.hasRole(Role.TECHNICIAN)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Not authorized to update job status"));
+        }
+        if (req.size() > StatusEventRequest.MAX_BATCH) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most " + StatusEventRequest.MAX_BATCH + " events per request"));
+        }
+        List<StatusEvent> events = new ArrayList<>(req.size());
+        for (int i = 0; i < req.size(); i++) {
+            try {
+                events.add(req.get(i).toEvent(user.getUserId(), dispatcher));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Event " + i + ": " + e.getMessage()));
+            }
+        }
+        if (!statusIngestor.accept(events)) {
+            return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(Map.of("error", "Too many status events waiting to be applied; retry later"));
+        }
+        return ResponseEntity.accepted().body(Map.of("accepted", events.size()));
+    }
+
     // Assign a technician to a job (admin, scheduler)
     @PostMapping("/{id}/assign")
-    public ResponseEntity<?> assignTechnician(@PathVariable Long id, @RequestBody Map<String, Long> req, @RequestHeader("Authorization") String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+    public ResponseEntity<?> assignTechnician(@PathVariable Long id, @RequestBody Map<String, Long> req, @AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
             return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
         }
-        String token = authHeader.substring(7);
-        Set<String> roles;
-        try {
-            roles = jwtUtil.getRolesFromToken(token);
-        } catch (Exception e) {
-            return ResponseEntity.status(401).body(Map.of("error", "Invalid token"));
-        }
-        if (!(roles.contains("ADMIN") || roles.contains("SCHEDULER"))) {
+        if (!user.hasAnyRole(DISPATCHERS)) {
             return ResponseEntity.status(403).body(Map.of("error", "Not authorized to assign technician"));
         }
         Long techId = req.get("technicianId");
@@ -151,27 +347,103 @@ public class JobController {
             return ResponseEntity.badRequest().body(Map.of("error", "technicianId is required"));
         }
         try {
-            jobService.assignTechnician(id, techId);
+            // Optional "version": the job version the caller last saw; assignment fails if it has moved on
+            jobService.assignTechnician(id, techId, req.get("version"));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(Map.of("error", "Job was changed by another request; reload it and retry"));
         }
         return ResponseEntity.ok(Map.of("assigned", techId));
     }
 
-    // Delete a job (admin, scheduler only)
-    @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteJob(@PathVariable Long id, @RequestHeader("Authorization") String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+    // Job counts per creation day by status, service type and technician (admin, scheduler); the last 30 days by default
+    @GetMapping("/analytics")
+    public ResponseEntity<?> analytics(@AuthenticationPrincipal AuthenticatedUser user,
+                                       @RequestParam(required = false) String from, @RequestParam(required = false) String to) {
+        if (user == null) {
             return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
         }
-        String token = authHeader.substring(7);
-        Set<String> roles;
+        if (!user.hasAnyRole(DISPATCHERS)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Not authorized to view analytics"));
+        }
+        LocalDate last;
+        LocalDate first;
         try {
-            roles = jwtUtil.getRolesFromToken(token);
-        } catch (Exception e) {
-            return ResponseEntity.status(401).body(Map.of("error", "Invalid token"));
+            last = to == null ? LocalDate.now() : LocalDate.parse(to);
+            first = from == null ? last.minusDays(29) : LocalDate.parse(from);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "from and to must be dates like 2026-10-18"));
+        }
+        if (first.isAfter(last) || ChronoUnit.DAYS.between(first, last) >= MAX_ANALYTICS_DAYS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "from must be on or before to, at most " + MAX_ANALYTICS_DAYS + " days apart"));
+        }
+        return ResponseEntity.ok(Map.of("from", first, "to", last, "days", jobAnalytics.days(first, last)));
+    }
+
+    // Who changed a job and how, oldest first (admin, scheduler; technician and customer of the job)
+    @GetMapping("/{id}/history")
+    public ResponseEntity<?> jobHistory(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
+        }
+        if (!user.hasAnyRole(DISPATCHERS)) {
+            Job job = jobService.findById(id).orElse(null);
+            boolean own = job != null
+                    && ((user.hasRole(Role.TECHNICIAN) && Objects.equals(job.getTechnicianId(), user.getUserId()))
+                    || (user.hasRole(Role.CUSTOMER) && Objects.equals(job.getCustomerId(), user.getUserId())));
+            if (!own) {
+                return ResponseEntity.status(403).body(Map.of("error", "Not authorized to view job history"));
+            }
+        }
+        List<AuditEntry> history = jobAuditLog.history(id);
+        if (history.isEmpty()) {
+            return ResponseEntity.status(404).body(Map.of("error", "Job not found"));
+        }
+        return ResponseEntity.ok(Map.of("jobId", id, "history", history));
+    }
+
+    // Assign the best technician by skill, workload and distance (admin, scheduler)
+    @PostMapping("/{id}/auto-assign")
+    public ResponseEntity<?> autoAssign(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
+        }
+        if (!user.hasAnyRole(DISPATCHERS)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Not authorized to assign technician"));
+        }
+        Job job = jobService.findById(id).orElse(null);
+        if (job == null) {
+            return ResponseEntity.status(404).body(Map.of("error", "Job not found"));
+        }
+        if (job.getTechnicianId() != null || !job.getStatus().isOpen()) {
+            return ResponseEntity.status(409).body(Map.of("error", "Job is already assigned or completed"));
+        }
+        Optional<DispatchIndex.Candidate> chosen;
+        try {
+            chosen = dispatchService.autoAssign(job);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(Map.of("error", "Job was changed by another request; reload it and retry"));
+        }
+        if (chosen.isEmpty()) {
+            return ResponseEntity.status(409).body(Map.of("error", "No available technician for " + job.getServiceType()));
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("assigned", chosen.get().technicianId());
+        body.put("openJobs", chosen.get().openJobs());
+        if (!Double.isNaN(chosen.get().distanceKm())) {
+            body.put("distanceKm", Math.round(chosen.get().distanceKm() * 10) / 10.0);
+        }
+        return ResponseEntity.ok(body);
+    }
+
+    // Delete a job (admin, scheduler only)
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteJob(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
         }
-        if (!(roles.contains("ADMIN") || roles.contains("SCHEDULER"))) {
+        if (!user.hasAnyRole(DISPATCHERS)) {
             return ResponseEntity.status(403).body(Map.of("error", "Not authorized to delete job"));
         }
         jobService.deleteJob(id);
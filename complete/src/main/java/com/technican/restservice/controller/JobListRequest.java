@@ -0,0 +1,53 @@
+package com.technican.restservice.controller;
+
+import com.technican.restservice.model.JobStatus;
+import com.technican.restservice.repository.JobQuery;
+import org.springframework.format.annotation.DateTimeFormat;
+import java.time.LocalDateTime;
+
+/**
+ * Query parameters of {@code GET /jobs}: optional filters, sort order and the
+ * keyset cursor returned with the previous page.
+ */
+public record JobListRequest(
+        String cursor,
+        Integer limit,
+        JobStatus status,
+        String serviceType,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        String sort,
+        String order) {
+
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 1000;
+
+    public int pageSize() {
+        int size = limit == null ? DEFAULT_LIMIT : limit;
+        if (size < 1 || size > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return size;
+    }
+
+    public JobQuery toQuery() {
+        JobQuery.Sort by;
+        if (sort == null || sort.equals("createdAt")) {
+            by = JobQuery.Sort.CREATED_AT;
+        } else if (sort.equals("id")) {
+            by = JobQuery.Sort.ID;
+        } else {
+            throw new IllegalArgumentException("sort must be createdAt or id");
+        }
+        boolean descending;
+        if (order == null || order.equalsIgnoreCase("asc")) {
+            descending = false;
+        } else if (order.equalsIgnoreCase("desc")) {
+            descending = true;
+        } else {
+            throw new IllegalArgumentException("order must be asc or desc");
+        }
+        String type = serviceType == null || serviceType.isBlank() ? null : serviceType;
+        return new JobQuery(status, type, from, to, by, descending, null, null).after(cursor);
+    }
+}
@@ -0,0 +1,34 @@
+package com.technican.restservice.controller;
+
+import com.technican.restservice.ingest.StatusEvent;
+import com.technican.restservice.model.JobStatus;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * One element of {@code POST /jobs/status-events}: a status a device recorded for a job,
+ * with the device's ISO-8601 timestamp of when it did.
+ */
+public record StatusEventRequest(Long jobId, String status, Instant timestamp) {
+
+    static final int MAX_BATCH = 1000;
+
+    StatusEvent toEvent(long senderId, boolean dispatcher) {
+        if (jobId == null) {
+            throw new IllegalArgumentException("jobId is required");
+        }
+        if (status == null || status.isBlank()) {
+            throw new IllegalArgumentException("status is required");
+        }
+        if (timestamp == null) {
+            throw new IllegalArgumentException("timestamp is required");
+        }
+        JobStatus parsed;
+        try {
+            parsed = JobStatus.valueOf(status.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid status value");
+        }
+        return new StatusEvent(jobId, parsed, timestamp.toEpochMilli(), senderId, dispatcher);
+    }
+}
@@ -2,11 +2,16 @@ package com.technican.restservice.controller;
 
 import com.technican.restservice.model.User;
 import com.technican.restservice.model.Role;
+import com.technican.restservice.security.AuthenticatedUser;
 import com.technican.restservice.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/users")
@@ -17,7 +22,7 @@ public class UserController {
 
     // Register a new user
     @PostMapping
-    public ResponseEntity<?> register(@RequestBody Map<String, Object> req, @RequestHeader(value = "Authorization", required = false) String authHeader) {
+    public ResponseEntity<?> register(@RequestBody Map<String, Object> req, @AuthenticationPrincipal AuthenticatedUser principal) {
         // Accept roles as List<String> or String[] and convert to Set<Role>
         String username = (String) req.get("username");
         String password = (String) req.get("password");
@@ -32,31 +37,30 @@ public class UserController {
                 roles.add(Role.valueOf(r.toString()));
             }
         }
-        System.out.println("[DEBUG] Registering user '" + username + "' with roles: " + roles);
         User user = new User();
         user.setUsername(username);
         user.setPassword(password);
         user.setRoles(roles);
+        user.setContactInfo((String) req.get("contactInfo"));
+        user.setAddress((String) req.get("address"));
+        // Technicians: the service types they take on, for auto-dispatch
+        if (req.get("skills") instanceof List<?> skills) {
+            Set<String> skillNames = new HashSet<>();
+            for (Object skill : skills) skillNames.add(skill.toString());
+            user.setSkills(skillNames);
+        }
         // Enforce first admin creation logic and role check for other users
-        boolean isFirstAdmin = userService.findAll().isEmpty() && roles.contains(Role.ADMIN);
+        boolean isFirstAdmin = roles.contains(Role.ADMIN) && !userService.hasUsers();
         if (!isFirstAdmin) {
             // All other users require an authenticated admin
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            if (principal == null) {
                 return ResponseEntity.status(401).body(Map.of("error", "Admin authentication required"));
             }
-            String token = authHeader.substring(7);
-            // Validate token and check admin role
-            try {
-                var jwtUtil = userService.getJwtUtil();
-                var jwtRoles = jwtUtil.getRolesFromToken(token);
-                if (!jwtRoles.contains("ADMIN")) {
-                    return ResponseEntity.status(403).body(Map.of("error", "Admin role required"));
-                }
-            } catch (Exception e) {
-                return ResponseEntity.status(401).body(Map.of("error", "Invalid token"));
+            if (!principal.hasRole(Role.ADMIN)) {
+                return ResponseEntity.status(403).body(Map.of("error", "Admin role required"));
             }
         }
-        if (userService.findByUsername(user.getUsername()).isPresent()) {
+        if (userService.usernameExists(user.getUsername())) {
             return ResponseEntity.badRequest().body(Map.of("error", "Duplicate username"));
         }
         try {
@@ -66,30 +70,28 @@ public class UserController {
                 "username", created.getUsername(),
                 "roles", created.getRoles()
             );
-            System.out.println("[DEBUG] Registered user response: " + response);
             return ResponseEntity.status(201).body(response);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent registration claimed the username after the check above
+            return ResponseEntity.badRequest().body(Map.of("error", "Duplicate username"));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", "Too many password operations in progress, retry shortly"));
         }
     }
 
 
     // Delete a user (admin only)
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteUser(@PathVariable Long id, @RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> deleteUser(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
         // Enforce admin role check
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (principal == null) {
             return ResponseEntity.status(401).body(Map.of("error", "Admin authentication required"));
         }
-        String token = authHeader.substring(7);
-        try {
-            var jwtUtil = userService.getJwtUtil();
-            var roles = jwtUtil.getRolesFromToken(token);
-            if (!roles.contains("ADMIN")) {
-                return ResponseEntity.status(403).body(Map.of("error", "Admin role required"));
-            }
-        } catch (Exception e) {
-            return ResponseEntity.status(401).body(Map.of("error", "Invalid token"));
+        if (!principal.hasRole(Role.ADMIN)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Admin role required"));
         }
         userService.deleteUser(id);
         return ResponseEntity.ok(Map.of("status", "deleted"));
@@ -0,0 +1,116 @@
+package com.technican.restservice.datasource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replication for trying the replica setup with two H2 databases, which cannot replicate
+ * themselves: every {@code datasource.replica.stand-in.interval-ms} it copies the primary's
+ * tables to the replica. The replica's schema is rebuilt from the primary's whenever a table
+ * is missing. Each copy reads one snapshot of the primary and replaces the replica's rows in
+ * one transaction, so replica readers see either the previous copy or the new one.
+ *
+ * <p>The interval is the replication lag to size {@code datasource.replica.read-your-writes-ms}
+ * against. Not for production: every copy reads every row.
+ */
+@Component
+@ConditionalOnProperty("datasource.replica.stand-in.interval-ms")
+public class H2ReplicationStandIn {
+    private final DataSource primary;
+    private final DataSource replica;
+
+    public H2ReplicationStandIn(@Qualifier("primaryDataSource") DataSource primary,
+                                @Qualifier("replicaDataSource") DataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.stand-in.interval-ms}")
+    public synchronized void copy() throws SQLException {
+        try (Connection from = primary.getConnection(); Connection to = replica.getConnection()) {
+            from.setAutoCommit(false);
+            from.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            List<String> tables = tables(from);
+            try (Statement statement = to.createStatement()) {
+                if (!tables(to).containsAll(tables)) {
+                    statement.execute("DROP ALL OBJECTS");
+                    for (String ddl : script(from)) {
+                        statement.execute(ddl);
+                    }
+                }
+                to.setAutoCommit(false);
+                // Rows are copied table by table, not in foreign key order
+                statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+                try {
+                    for (String table : tables) {
+                        statement.executeUpdate("DELETE FROM \"" + table + "\"");
+                        copyRows(from, to, table);
+                    }
+                    to.commit();
+                } catch (SQLException e) {
+                    to.rollback();
+                    throw e;
+                } finally {
+                    statement.execute("SET REFERENTIAL_INTEGRITY TRUE");
+                }
+            } finally {
+                from.commit();
+            }
+        }
+    }
+
+    private static void copyRows(Connection from, Connection to, String table) throws SQLException {
+        try (Statement select = from.createStatement();
+             ResultSet rows = select.executeQuery("SELECT * FROM \"" + table + "\"")) {
+            int columns = rows.getMetaData().getColumnCount();
+            String insert = "INSERT INTO \"" + table + "\" VALUES (" + "?, ".repeat(columns - 1) + "?)";
+            try (PreparedStatement batch = to.prepareStatement(insert)) {
+                int pending = 0;
+                while (rows.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        batch.setObject(i, rows.getObject(i));
+                    }
+                    batch.addBatch();
+                    if (++pending == 1000) {
+                        batch.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    batch.executeBatch();
+                }
+            }
+        }
+    }
+
+    private static List<String> tables(Connection connection) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES"
+                     + " WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'")) {
+            while (rows.next()) {
+                tables.add(rows.getString(1));
+            }
+        }
+        return tables;
+    }
+
+    private static List<String> script(Connection connection) throws SQLException {
+        List<String> ddl = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SCRIPT NODATA NOSETTINGS")) {
+            while (rows.next()) {
+                ddl.add(rows.getString(1));
+            }
+        }
+        return ddl;
+    }
+}
@@ -0,0 +1,114 @@
+package com.technican.restservice.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.technican.restservice.event.JobChangedEvent;
+import com.technican.restservice.security.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Decides which queries may read from the replica configured with
+ * {@code datasource.replica.url}; everything else, and everything when no replica is
+ * configured, reads from the primary.
+ *
+ * <p>Only queries run through {@link #query(Long, Supplier)} are candidates, and only while
+ * neither the calling user nor the user whose data is read changed a job in the last
+ * {@code datasource.replica.read-your-writes-ms}. A technician who just moved a job along,
+ * and the job's customer and technicians, therefore read the primary until the replica has
+ * caught up; that also keeps a list cached from such a read from being stale. The window
+ * must be longer than the replication lag. It opens when the change is published, before it
+ * commits, so no read in between can miss it.
+ *
+ * <p>Listings of everyone's jobs run through {@link #queryAllJobs(Supplier)} and read the
+ * replica only while no job at all changed within the window. Their ETags come from a
+ * version that moves with every change, so rows from before a change served under the
+ * version after it would be revalidated by every later poll.
+ */
+@Component
+public class ReplicaReads {
+    private static final ThreadLocal<Boolean> ON_REPLICA = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final long readYourWritesNanos;
+    // Users who changed, or whose jobs were changed, within the window
+    private final Cache<Long, Boolean> recentWriters;
+    private volatile long lastJobChange;
+
+    public ReplicaReads(@Value("${datasource.replica.url:}") String replicaUrl,
+                        @Value("${datasource.replica.read-your-writes-ms:5000}") long readYourWritesMs) {
+        this.enabled = !replicaUrl.isBlank();
+        this.readYourWritesNanos = Duration.ofMillis(readYourWritesMs).toNanos();
+        this.lastJobChange = System.nanoTime() - readYourWritesNanos;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(readYourWritesMs))
+                .build();
+    }
+
+    /**
+     * Runs a read-only query, on the replica unless the caller or {@code ownerId} (the user
+     * whose data it reads, if any) is within the read-your-writes window. Connections already
+     * bound to the thread, such as the one of an enclosing transaction, are used as they are.
+     */
+    public <T> T query(Long ownerId, Supplier<T> query) {
+        return run(!recent(ownerId) && !recent(currentUserId()), query);
+    }
+
+    /** Runs a read-only query over every user's jobs, on the replica unless any job changed within the window. */
+    public <T> T queryAllJobs(Supplier<T> query) {
+        return run(System.nanoTime() - lastJobChange >= readYourWritesNanos, query);
+    }
+
+    private <T> T run(boolean replica, Supplier<T> query) {
+        if (!enabled || !replica) {
+            return query.get();
+        }
+        Boolean previous = ON_REPLICA.get();
+        ON_REPLICA.set(Boolean.TRUE);
+        try {
+            return query.get();
+        } finally {
+            if (previous == null) {
+                ON_REPLICA.remove();
+            } else {
+                ON_REPLICA.set(previous);
+            }
+        }
+    }
+
+    // Before commit on purpose: opening the window early only costs a few primary reads
+    @EventListener
+    public void onJobChanged(JobChangedEvent event) {
+        if (enabled) {
+            lastJobChange = System.nanoTime();
+            wrote(event.actorId());
+            wrote(event.customerId());
+            wrote(event.technicianId());
+            wrote(event.previousTechnicianId());
+        }
+    }
+
+    /** Whether connections taken on this thread now should come from the replica. */
+    static boolean onReplica() {
+        return ON_REPLICA.get() != null;
+    }
+
+    private void wrote(Long userId) {
+        if (userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    private boolean recent(Long userId) {
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+
+    private static Long currentUserId() {
+        AuthenticatedUser user = AuthenticatedUser.current();
+        return user == null ? null : user.getUserId();
+    }
+}
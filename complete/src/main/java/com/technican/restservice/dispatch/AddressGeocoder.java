@@ -0,0 +1,89 @@
+package com.technican.restservice.dispatch;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves {@code User.address} to a position for auto-dispatch and route planning. There
+ * is no geocoding service behind this application; addresses resolve from:
+ * <ol>
+ *   <li>the local table at {@code dispatch.geocoder.table}, if configured: one
+ *       {@code latitude,longitude,address} line per address, {@code #} starting a comment.
+ *       Addresses match ignoring case and runs of whitespace.</li>
+ *   <li>a trailing {@code "latitude,longitude"} pair in the address itself,
+ *       e.g. {@code "12 Main St, Springfield @ 39.80,-89.64"}.</li>
+ * </ol>
+ * Anything else has no position and is dispatched by workload alone.
+ */
+@Component
+public class AddressGeocoder {
+    private static final Pattern TRAILING_COORDINATES =
+            Pattern.compile("(-?\\d{1,3}(?:\\.\\d+)?)\\s*,\\s*(-?\\d{1,3}(?:\\.\\d+)?)\\s*$");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, GeoPoint> table;
+
+    public AddressGeocoder(@Value("${dispatch.geocoder.table:}") String tableLocation, ResourceLoader resourceLoader) {
+        this.table = tableLocation.isBlank() ? Map.of() : load(resourceLoader.getResource(tableLocation));
+    }
+
+    public Optional<GeoPoint> locate(String address) {
+        if (address == null) {
+            return Optional.empty();
+        }
+        GeoPoint known = table.get(normalize(address));
+        if (known != null) {
+            return Optional.of(known);
+        }
+        Matcher matcher = TRAILING_COORDINATES.matcher(address);
+        if (!matcher.find()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new GeoPoint(Double.parseDouble(matcher.group(1)), Double.parseDouble(matcher.group(2))));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Map<String, GeoPoint> load(Resource resource) {
+        Map<String, GeoPoint> table = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (line.isBlank() || line.stripLeading().startsWith("#")) {
+                    continue;
+                }
+                // The address goes last so it may contain commas itself
+                String[] fields = line.split(",", 3);
+                try {
+                    table.put(normalize(fields[2]), new GeoPoint(Double.parseDouble(fields[0].trim()), Double.parseDouble(fields[1].trim())));
+                } catch (RuntimeException e) {
+                    throw new IllegalStateException("Invalid geocoder table entry at " + resource.getDescription() + " line " + number, e);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read geocoder table " + resource.getDescription(), e);
+        }
+        return table;
+    }
+
+    private static String normalize(String address) {
+        return WHITESPACE.matcher(address.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,342 @@
+package com.technican.restservice.dispatch;
+
+import com.technican.restservice.event.JobChangedEvent;
+import com.technican.restservice.model.JobStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory indexes behind auto-dispatch, kept current from {@link JobChangedEvent}s
+ * (workload) and {@link DispatchService} (technicians) instead of being recomputed per
+ * request. For each skill:
+ * <ul>
+ *   <li>a grid of {@code dispatch.grid-cell-degrees} cells holding the technicians with a position</li>
+ *   <li>the technicians ordered by open-job count, a priority queue the load updates re-position</li>
+ * </ul>
+ *
+ * <p>A technician scores its distance to the job in km plus {@code dispatch.load-penalty-km}
+ * per open job; the lowest score wins. Technicians with {@code dispatch.max-open-jobs} open
+ * jobs, or farther than {@code dispatch.max-distance-km}, are skipped. The search visits grid
+ * rings outwards from the job and stops once the nearest unvisited ring, plus the penalty of
+ * the least-loaded technician, cannot beat the best score so far, so its cost depends on the
+ * technicians around the job rather than on how many there are in total. Jobs without a
+ * position go to the least-loaded technician with the skill.
+ */
+@Component
+public class DispatchIndex {
+    private static final double KM_PER_DEGREE = Math.PI * GeoPoint.EARTH_RADIUS_KM / 180;
+
+    /** The chosen technician; {@code distanceKm} is NaN when the job has no position. */
+    public record Candidate(Long technicianId, int openJobs, double distanceKm) {}
+
+    private final double cellDegrees;
+    private final double loadPenaltyKm;
+    private final double maxDistanceKm;
+    private final int maxOpenJobs;
+    private final int rows;
+    private final int columns;
+    // One lock for everything: selections take microseconds, and updates must move a
+    // technician between load buckets of every skill atomically
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, Technician> technicians = new HashMap<>();
+    private final Map<String, SkillIndex> skills = new HashMap<>();
+
+    public DispatchIndex(@Value("${dispatch.grid-cell-degrees:0.1}") double cellDegrees,
+                         @Value("${dispatch.load-penalty-km:10}") double loadPenaltyKm,
+                         @Value("${dispatch.max-distance-km:150}") double maxDistanceKm,
+                         @Value("${dispatch.max-open-jobs:25}") int maxOpenJobs) {
+        this.cellDegrees = cellDegrees;
+        this.loadPenaltyKm = loadPenaltyKm;
+        this.maxDistanceKm = maxDistanceKm;
+        this.maxOpenJobs = maxOpenJobs;
+        this.rows = (int) Math.ceil(180 / cellDegrees) + 1;
+        this.columns = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    /** Adds or replaces a technician, keeping the open-job count already known for it. */
+    public void putTechnician(Long id, Collection<String> skillNames, GeoPoint location) {
+        lock.lock();
+        try {
+            Technician previous = technicians.remove(id);
+            if (previous != null) {
+                unindex(previous);
+            }
+            Set<String> normalized = new HashSet<>();
+            for (String skill : skillNames) {
+                if (skill != null && !skill.isBlank()) {
+                    normalized.add(normalize(skill));
+                }
+            }
+            Technician technician = new Technician(id, normalized, location, location == null ? -1 : cell(location));
+            technician.openJobs = previous == null ? 0 : previous.openJobs;
+            technicians.put(id, technician);
+            index(technician);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void removeTechnician(Long id) {
+        lock.lock();
+        try {
+            Technician technician = technicians.remove(id);
+            if (technician != null) {
+                unindex(technician);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Changes a technician's open-job count; unknown technicians are ignored. */
+    public void adjustLoad(Long technicianId, int delta) {
+        if (technicianId == null || delta == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            Technician technician = technicians.get(technicianId);
+            if (technician == null) {
+                return;
+            }
+            for (String skill : technician.skills) {
+                skills.get(skill).byLoad.remove(technician);
+            }
+            technician.openJobs = Math.max(0, technician.openJobs + delta);
+            for (String skill : technician.skills) {
+                skills.get(skill).byLoad.add(technician);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Forgets every technician; used before a full reload. */
+    public void clear() {
+        lock.lock();
+        try {
+            technicians.clear();
+            skills.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return technicians.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** The best technician for a job of {@code serviceType} at {@code location} (null if unknown). */
+    public Optional<Candidate> select(String serviceType, GeoPoint location) {
+        if (serviceType == null) {
+            return Optional.empty();
+        }
+        lock.lock();
+        try {
+            SkillIndex skill = skills.get(normalize(serviceType));
+            if (skill == null) {
+                return Optional.empty();
+            }
+            return location == null ? leastLoaded(skill) : nearest(skill, location);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // fallbackExecution: changes made outside a transaction (e.g. the in-memory store) apply immediately
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobChanged(JobChangedEvent event) {
+        boolean open = isOpen(event.status());
+        switch (event.type()) {
+            case CREATED -> adjustLoad(event.technicianId(), open ? 1 : 0);
+            case ASSIGNED -> {
+                if (open && !Objects.equals(event.previousTechnicianId(), event.technicianId())) {
+                    adjustLoad(event.previousTechnicianId(), -1);
+                    adjustLoad(event.technicianId(), 1);
+                }
+            }
+            case STATUS_CHANGED -> {
+                boolean wasOpen = isOpen(event.previousStatus());
+                if (wasOpen != open) {
+                    adjustLoad(event.technicianId(), open ? 1 : -1);
+                }
+            }
+            case DELETED -> adjustLoad(event.technicianId(), open ? -1 : 0);
+        }
+    }
+
+    private Optional<Candidate> leastLoaded(SkillIndex skill) {
+        Technician technician = skill.byLoad.isEmpty() ? null : skill.byLoad.first();
+        if (technician == null || technician.openJobs >= maxOpenJobs) {
+            return Optional.empty();
+        }
+        return Optional.of(new Candidate(technician.id, technician.openJobs, Double.NaN));
+    }
+
+    private Optional<Candidate> nearest(SkillIndex skill, GeoPoint location) {
+        if (skill.byLoad.isEmpty() || skill.byLoad.first().openJobs >= maxOpenJobs) {
+            return Optional.empty();
+        }
+        // No one can score below the least-loaded technician's penalty
+        double minimumPenalty = loadPenaltyKm * skill.byLoad.first().openJobs;
+        // Any technician within range lies between these latitudes, where a longitude degree
+        // is at its shortest, so a cell is at least cellKm wide in both directions
+        double latitudeSpan = maxDistanceKm / KM_PER_DEGREE;
+        double shortestCos = Math.cos(Math.toRadians(Math.min(90, Math.abs(location.latitude()) + latitudeSpan)));
+        double cellKm = cellDegrees * KM_PER_DEGREE * shortestCos;
+        int maxRing = shortestCos <= 1e-9 ? columns / 2 : Math.min(columns / 2, (int) Math.ceil(maxDistanceKm / cellKm) + 1);
+        int row = row(location.latitude());
+        int column = column(location.longitude());
+
+        Technician best = null;
+        double bestScore = Double.POSITIVE_INFINITY;
+        double bestDistance = 0;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Every cell of this ring is at least ring - 1 whole cells away from the job
+            double nearestKm = Math.max(0, ring - 1) * cellKm;
+            if (nearestKm > maxDistanceKm || nearestKm + minimumPenalty >= bestScore) {
+                break;
+            }
+            for (int dr = -ring; dr <= ring; dr++) {
+                int r = row + dr;
+                if (r < 0 || r >= rows) {
+                    continue;
+                }
+                boolean edgeRow = Math.abs(dr) == ring;
+                for (int dc = -ring; dc <= ring; dc += edgeRow ? 1 : 2 * ring) {
+                    List<Technician> cell = skill.cells.get(key(r, Math.floorMod(column + dc, columns)));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (Technician technician : cell) {
+                        if (technician.openJobs >= maxOpenJobs) {
+                            continue;
+                        }
+                        double penalty = loadPenaltyKm * technician.openJobs;
+                        if (penalty >= bestScore) {
+                            continue;
+                        }
+                        double distance = location.distanceKm(technician.location);
+                        double score = distance + penalty;
+                        if (distance <= maxDistanceKm && score < bestScore) {
+                            best = technician;
+                            bestScore = score;
+                            bestDistance = distance;
+                        }
+                    }
+                }
+            }
+        }
+        return best == null ? Optional.empty() : Optional.of(new Candidate(best.id, best.openJobs, bestDistance));
+    }
+
+    private void index(Technician technician) {
+        for (String skillName : technician.skills) {
+            SkillIndex skill = skills.computeIfAbsent(skillName, k -> new SkillIndex());
+            skill.byLoad.add(technician);
+            if (technician.location != null) {
+                skill.cells.computeIfAbsent(technician.cell, k -> new ArrayList<>()).add(technician);
+            }
+        }
+    }
+
+    private void unindex(Technician technician) {
+        for (String skillName : technician.skills) {
+            SkillIndex skill = skills.get(skillName);
+            skill.byLoad.remove(technician);
+            if (technician.location != null) {
+                List<Technician> cell = skill.cells.get(technician.cell);
+                cell.remove(technician);
+                if (cell.isEmpty()) {
+                    skill.cells.remove(technician.cell);
+                }
+            }
+            if (skill.byLoad.isEmpty()) {
+                skills.remove(skillName);
+            }
+        }
+    }
+
+    private long cell(GeoPoint location) {
+        return key(row(location.latitude()), column(location.longitude()));
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor((latitude + 90) / cellDegrees);
+    }
+
+    private int column(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellDegrees), columns);
+    }
+
+    private long key(int row, int column) {
+        return (long) row * columns + column;
+    }
+
+    private static boolean isOpen(JobStatus status) {
+        return status != null && status.isOpen();
+    }
+
+    private static String normalize(String skill) {
+        return skill.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Technician {
+        final Long id;
+        final Set<String> skills;
+        final GeoPoint location;
+        final long cell;
+        // Only changed while the technician is out of every load bucket
+        int openJobs;
+
+        Technician(Long id, Set<String> skills, GeoPoint location, long cell) {
+            this.id = id;
+            this.skills = skills;
+            this.location = location;
+            this.cell = cell;
+        }
+    }
+
+    private static final class SkillIndex {
+        final Map<Long, List<Technician>> cells = new HashMap<>();
+        final LoadBuckets byLoad = new LoadBuckets();
+    }
+
+    /**
+     * Priority queue of technicians by open-job count. Loads are small integers, so each
+     * distinct load is a bucket: a load change is a hash-set move plus a lookup in a map of
+     * a few dozen entries, instead of a re-insertion into an ordered set of every technician.
+     */
+    private static final class LoadBuckets {
+        private final TreeMap<Integer, Set<Technician>> buckets = new TreeMap<>();
+
+        void add(Technician technician) {
+            buckets.computeIfAbsent(technician.openJobs, load -> new LinkedHashSet<>()).add(technician);
+        }
+
+        void remove(Technician technician) {
+            Set<Technician> bucket = buckets.get(technician.openJobs);
+            if (bucket != null && bucket.remove(technician) && bucket.isEmpty()) {
+                buckets.remove(technician.openJobs);
+            }
+        }
+
+        boolean isEmpty() {
+            return buckets.isEmpty();
+        }
+
+        /** A least-loaded technician; the queue must not be empty. */
+        Technician first() {
+            return buckets.firstEntry().getValue().iterator().next();
+        }
+    }
+}
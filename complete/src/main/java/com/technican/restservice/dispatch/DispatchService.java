@@ -0,0 +1,90 @@
+package com.technican.restservice.dispatch;
+
+import com.technican.restservice.event.UserChangedEvent;
+import com.technican.restservice.model.Job;
+import com.technican.restservice.model.Role;
+import com.technican.restservice.model.User;
+import com.technican.restservice.repository.JobStore;
+import com.technican.restservice.repository.TechnicianLoad;
+import com.technican.restservice.service.JobService;
+import com.technican.restservice.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Auto-assignment of jobs through {@link DispatchIndex}. The index is loaded from the
+ * stores at startup and then follows technician registrations and deletions.
+ */
+@Service
+public class DispatchService {
+    // A pick can name a technician deleted behind the index's back; try the next best a few times
+    private static final int ATTEMPTS = 3;
+
+    @Autowired
+    private DispatchIndex dispatchIndex;
+    @Autowired
+    private AddressGeocoder geocoder;
+    @Autowired
+    private JobService jobService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JobStore jobRepository;
+
+    /**
+     * Assigns the job to the best technician for its service type, customer location and
+     * current workloads. Returns the technician chosen, or empty when none qualifies.
+     *
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the job changed since it was read
+     */
+    public Optional<DispatchIndex.Candidate> autoAssign(Job job) {
+        GeoPoint location = userService.findById(job.getCustomerId())
+                .flatMap(customer -> geocoder.locate(customer.getAddress()))
+                .orElse(null);
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            Optional<DispatchIndex.Candidate> candidate = dispatchIndex.select(job.getServiceType(), location);
+            if (candidate.isEmpty()) {
+                return candidate;
+            }
+            try {
+                jobService.assignTechnician(job.getId(), candidate.get().technicianId(), job.getVersion());
+                return candidate;
+            } catch (IllegalArgumentException e) {
+                // No longer a technician
+                dispatchIndex.removeTechnician(candidate.get().technicianId());
+            }
+        }
+        return Optional.empty();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        dispatchIndex.clear();
+        for (User technician : userService.findByRole(Role.TECHNICIAN)) {
+            put(technician.getId(), technician.getSkills(), technician.getAddress());
+        }
+        for (TechnicianLoad load : jobRepository.countOpenJobsByTechnician()) {
+            dispatchIndex.adjustLoad(load.technicianId(), (int) load.openJobs());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.type() == UserChangedEvent.Type.REGISTERED && event.roles().contains(Role.TECHNICIAN)) {
+            put(event.userId(), event.skills(), event.address());
+        } else {
+            dispatchIndex.removeTechnician(event.userId());
+        }
+    }
+
+    private void put(Long technicianId, Collection<String> skills, String address) {
+        dispatchIndex.putTechnician(technicianId, skills == null ? Set.of() : skills, geocoder.locate(address).orElse(null));
+    }
+}
@@ -0,0 +1,62 @@
+package com.technican.restservice.event;
+
+import com.technican.restservice.model.Job;
+import com.technican.restservice.model.JobStatus;
+import com.technican.restservice.security.AuthenticatedUser;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@code JobService} for every job it creates, changes or deletes.
+ * Carries the job's state after the change and, for reassignments and status
+ * changes, the values it replaced, so listeners can act without reloading the job.
+ * {@code actorId} is the user who made the change: the authenticated user of the request
+ * publishing the event unless given explicitly, null for changes made by the system.
+ * Listeners that must only see committed data use {@code @TransactionalEventListener}.
+ */
+public record JobChangedEvent(
+        Type type,
+        Long jobId,
+        Long customerId,
+        Long technicianId,
+        Long previousTechnicianId,
+        JobStatus status,
+        JobStatus previousStatus,
+        String serviceType,
+        LocalDateTime createdAt,
+        Long actorId,
+        Instant occurredAt) {
+
+    public enum Type { CREATED, ASSIGNED, STATUS_CHANGED, DELETED }
+
+    public static JobChangedEvent created(Job job) {
+        return of(Type.CREATED, job, job.getTechnicianId(), job.getStatus());
+    }
+
+    public static JobChangedEvent assigned(Job job, Long previousTechnicianId) {
+        return of(Type.ASSIGNED, job, previousTechnicianId, job.getStatus());
+    }
+
+    public static JobChangedEvent statusChanged(Job job, JobStatus previousStatus) {
+        return of(Type.STATUS_CHANGED, job, job.getTechnicianId(), previousStatus);
+    }
+
+    /** A status change made on behalf of {@code actorId} outside its request, e.g. an ingested device event. */
+    public static JobChangedEvent statusChanged(Job job, JobStatus previousStatus, Long actorId) {
+        return of(Type.STATUS_CHANGED, job, job.getTechnicianId(), previousStatus, actorId);
+    }
+
+    public static JobChangedEvent deleted(Job job) {
+        return of(Type.DELETED, job, job.getTechnicianId(), job.getStatus());
+    }
+
+    private static JobChangedEvent of(Type type, Job job, Long previousTechnicianId, JobStatus previousStatus) {
+        AuthenticatedUser actor = AuthenticatedUser.current();
+        return of(type, job, previousTechnicianId, previousStatus, actor == null ? null : actor.getUserId());
+    }
+
+    private static JobChangedEvent of(Type type, Job job, Long previousTechnicianId, JobStatus previousStatus, Long actorId) {
+        return new JobChangedEvent(type, job.getId(), job.getCustomerId(), job.getTechnicianId(), previousTechnicianId,
+                job.getStatus(), previousStatus, job.getServiceType(), job.getCreatedAt(), actorId, Instant.now());
+    }
+}
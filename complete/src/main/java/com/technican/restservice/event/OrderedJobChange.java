@@ -0,0 +1,9 @@
+package com.technican.restservice.event;
+
+/**
+ * A committed {@link JobChangedEvent} as it comes off a cluster bus that orders messages,
+ * with its position there. Published by {@code ClusterEvents} for every change, including
+ * those made on this node, so all nodes see the same changes at the same positions.
+ */
+public record OrderedJobChange(JobChangedEvent change, long position) {
+}
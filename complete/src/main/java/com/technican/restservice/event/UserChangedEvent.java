@@ -0,0 +1,31 @@
+package com.technican.restservice.event;
+
+import com.technican.restservice.model.Role;
+import com.technican.restservice.model.User;
+import java.util.Set;
+
+/**
+ * Published by {@code UserService} when a user is registered or deleted, carrying what
+ * listeners index (roles, skills, address) so they need not load the user.
+ */
+public record UserChangedEvent(
+        Type type,
+        Long userId,
+        Set<Role> roles,
+        Set<String> skills,
+        String address) {
+
+    public enum Type { REGISTERED, DELETED }
+
+    public static UserChangedEvent registered(User user) {
+        return new UserChangedEvent(Type.REGISTERED, user.getId(), copy(user.getRoles()), copy(user.getSkills()), user.getAddress());
+    }
+
+    public static UserChangedEvent deleted(Long userId) {
+        return new UserChangedEvent(Type.DELETED, userId, Set.of(), Set.of(), null);
+    }
+
+    private static <T> Set<T> copy(Set<T> values) {
+        return values == null ? Set.of() : Set.copyOf(values);
+    }
+}
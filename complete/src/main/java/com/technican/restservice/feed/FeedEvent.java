@@ -0,0 +1,23 @@
+package com.technican.restservice.feed;
+
+import com.technican.restservice.event.JobChangedEvent;
+
+/**
+ * An entry of the feed: a numbered job change, a {@code reset} telling the client to
+ * reload, or a keep-alive comment.
+ */
+record FeedEvent(long sequence, JobChangedEvent change, boolean reset) {
+    static final FeedEvent HEARTBEAT = new FeedEvent(-1, null, false);
+
+    FeedEvent(long sequence, JobChangedEvent change) {
+        this(sequence, change, false);
+    }
+
+    static FeedEvent reset(long sequence) {
+        return new FeedEvent(sequence, null, true);
+    }
+
+    boolean heartbeat() {
+        return this == HEARTBEAT;
+    }
+}
@@ -0,0 +1,45 @@
+package com.technican.restservice.feed;
+
+import com.technican.restservice.event.JobChangedEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/** Which job changes a feed subscriber receives: one technician's, one customer's, or all. */
+record FeedKey(Kind kind, Long id) {
+    enum Kind { ALL, TECHNICIAN, CUSTOMER }
+
+    static final FeedKey ALL = new FeedKey(Kind.ALL, null);
+
+    static FeedKey technician(Long id) {
+        return new FeedKey(Kind.TECHNICIAN, id);
+    }
+
+    static FeedKey customer(Long id) {
+        return new FeedKey(Kind.CUSTOMER, id);
+    }
+
+    /** Keys whose subscribers must see the change; a reassigned job also reaches its previous technician. */
+    static List<FeedKey> of(JobChangedEvent change) {
+        List<FeedKey> keys = new ArrayList<>(4);
+        keys.add(ALL);
+        if (change.customerId() != null) {
+            keys.add(customer(change.customerId()));
+        }
+        if (change.technicianId() != null) {
+            keys.add(technician(change.technicianId()));
+        }
+        if (change.previousTechnicianId() != null && !change.previousTechnicianId().equals(change.technicianId())) {
+            keys.add(technician(change.previousTechnicianId()));
+        }
+        return keys;
+    }
+
+    boolean matches(JobChangedEvent change) {
+        return switch (kind) {
+            case ALL -> true;
+            case CUSTOMER -> Objects.equals(id, change.customerId());
+            case TECHNICIAN -> Objects.equals(id, change.technicianId()) || Objects.equals(id, change.previousTechnicianId());
+        };
+    }
+}
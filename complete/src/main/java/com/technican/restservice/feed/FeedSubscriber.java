@@ -0,0 +1,153 @@
+package com.technican.restservice.feed;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * One open feed connection: its bounded queue of pending events, and the flags that
+ * keep at most one writer draining it and close it exactly once.
+ *
+ * <p>Socket writes block, so a writer hands each batch to a sender thread and waits at
+ * most {@code sendTimeoutMs} for it; a client that stops reading is given up on then,
+ * and its write stays blocked on the sender thread alone until the container times it out.
+ */
+final class FeedSubscriber {
+    // Events written per drain before the writer thread moves on to other subscribers
+    private static final int DRAIN_BATCH = 64;
+
+    private final FeedKey key;
+    private final SseEmitter emitter;
+    private final BlockingQueue<FeedEvent> queue;
+    private final String epoch;
+    private final Executor writers;
+    private final ExecutorService senders;
+    private final long sendTimeoutMs;
+    private final Consumer<FeedSubscriber> onStalled;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    FeedSubscriber(FeedKey key, SseEmitter emitter, int bufferSize, String epoch, Executor writers,
+                   ExecutorService senders, long sendTimeoutMs, Consumer<FeedSubscriber> onStalled) {
+        this.key = key;
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.epoch = epoch;
+        this.writers = writers;
+        this.senders = senders;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.onStalled = onStalled;
+    }
+
+    FeedKey key() {
+        return key;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    BlockingQueue<FeedEvent> queue() {
+        return queue;
+    }
+
+    /** Starts a drain on a writer thread unless one is already scheduled or running. */
+    void scheduleDrain() {
+        if (!closed.get() && draining.compareAndSet(false, true)) {
+            try {
+                writers.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Feed is shutting down
+                draining.set(false);
+            }
+        }
+    }
+
+    /** Marks the subscriber closed; true only for the first caller. */
+    boolean close() {
+        return closed.compareAndSet(false, true);
+    }
+
+    private void drain() {
+        try {
+            List<SseEmitter.SseEventBuilder> batch = new ArrayList<>();
+            FeedEvent event;
+            while (!closed.get() && batch.size() < DRAIN_BATCH && (event = queue.poll()) != null) {
+                batch.add(toSse(event));
+            }
+            if (!batch.isEmpty() && !send(batch)) {
+                return;
+            }
+        } finally {
+            draining.set(false);
+        }
+        // Leftovers: a full batch, or events offered while this drain was finishing
+        if (!queue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    // Writes the batch on a sender thread; false when the subscriber is gone or given up on
+    private boolean send(List<SseEmitter.SseEventBuilder> batch) {
+        Future<?> sending;
+        try {
+            sending = senders.submit(() -> write(batch));
+        } catch (RejectedExecutionException e) {
+            // Feed is shutting down
+            return false;
+        }
+        try {
+            sending.get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            return !closed.get();
+        } catch (TimeoutException e) {
+            // Client stopped reading: it loses its own events, the writer moves on to the others
+            if (close()) {
+                onStalled.accept(this);
+            }
+            return false;
+        } catch (ExecutionException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void write(List<SseEmitter.SseEventBuilder> batch) {
+        try {
+            for (SseEmitter.SseEventBuilder sse : batch) {
+                emitter.send(sse);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away, or the write outlived its deadline and failed at last; completing
+            // fires the emitter callbacks that unregister it
+            close();
+            emitter.completeWithError(e);
+        }
+    }
+
+    private SseEmitter.SseEventBuilder toSse(FeedEvent event) {
+        if (event.heartbeat()) {
+            return SseEmitter.event().comment("keepalive");
+        }
+        SseEmitter.SseEventBuilder sse = SseEmitter.event().id(epoch + "-" + event.sequence());
+        if (event.reset()) {
+            return sse.name(JobFeed.RESET).data("{}", MediaType.APPLICATION_JSON);
+        }
+        return sse.name(event.change().type().name().toLowerCase()).data(event.change(), MediaType.APPLICATION_JSON);
+    }
+}
@@ -0,0 +1,266 @@
+package com.technican.restservice.feed;
+
+import com.technican.restservice.cluster.ClusterBus;
+import com.technican.restservice.event.JobChangedEvent;
+import com.technican.restservice.event.OrderedJobChange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-Sent Events feed of job changes, replacing {@code GET /jobs/my} polling.
+ *
+ * <p>Each subscriber sees the events of one technician (including jobs reassigned
+ * away from them), one customer, or, for dispatchers, every job. Connections are
+ * servlet-async {@link SseEmitter}s, so an idle subscriber holds no thread; a small
+ * pool of {@code jobs.feed.threads} writers drains each subscriber's bounded queue.
+ *
+ * <p>Event ids are {@code <boot epoch>-<sequence>}. When the cluster bus orders its
+ * messages, they are {@code <bus epoch>-<position>} instead, and every node sends the
+ * changes in bus order, its own included once they are there: an id then means the same
+ * on every node. The last {@code jobs.feed.replay-size} events are kept in a ring buffer
+ * so a reconnecting client that sends {@code Last-Event-ID}, to this node or another,
+ * gets what it missed; when that is not possible it receives a {@code reset} event and
+ * should reload {@code GET /jobs/my}.
+ *
+ * <p>A subscriber whose queue ({@code jobs.feed.buffer-size}) overflows is disconnected
+ * rather than allowed to hold events in memory; it resumes from the ring buffer when
+ * it reconnects. So is one whose write does not finish within {@code jobs.feed.send-timeout-ms}:
+ * writes run on sender threads of their own, and the writer waiting on a client that stopped
+ * reading gives up on it rather than leave every other subscriber waiting.
+ */
+@Component
+public class JobFeed {
+    static final String RESET = "reset";
+
+    private final boolean clustered;
+    private final String epoch;
+    private final long timeoutMs;
+    private final int bufferSize;
+    // Events in sequence order, which has gaps in a cluster; appended counts all there have been
+    private final FeedEvent[] ring;
+    private long appended;
+    private long sequence;
+    // Every event after this sequence is in the ring
+    private long floor;
+    // Guards the ring, the sequences and subscriber registration, so a resume cannot miss or repeat an event
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<FeedKey, Set<FeedSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService writers;
+    // Socket writes, and completions that wait on them; idle threads expire
+    private final ExecutorService senders;
+    private final long sendTimeoutMs;
+    private final ScheduledExecutorService heartbeats;
+    private final Counter dropped;
+
+    public JobFeed(@Value("${jobs.feed.timeout-ms:1800000}") long timeoutMs,
+                   @Value("${jobs.feed.buffer-size:256}") int bufferSize,
+                   @Value("${jobs.feed.replay-size:10000}") int replaySize,
+                   @Value("${jobs.feed.threads:2}") int threads,
+                   @Value("${jobs.feed.heartbeat-ms:25000}") long heartbeatMs,
+                   @Value("${jobs.feed.send-timeout-ms:10000}") long sendTimeoutMs,
+                   ClusterBus bus,
+                   MeterRegistry meterRegistry) {
+        this.clustered = bus.epoch() != null;
+        this.epoch = clustered ? bus.epoch() : Long.toString(System.currentTimeMillis(), 36);
+        // What came before this node joined is not in its ring
+        this.sequence = bus.joinedAt();
+        this.floor = sequence;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.bufferSize = bufferSize;
+        this.ring = new FeedEvent[replaySize];
+        AtomicInteger writerThreads = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "job-feed-" + writerThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger senderThreads = new AtomicInteger();
+        this.senders = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "job-feed-send-" + senderThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "job-feed-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Comments keep idle connections open through proxies and reveal dead clients
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        this.dropped = Counter.builder("jobs.feed.dropped").register(meterRegistry);
+        Gauge.builder("jobs.feed.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public SseEmitter subscribeTechnician(Long technicianId, String lastEventId) {
+        return subscribe(FeedKey.technician(technicianId), lastEventId);
+    }
+
+    public SseEmitter subscribeCustomer(Long customerId, String lastEventId) {
+        return subscribe(FeedKey.customer(customerId), lastEventId);
+    }
+
+    public SseEmitter subscribeAll(String lastEventId) {
+        return subscribe(FeedKey.ALL, lastEventId);
+    }
+
+    // Last listener: by the time a client reacts to an event, caches and ETag versions have moved on
+    @Order(Integer.MAX_VALUE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobChanged(JobChangedEvent change) {
+        // In a cluster, changes are sent in bus order, from onOrderedJobChange
+        if (!clustered) {
+            lock.lock();
+            try {
+                append(sequence + 1, change);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Order(Integer.MAX_VALUE)
+    @EventListener
+    public void onOrderedJobChange(OrderedJobChange ordered) {
+        append(ordered.position(), ordered.change());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        writers.shutdownNow();
+        senders.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(s -> s.emitter().complete()));
+    }
+
+    private SseEmitter subscribe(FeedKey key, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        FeedSubscriber subscriber = new FeedSubscriber(key, emitter, bufferSize, epoch, writers, senders, sendTimeoutMs, this::drop);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        lock.lock();
+        try {
+            if (lastEventId != null && !lastEventId.isBlank() && !replay(subscriber, lastEventId)) {
+                subscriber.queue().clear();
+                subscriber.queue().offer(FeedEvent.reset(sequence));
+            }
+            subscribers.compute(key, (k, audience) -> {
+                Set<FeedSubscriber> set = audience == null ? ConcurrentHashMap.newKeySet() : audience;
+                set.add(subscriber);
+                return set;
+            });
+            subscriberCount.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+        subscriber.scheduleDrain();
+        return emitter;
+    }
+
+    private void append(long at, JobChangedEvent change) {
+        lock.lock();
+        try {
+            FeedEvent event = new FeedEvent(at, change);
+            int slot = (int) (appended++ % ring.length);
+            if (ring[slot] != null) {
+                floor = ring[slot].sequence();
+            }
+            ring[slot] = event;
+            sequence = at;
+            for (FeedKey key : FeedKey.of(change)) {
+                Set<FeedSubscriber> audience = subscribers.get(key);
+                if (audience != null) {
+                    for (FeedSubscriber subscriber : audience) {
+                        offer(subscriber, event);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Queues the events after lastEventId for the subscriber; false when they are not all available
+    private boolean replay(FeedSubscriber subscriber, String lastEventId) {
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash < 0 || !lastEventId.substring(0, dash).equals(epoch)) {
+            return false;
+        }
+        long last;
+        try {
+            last = Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        // Before what the ring holds, or after what this node has seen so far
+        if (last < floor || last > sequence) {
+            return false;
+        }
+        long first = appended;
+        while (first > Math.max(0, appended - ring.length) && ring[(int) ((first - 1) % ring.length)].sequence() > last) {
+            first--;
+        }
+        for (long i = first; i < appended; i++) {
+            FeedEvent event = ring[(int) (i % ring.length)];
+            if (subscriber.key().matches(event.change()) && !subscriber.queue().offer(event)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void offer(FeedSubscriber subscriber, FeedEvent event) {
+        if (subscriber.queue().offer(event)) {
+            subscriber.scheduleDrain();
+        } else if (subscriber.close()) {
+            // Slow consumer: cut it loose; it resumes from Last-Event-ID when it reconnects
+            drop(subscriber);
+        }
+    }
+
+    // Disconnects a closed subscriber; completing waits out any write in progress, so not on a writer
+    private void drop(FeedSubscriber subscriber) {
+        dropped.increment();
+        remove(subscriber);
+        try {
+            senders.execute(() -> subscriber.emitter().complete());
+        } catch (RejectedExecutionException e) {
+            // Shutting down; shutdown() completes every emitter
+        }
+    }
+
+    private void heartbeat() {
+        for (Set<FeedSubscriber> audience : subscribers.values()) {
+            for (FeedSubscriber subscriber : audience) {
+                if (subscriber.queue().offer(FeedEvent.HEARTBEAT)) {
+                    subscriber.scheduleDrain();
+                }
+            }
+        }
+    }
+
+    private void remove(FeedSubscriber subscriber) {
+        subscriber.close();
+        subscribers.computeIfPresent(subscriber.key(), (k, audience) -> {
+            if (audience.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return audience.isEmpty() ? null : audience;
+        });
+    }
+}
@@ -0,0 +1,11 @@
+package com.technican.restservice.ingest;
+
+import com.technican.restservice.model.JobStatus;
+
+/**
+ * A status change reported by a field device. {@code deviceTime} is when the device
+ * recorded it (epoch milliseconds), which orders events that arrive out of order.
+ * {@code dispatcher} tells whether the sender may update any job, or only the ones
+ * assigned to {@code senderId}.
+ */
+public record StatusEvent(long jobId, JobStatus status, long deviceTime, long senderId, boolean dispatcher) {}
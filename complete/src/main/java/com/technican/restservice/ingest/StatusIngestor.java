@@ -0,0 +1,248 @@
+package com.technican.restservice.ingest;
+
+import com.technican.restservice.model.Job;
+import com.technican.restservice.service.JobService;
+import com.technican.restservice.service.JobService.StatusAdvance;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind ingestion of status events from field devices that queued them offline.
+ * A batch is acknowledged once it is on disk in the {@link StatusLog} under
+ * {@code jobs.ingest.log-dir}. Every {@code jobs.ingest.flush-ms} one applier thread takes
+ * all pending events, keeps the latest per job by device time (later in the log breaking
+ * ties), and writes those through {@link JobService#advanceStatuses} in JDBC batches of
+ * {@code jobs.ingest.batch-size} jobs.
+ *
+ * <p>Events are checked against the job when applied: technicians may only move jobs
+ * assigned to them, and statuses only move forward, so an event older than the job's
+ * state is dropped. That also makes applying an event twice harmless, which is what
+ * happens to the events logged after the last checkpoint when the log is replayed on
+ * start. A failed apply leaves the events pending for the next flush.
+ *
+ * <p>Once the pending events have failed {@code jobs.ingest.max-attempts} flushes in a row,
+ * they are applied one job at a time instead, and the events of jobs that still fail on
+ * their own are moved aside to the log in {@code <log-dir>/rejected}, counted in
+ * {@code jobs.ingest.rejected}, so the checkpoint moves past them. When no job at all can
+ * be applied the database is taken to be down, and everything stays pending.
+ */
+@Service
+public class StatusIngestor {
+    @Autowired
+    private JobService jobService;
+
+    private final StatusLog log;
+    private final long flushMs;
+    private final int batchSize;
+    private final int maxPending;
+    private final int maxAttempts;
+    private final StatusLog rejectedLog;
+    private final ScheduledExecutorService applier;
+    private final Counter received;
+    private final Counter applied;
+    private final Counter failures;
+    private final Counter rejected;
+    // One flush at a time, so checkpoints are written in log order
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock; events in log order, and the log offset just past the last of them
+    private List<StatusEvent> pending;
+    private long pendingEnd;
+    // Guarded by flushLock; flushes in a row that failed to apply the pending events
+    private int failedFlushes;
+
+    public StatusIngestor(@Value("${jobs.ingest.log-dir:data/ingest}") String logDir,
+                          @Value("${jobs.ingest.flush-ms:200}") long flushMs,
+                          @Value("${jobs.ingest.batch-size:500}") int batchSize,
+                          @Value("${jobs.ingest.max-pending:100000}") int maxPending,
+                          @Value("${jobs.ingest.max-attempts:5}") int maxAttempts,
+                          MeterRegistry meterRegistry) throws IOException {
+        this.log = StatusLog.open(Path.of(logDir));
+        this.rejectedLog = StatusLog.open(Path.of(logDir, "rejected"));
+        this.flushMs = flushMs;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.maxAttempts = maxAttempts;
+        // Whatever the last run logged but did not apply
+        this.pending = new ArrayList<>(log.unapplied());
+        this.pendingEnd = log.end();
+        this.applier = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "status-ingest");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.received = Counter.builder("jobs.ingest.received").register(meterRegistry);
+        this.applied = Counter.builder("jobs.ingest.applied").register(meterRegistry);
+        this.failures = Counter.builder("jobs.ingest.failures").register(meterRegistry);
+        this.rejected = Counter.builder("jobs.ingest.rejected").register(meterRegistry);
+        Gauge.builder("jobs.ingest.pending", this, StatusIngestor::pendingCount).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        applier.scheduleWithFixedDelay(this::flush, flushMs, flushMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws Exception {
+        applier.shutdown();
+        applier.awaitTermination(10, TimeUnit.SECONDS);
+        // Best effort; anything left is replayed from the log on the next start
+        flush();
+        log.close();
+        rejectedLog.close();
+    }
+
+    /**
+     * Logs the events and returns once they are durable. Returns false, logging nothing,
+     * when more than {@code jobs.ingest.max-pending} events would be waiting to be applied.
+     */
+    public boolean accept(List<StatusEvent> events) throws IOException {
+        long end;
+        lock.lock();
+        try {
+            if (pending.size() + events.size() > maxPending) {
+                return false;
+            }
+            end = log.append(events);
+            pending.addAll(events);
+            pendingEnd = end;
+        } finally {
+            lock.unlock();
+        }
+        // Outside the lock, so concurrent batches share one fsync
+        log.sync(end);
+        received.increment(events.size());
+        return true;
+    }
+
+    /** Applies every pending event now; normally run by the applier thread. */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<StatusEvent> batch;
+            long end;
+            lock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                end = pendingEnd;
+                pending = new ArrayList<>();
+            } finally {
+                lock.unlock();
+            }
+            List<StatusEvent> retry;
+            try {
+                // Nothing reaches the database before it is in the log
+                log.sync(end);
+                retry = failedFlushes + 1 < maxAttempts ? applyAll(batch) : applyEach(batch);
+                if (retry.isEmpty()) {
+                    log.checkpoint(end);
+                }
+            } catch (IOException | RuntimeException e) {
+                retry = batch;
+            }
+            if (retry.isEmpty()) {
+                failedFlushes = 0;
+                return;
+            }
+            failures.increment();
+            // After a pass job by job, count afresh towards the next one
+            failedFlushes = failedFlushes + 1 < maxAttempts ? failedFlushes + 1 : 0;
+            // Not checkpointed: a restart replays the events applied meanwhile too, which is harmless
+            lock.lock();
+            try {
+                retry.addAll(pending);
+                pending = retry;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Applies every event, or throws; returns the events left to retry, always none
+    private List<StatusEvent> applyAll(List<StatusEvent> batch) {
+        Map<Long, List<StatusEvent>> byJob = byJob(batch);
+        List<Long> ids = new ArrayList<>(byJob.keySet());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            advance(ids.subList(from, Math.min(ids.size(), from + batchSize)), byJob);
+        }
+        return new ArrayList<>();
+    }
+
+    // Applies the events job by job, moving aside those of the jobs that fail; returns the
+    // events left to retry, which are all of them when no job could be applied
+    private List<StatusEvent> applyEach(List<StatusEvent> batch) throws IOException {
+        Map<Long, List<StatusEvent>> byJob = byJob(batch);
+        List<StatusEvent> failed = new ArrayList<>();
+        boolean anyApplied = false;
+        for (Map.Entry<Long, List<StatusEvent>> job : byJob.entrySet()) {
+            try {
+                advance(List.of(job.getKey()), byJob);
+                anyApplied = true;
+            } catch (RuntimeException e) {
+                failed.addAll(job.getValue());
+            }
+        }
+        if (!anyApplied) {
+            return batch;
+        }
+        if (!failed.isEmpty()) {
+            rejectedLog.sync(rejectedLog.append(failed));
+            rejected.increment(failed.size());
+        }
+        return new ArrayList<>();
+    }
+
+    private void advance(List<Long> ids, Map<Long, List<StatusEvent>> byJob) {
+        applied.increment(jobService.advanceStatuses(ids, job -> latest(byJob.get(job.getId()), job)));
+    }
+
+    private static Map<Long, List<StatusEvent>> byJob(List<StatusEvent> batch) {
+        Map<Long, List<StatusEvent>> byJob = new LinkedHashMap<>();
+        for (StatusEvent event : batch) {
+            byJob.computeIfAbsent(event.jobId(), id -> new ArrayList<>()).add(event);
+        }
+        return byJob;
+    }
+
+    // The job's latest event from a sender allowed to change it, made on the sender's behalf; null if none
+    private static StatusAdvance latest(List<StatusEvent> events, Job job) {
+        StatusEvent latest = null;
+        for (StatusEvent event : events) {
+            boolean allowed = event.dispatcher() || Objects.equals(job.getTechnicianId(), event.senderId());
+            if (allowed && (latest == null || event.deviceTime() >= latest.deviceTime())) {
+                latest = event;
+            }
+        }
+        return latest == null ? null : new StatusAdvance(latest.status(), latest.senderId());
+    }
+
+    private int pendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
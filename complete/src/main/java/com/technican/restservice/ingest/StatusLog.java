@@ -0,0 +1,228 @@
+package com.technican.restservice.ingest;
+
+import com.technican.restservice.model.JobStatus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of ingested {@link StatusEvent}s, plus a checkpoint file holding the
+ * offset up to which they have been applied to the database.
+ *
+ * <p>Records have a fixed size and end with a CRC32, so a write torn by a crash is found
+ * and cut off when the log is opened. {@link #sync} is a group commit: of the callers
+ * waiting on it, one forces the file and covers everything appended so far. Once every
+ * record is applied and nothing was appended since, the file is truncated to zero.
+ *
+ * <p>Writes and forces happen under {@link ReentrantLock}s rather than monitors, so a
+ * virtual thread waiting on the disk does not pin its carrier.
+ */
+final class StatusLog implements Closeable {
+    // jobId, status, deviceTime, senderId, dispatcher, CRC32
+    static final int RECORD_SIZE = 8 + 1 + 8 + 8 + 1 + 4;
+    private static final JobStatus[] STATUSES = JobStatus.values();
+
+    private final FileChannel channel;
+    private final Path checkpointFile;
+    private final List<StatusEvent> unapplied;
+    // Lock order: forceLock, then writeLock
+    private final ReentrantLock forceLock = new ReentrantLock();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Guarded by writeLock
+    private long written;
+    // Guarded by forceLock
+    private long forced;
+
+    private StatusLog(FileChannel channel, Path checkpointFile, long written, List<StatusEvent> unapplied) {
+        this.channel = channel;
+        this.checkpointFile = checkpointFile;
+        this.written = written;
+        this.forced = written;
+        this.unapplied = unapplied;
+    }
+
+    /** Opens or creates the log in {@code directory}, recovering the events not yet applied. */
+    static StatusLog open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel channel = FileChannel.open(directory.resolve("status-events.log"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Two writers would interleave records and checkpoint each other's offsets
+        try {
+            if (channel.tryLock() == null) {
+                throw new OverlappingFileLockException();
+            }
+        } catch (OverlappingFileLockException e) {
+            channel.close();
+            throw new IllegalStateException("Status event log in " + directory + " is in use by another instance");
+        }
+        Path checkpointFile = directory.resolve("status-events.checkpoint");
+        long applied = Files.exists(checkpointFile)
+                ? Long.parseLong(Files.readString(checkpointFile, StandardCharsets.US_ASCII).trim())
+                : 0;
+        // Beyond the end means the log was truncated after the checkpoint was written
+        if (applied > channel.size() || applied % RECORD_SIZE != 0) {
+            applied = 0;
+        }
+        List<StatusEvent> unapplied = new ArrayList<>();
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        long position = applied;
+        while (true) {
+            record.clear();
+            while (record.hasRemaining() && channel.read(record, position + record.position()) > 0) {
+                // Until the record is complete or the file ends
+            }
+            StatusEvent event = record.hasRemaining() ? null : decode(record.flip());
+            if (event == null) {
+                break;
+            }
+            unapplied.add(event);
+            position += RECORD_SIZE;
+        }
+        if (position < channel.size()) {
+            // A torn or partial record from a crash mid-append; it was never acknowledged
+            channel.truncate(position);
+            channel.force(true);
+        }
+        return new StatusLog(channel, checkpointFile, position, unapplied);
+    }
+
+    /** Events appended but not applied before the log was last closed, in log order. */
+    List<StatusEvent> unapplied() {
+        return unapplied;
+    }
+
+    /** Offset just past everything appended so far. */
+    long end() {
+        writeLock.lock();
+        try {
+            return written;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Writes the events (not yet durable; see {@link #sync}) and returns the offset just past them. */
+    long append(List<StatusEvent> events) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(events.size() * RECORD_SIZE);
+        for (StatusEvent event : events) {
+            encode(event, buffer);
+        }
+        buffer.flip();
+        writeLock.lock();
+        try {
+            long start = written;
+            try {
+                while (buffer.hasRemaining()) {
+                    written += channel.write(buffer, written);
+                }
+            } catch (IOException e) {
+                // Drop the partial batch so later appends stay aligned to whole records
+                written = start;
+                channel.truncate(start);
+                throw e;
+            }
+            return written;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Returns once everything up to {@code offset} is on disk. */
+    void sync(long offset) throws IOException {
+        forceLock.lock();
+        try {
+            if (forced >= offset) {
+                return;
+            }
+            long end = end();
+            channel.force(false);
+            forced = end;
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    /**
+     * Records that everything up to {@code offset} has been applied, and truncates the log
+     * if that is all of it.
+     */
+    void checkpoint(long offset) throws IOException {
+        forceLock.lock();
+        try {
+            writeLock.lock();
+            try {
+                if (offset == written && written > 0) {
+                    channel.truncate(0);
+                    channel.force(true);
+                    written = 0;
+                    forced = 0;
+                    // Still excluding appends: a crash before this leaves a checkpoint past the empty
+                    // file, which open() reads as 0, so no new record can fall behind a stale offset
+                    writeCheckpoint(0);
+                    return;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            writeCheckpoint(offset);
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void writeCheckpoint(long offset) throws IOException {
+        Path temporary = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            file.write(ByteBuffer.wrap(Long.toString(offset).getBytes(StandardCharsets.US_ASCII)));
+            file.force(true);
+        }
+        Files.move(temporary, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void encode(StatusEvent event, ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.putLong(event.jobId())
+                .put((byte) event.status().ordinal())
+                .putLong(event.deviceTime())
+                .putLong(event.senderId())
+                .put((byte) (event.dispatcher() ? 1 : 0));
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), start, RECORD_SIZE - 4);
+        buffer.putInt((int) crc.getValue());
+    }
+
+    // Null if the record is damaged
+    private static StatusEvent decode(ByteBuffer record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, RECORD_SIZE - 4);
+        if (record.getInt(RECORD_SIZE - 4) != (int) crc.getValue()) {
+            return null;
+        }
+        long jobId = record.getLong();
+        int status = record.get();
+        long deviceTime = record.getLong();
+        long senderId = record.getLong();
+        boolean dispatcher = record.get() != 0;
+        if (status < 0 || status >= STATUSES.length) {
+            return null;
+        }
+        return new StatusEvent(jobId, STATUSES[status], deviceTime, senderId, dispatcher);
+    }
+}
@@ -1,13 +1,24 @@
 package com.technican.restservice.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "jobs")
+@Table(name = "jobs", indexes = {
+    // GET /jobs/my: jobs of one technician or customer, newest listed by createdAt
+    @Index(name = "idx_jobs_technician_created", columnList = "technicianId, createdAt"),
+    @Index(name = "idx_jobs_customer_created", columnList = "customerId, createdAt"),
+    // GET /jobs?status=...: status filter combined with the keyset order
+    @Index(name = "idx_jobs_status_created", columnList = "status, createdAt, id"),
+    // GET /jobs keyset pagination on (createdAt, id)
+    @Index(name = "idx_jobs_created_id", columnList = "createdAt, id")
+})
 public class Job {
+    // Sequence ids are allocated 50 at a time, which lets Hibernate batch inserts (IDENTITY cannot)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "job_seq")
+    @SequenceGenerator(name = "job_seq", sequenceName = "job_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -23,6 +34,13 @@ public class Job {
 
     private LocalDateTime createdAt;
 
+    // Bumped by every update, including JobStore's conditional updates, which check it themselves.
+    // The default fills existing rows when ddl-auto=update adds the column
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
     public Job() {}
 
     public Job(Long id, Long customerId, String serviceType, Long technicianId, JobStatus status, LocalDateTime createdAt) {
@@ -46,4 +64,6 @@ public class Job {
     public void setStatus(JobStatus status) { this.status = status; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
@@ -1,7 +1,30 @@
 package com.technican.restservice.model;
 
+/**
+ * Job lifecycle; a job only moves forward, one step at a time. Status events ingested from
+ * field devices are the exception: they may skip the steps the device went through offline.
+ */
 public enum JobStatus {
     SCHEDULED,
     IN_PROGRESS,
-    COMPLETED
+    COMPLETED;
+
+    /** Whether the job still counts toward its technician's workload. */
+    public boolean isOpen() {
+        return this != COMPLETED;
+    }
+
+    /** Whether this status comes later in the lifecycle than {@code other} (null counts as before all). */
+    public boolean isAfter(JobStatus other) {
+        return other == null || ordinal() > other.ordinal();
+    }
+
+    /** The status a job must be in to move to this one; null for SCHEDULED, which only new jobs get. */
+    public JobStatus requiredPrevious() {
+        return switch (this) {
+            case SCHEDULED -> null;
+            case IN_PROGRESS -> SCHEDULED;
+            case COMPLETED -> IN_PROGRESS;
+        };
+    }
 }
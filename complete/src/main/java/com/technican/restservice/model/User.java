@@ -1,6 +1,7 @@
 package com.technican.restservice.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import java.util.Set;
 
 @Entity
@@ -16,14 +17,24 @@ public class User {
     @Column(nullable = false)
     private String password;
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    // Loaded on demand: paths that need roles fetch them with an entity graph,
+    // everything else batches the lookups (see UserRepositoryJpa)
+    @ElementCollection(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @Enumerated(EnumType.STRING)
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
     @Column(name = "role")
     private Set<Role> roles;
 
+    // Service types a technician can take on, matched against Job.serviceType by auto-dispatch
+    @ElementCollection(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
+    @CollectionTable(name = "user_skills", joinColumns = @JoinColumn(name = "user_id"))
+    @Column(name = "skill")
+    private Set<String> skills;
+
     private String contactInfo; // For technician
-    private String address;     // For customer
+    private String address;     // Customer: job location; technician: base location
 
     public User() {}
 
@@ -44,6 +55,8 @@ public class User {
     public void setPassword(String password) { this.password = password; }
     public Set<Role> getRoles() { return roles; }
     public void setRoles(Set<Role> roles) { this.roles = roles; }
+    public Set<String> getSkills() { return skills; }
+    public void setSkills(Set<String> skills) { this.skills = skills; }
     public String getContactInfo() { return contactInfo; }
     public void setContactInfo(String contactInfo) { this.contactInfo = contactInfo; }
     public String getAddress() { return address; }
@@ -0,0 +1,49 @@
+package com.technican.restservice.ratelimit;
+
+import com.technican.restservice.security.AuthenticatedUser;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Answers {@code 429 Too Many Requests}, with {@code Retry-After}, to authenticated users
+ * over their {@link UserRateLimiter} limit. Runs right after the JWT filter; anonymous
+ * requests (registration, login) are not limited here.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final UserRateLimiter rateLimiter;
+
+    public RateLimitFilter(UserRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.enabled();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @org.springframework.lang.NonNull HttpServletRequest request,
+            @org.springframework.lang.NonNull HttpServletResponse response,
+            @org.springframework.lang.NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        AuthenticatedUser user = AuthenticatedUser.current();
+        if (user != null && !rateLimiter.tryAcquire(user.getUserId())) {
+            response.setStatus(429);
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(rateLimiter.secondsUntilReset()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Rate limit exceeded\"}");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
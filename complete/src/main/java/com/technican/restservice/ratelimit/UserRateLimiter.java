@@ -0,0 +1,128 @@
+package com.technican.restservice.ratelimit;
+
+import com.technican.restservice.cluster.ClusterBus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-user request limit shared by all nodes: at most {@code ratelimit.requests-per-window}
+ * requests per user in each fixed window of {@code ratelimit.window-ms}, counted across the
+ * cluster. Disabled when the limit is 0 (the default).
+ *
+ * <p>Each node counts its own requests and, every {@code ratelimit.sync-ms}, sends what it
+ * counted since over the {@link ClusterBus}; a request is admitted while the node's own count
+ * plus the others' last reported counts stay within the limit. Windows are aligned to the
+ * epoch so nodes agree on them. Requests reported late can push a user past the limit by
+ * what the other nodes admitted within one sync interval.
+ */
+@Component
+public class UserRateLimiter {
+    /** A node's requests per user counted in {@code window} since its last report. */
+    public record Usage(long window, Map<Long, Long> requests) {}
+
+    private static final class Counts {
+        final AtomicLong local = new AtomicLong();
+        final AtomicLong remote = new AtomicLong();
+        // Guarded by UserRateLimiter.lock
+        long reported;
+    }
+
+    private record Window(long index, Map<Long, Counts> users) {}
+
+    private final int limit;
+    private final long windowMs;
+    private final ClusterBus bus;
+    private final Counter rejected;
+    // Guards starting a window and reporting from it
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Window window = new Window(-1, Map.of());
+
+    public UserRateLimiter(@Value("${ratelimit.requests-per-window:0}") int limit,
+                           @Value("${ratelimit.window-ms:60000}") long windowMs,
+                           ClusterBus bus,
+                           MeterRegistry meterRegistry) {
+        this.limit = limit;
+        this.windowMs = windowMs;
+        this.bus = bus;
+        this.rejected = Counter.builder("ratelimit.rejected").register(meterRegistry);
+        bus.subscribe(Usage.class, this::onUsage);
+    }
+
+    public boolean enabled() {
+        return limit > 0;
+    }
+
+    /** Counts a request of the user; false, and nothing counted, if it would exceed the limit. */
+    public boolean tryAcquire(Long userId) {
+        Counts counts = window(System.currentTimeMillis()).users().computeIfAbsent(userId, id -> new Counts());
+        if (counts.local.incrementAndGet() + counts.remote.get() > limit) {
+            counts.local.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /** Whole seconds until the current window ends and the limits reset. */
+    public long secondsUntilReset() {
+        long now = System.currentTimeMillis();
+        return Math.max(1, (windowMs - now % windowMs + 999) / 1000);
+    }
+
+    @Scheduled(fixedDelayString = "${ratelimit.sync-ms:200}")
+    public void report() {
+        Window current;
+        Map<Long, Long> requests = new HashMap<>();
+        lock.lock();
+        try {
+            current = window;
+            for (Map.Entry<Long, Counts> user : current.users().entrySet()) {
+                Counts counts = user.getValue();
+                long local = counts.local.get();
+                if (local != counts.reported) {
+                    requests.put(user.getKey(), local - counts.reported);
+                    counts.reported = local;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (!requests.isEmpty()) {
+            bus.publish(new Usage(current.index(), requests));
+        }
+    }
+
+    private void onUsage(Usage usage) {
+        Window current = window(System.currentTimeMillis());
+        if (usage.window() == current.index()) {
+            usage.requests().forEach((userId, requests) ->
+                    current.users().computeIfAbsent(userId, id -> new Counts()).remote.addAndGet(requests));
+        }
+    }
+
+    private Window window(long now) {
+        long index = now / windowMs;
+        Window current = window;
+        if (current.index() == index) {
+            return current;
+        }
+        lock.lock();
+        try {
+            if (window.index() != index) {
+                window = new Window(index, new ConcurrentHashMap<>());
+            }
+            return window;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
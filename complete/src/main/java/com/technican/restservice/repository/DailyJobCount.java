@@ -0,0 +1,7 @@
+package com.technican.restservice.repository;
+
+import com.technican.restservice.model.JobStatus;
+import java.time.LocalDate;
+
+/** Number of jobs created on {@code day} that have the given status, service type and technician. */
+public record DailyJobCount(LocalDate day, JobStatus status, String serviceType, Long technicianId, long jobs) {}
@@ -0,0 +1,13 @@
+package com.technican.restservice.repository;
+
+import com.technican.restservice.model.Job;
+import java.util.List;
+
+/** Bulk insert of new jobs, used by the batch import endpoint. */
+public interface JobBatchInserts {
+    /**
+     * Inserts the jobs (which must not have ids yet) as JDBC batches and detaches
+     * them afterwards. Must run inside a transaction.
+     */
+    void insertAll(List<Job> jobs);
+}
@@ -0,0 +1,28 @@
+package com.technican.restservice.repository;
+
+import com.technican.restservice.model.Job;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+
+/**
+ * JPA implementation of {@link JobBatchInserts}, picked up by Spring Data as a
+ * fragment of {@link JobRepositoryJpa}. Batching itself comes from
+ * {@code hibernate.jdbc.batch_size} and the pooled {@code job_seq} generator.
+ */
+public class JobBatchInsertsImpl implements JobBatchInserts {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insertAll(List<Job> jobs) {
+        for (Job job : jobs) {
+            entityManager.persist(job);
+        }
+        entityManager.flush();
+        // The request-scoped persistence context would otherwise keep every imported job
+        for (Job job : jobs) {
+            entityManager.detach(job);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.technican.restservice.repository;
+
+import com.technican.restservice.model.JobStatus;
+import java.util.List;
+
+/** Bulk status updates, used when applying status events ingested from field devices. */
+public interface JobBatchUpdates {
+    /** Move job {@code id} to {@code status} if it is still in {@code expected}. */
+    record StatusChange(Long id, JobStatus expected, JobStatus status) {}
+
+    /**
+     * Applies each change like {@link JobStore#updateStatus}, sent as one JDBC batch. Returns
+     * the number of jobs each change updated (0 or 1), in order. Must run inside a transaction;
+     * jobs loaded in it before are detached afterwards.
+     */
+    int[] updateStatuses(List<StatusChange> changes);
+}
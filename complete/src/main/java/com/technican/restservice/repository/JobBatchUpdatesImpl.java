@@ -0,0 +1,46 @@
+package com.technican.restservice.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * JPA implementation of {@link JobBatchUpdates}, picked up by Spring Data as a fragment of
+ * {@link JobRepositoryJpa}. JPQL bulk updates cannot be batched, so the conditional UPDATE
+ * of {@code updateStatus} is issued as plain JDBC on the transaction's connection.
+ */
+public class JobBatchUpdatesImpl implements JobBatchUpdates {
+    private static final String UPDATE_STATUS =
+            "update jobs set status = ?, version = coalesce(version, 0) + 1 where id = ? and status = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int[] updateStatuses(List<StatusChange> changes) {
+        // As @Modifying(flushAutomatically, clearAutomatically) does for the single-row updates
+        entityManager.flush();
+        int[] counts = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_STATUS)) {
+                for (StatusChange change : changes) {
+                    statement.setString(1, change.status().name());
+                    statement.setLong(2, change.id());
+                    statement.setString(3, change.expected().name());
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+        entityManager.clear();
+        for (int i = 0; i < counts.length; i++) {
+            // Drivers may report success without a count; the WHERE clause matches one row at most
+            if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                counts[i] = 1;
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,20 @@
+package com.technican.restservice.repository;
+
+import com.technican.restservice.model.Job;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Filtered, keyset-paginated job listings. The JPA implementation
+ * ({@link JobQueriesImpl}) pushes every filter into the SQL query.
+ */
+public interface JobQueries {
+    /** At most {@code limit} jobs matching the query, in its sort order. */
+    List<Job> findPage(JobQuery query, int limit);
+
+    /**
+     * All jobs matching the query, read lazily from the database. Must be consumed
+     * and closed inside a transaction.
+     */
+    Stream<Job> streamAll(JobQuery query);
+}
@@ -0,0 +1,90 @@
+package com.technican.restservice.repository;
+
+import com.technican.restservice.model.Job;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Criteria-based implementation of {@link JobQueries}, picked up by Spring Data
+ * as a fragment of {@link JobRepositoryJpa}.
+ */
+public class JobQueriesImpl implements JobQueries {
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Job> findPage(JobQuery query, int limit) {
+        return build(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Stream<Job> streamAll(JobQuery query) {
+        return build(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                // Detach as we go so the persistence context does not grow with the result
+                .map(job -> {
+                    entityManager.detach(job);
+                    return job;
+                });
+    }
+
+    private TypedQuery<Job> build(JobQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Job> cq = cb.createQuery(Job.class);
+        Root<Job> job = cq.from(Job.class);
+        Path<Long> id = job.get("id");
+        Path<LocalDateTime> createdAt = job.get("createdAt");
+
+        List<Predicate> where = new ArrayList<>();
+        if (query.status() != null) {
+            where.add(cb.equal(job.get("status"), query.status()));
+        }
+        if (query.serviceType() != null) {
+            where.add(cb.equal(job.get("serviceType"), query.serviceType()));
+        }
+        if (query.createdFrom() != null) {
+            where.add(cb.greaterThanOrEqualTo(createdAt, query.createdFrom()));
+        }
+        if (query.createdTo() != null) {
+            where.add(cb.lessThan(createdAt, query.createdTo()));
+        }
+        if (query.afterId() != null) {
+            where.add(keyset(cb, query, createdAt, id));
+        }
+        cq.select(job).where(where.toArray(Predicate[]::new));
+
+        if (query.sort() == JobQuery.Sort.CREATED_AT) {
+            cq.orderBy(direction(cb, query, createdAt), direction(cb, query, id));
+        } else {
+            cq.orderBy(direction(cb, query, id));
+        }
+        return entityManager.createQuery(cq);
+    }
+
+    // (createdAt, id) > (:createdAt, :id), flipped for descending order
+    private static Predicate keyset(CriteriaBuilder cb, JobQuery query, Path<LocalDateTime> createdAt, Path<Long> id) {
+        boolean desc = query.descending();
+        Predicate idAfter = desc ? cb.lessThan(id, query.afterId()) : cb.greaterThan(id, query.afterId());
+        if (query.sort() == JobQuery.Sort.ID) {
+            return idAfter;
+        }
+        LocalDateTime after = query.afterCreatedAt();
+        Predicate createdAfter = desc ? cb.lessThan(createdAt, after) : cb.greaterThan(createdAt, after);
+        return cb.or(createdAfter, cb.and(cb.equal(createdAt, after), idAfter));
+    }
+
+    private static Order direction(CriteriaBuilder cb, JobQuery query, Path<?> path) {
+        return query.descending() ? cb.desc(path) : cb.asc(path);
+    }
+}
@@ -0,0 +1,79 @@
+package com.technican.restservice.repository;
+
+import com.technican.restservice.model.Job;
+import com.technican.restservice.model.JobStatus;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Filter, sort order and keyset position for job listings. All filters are optional.
+ * Rows are ordered by {@code (createdAt, id)} or by {@code id} alone, and a cursor
+ * names the last row of the previous page so the next page starts right after it
+ * without an OFFSET scan.
+ */
+public record JobQuery(
+        JobStatus status,
+        String serviceType,
+        LocalDateTime createdFrom,   // inclusive
+        LocalDateTime createdTo,     // exclusive
+        Sort sort,
+        boolean descending,
+        LocalDateTime afterCreatedAt,
+        Long afterId) {
+
+    public enum Sort { CREATED_AT, ID }
+
+    public JobQuery {
+        Objects.requireNonNull(sort, "sort");
+    }
+
+    /** Returns this query positioned after the row the cursor was taken from. */
+    public JobQuery after(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return this;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = decoded.indexOf('|');
+            LocalDateTime createdAt = sep > 0 ? LocalDateTime.parse(decoded.substring(0, sep)) : null;
+            Long id = Long.valueOf(decoded.substring(sep + 1));
+            if (sort == Sort.CREATED_AT && createdAt == null) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new JobQuery(status, serviceType, createdFrom, createdTo, sort, descending, createdAt, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /** Opaque cursor for the page that follows {@code last}. */
+    public String cursorAfter(Job last) {
+        String position = sort == Sort.CREATED_AT ? last.getCreatedAt() + "|" + last.getId() : "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** In-memory equivalent of the JPA predicate, for stores without a query engine. */
+    public boolean matches(Job job) {
+        if (status != null && job.getStatus() != status) return false;
+        if (serviceType != null && !serviceType.equals(job.getServiceType())) return false;
+        if (createdFrom != null && (job.getCreatedAt() == null || job.getCreatedAt().isBefore(createdFrom))) return false;
+        if (createdTo != null && (job.getCreatedAt() == null || !job.getCreatedAt().isBefore(createdTo))) return false;
+        if (afterId != null) {
+            int position = order().compare(job, new Job(afterId, null, null, null, null, afterCreatedAt));
+            return position > 0;
+        }
+        return true;
+    }
+
+    /** In-memory equivalent of the JPA ORDER BY. */
+    public Comparator<Job> order() {
+        Comparator<Job> byId = Comparator.comparing(Job::getId);
+        Comparator<Job> order = sort == Sort.CREATED_AT
+                ? Comparator.comparing(Job::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder())).thenComparing(byId)
+                : byId;
+        return descending ? order.reversed() : order;
+    }
+}
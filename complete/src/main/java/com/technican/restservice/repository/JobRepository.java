@@ -1,36 +1,315 @@
 package com.technican.restservice.repository;
 
 import com.technican.restservice.model.Job;
+import com.technican.restservice.model.JobStatus;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
+/**
+ * Thread-safe in-memory job storage, used instead of {@link JobRepositoryJpa}
+ * when the {@code inmemory} profile is active.
+ *
+ * Jobs live in a {@link ConcurrentHashMap}; writes to the same job are serialized by
+ * a striped lock so the technician, customer and status indexes always move together
+ * with the primary entry. The conditional updates compare and write under that same
+ * lock, so they are atomic like their single-statement JPA counterparts;
+ * {@link #save(Job)} bumps the version but, unlike JPA, does not check it. Stored jobs
+ * are copies, so callers mutating a returned {@link Job} cannot change indexed state
+ * without going through {@link #save(Job)}.
+ */
 @Repository
-public class JobRepository {
-    private final Map<Long, Job> jobs = new HashMap<>();
+@Primary
+@Profile("inmemory")
+public class JobRepository implements JobStore {
+    private static final int STRIPES = 64;
+
+    private final Map<Long, Job> jobs = new ConcurrentHashMap<>();
     private final AtomicLong idGen = new AtomicLong(1);
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final Index<Long> byTechnician = new Index<>();
+    private final Index<Long> byCustomer = new Index<>();
+    private final Index<JobStatus> byStatus = new Index<>();
 
+    public JobRepository() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
     public Job save(Job job) {
         if (job.getId() == null) {
             job.setId(idGen.getAndIncrement());
         }
-        jobs.put(job.getId(), job);
+        ReentrantLock lock = lockFor(job.getId());
+        lock.lock();
+        try {
+            Job previous = jobs.get(job.getId());
+            job.setVersion(previous == null ? 0L : previous.getVersion() + 1);
+            replace(previous, copy(job));
+        } finally {
+            lock.unlock();
+        }
         return job;
     }
 
+    @Override
+    public int updateStatus(Long id, JobStatus expected, JobStatus status) {
+        return updateIf(id, job -> job.getStatus() == expected, job -> job.setStatus(status));
+    }
+
+    @Override
+    public int updateTechnician(Long id, long expectedVersion, Long technicianId) {
+        return updateIf(id, job -> job.getVersion() == expectedVersion, job -> job.setTechnicianId(technicianId));
+    }
+
+    @Override
+    public int[] updateStatuses(List<StatusChange> changes) {
+        int[] counts = new int[changes.size()];
+        for (int i = 0; i < counts.length; i++) {
+            StatusChange change = changes.get(i);
+            counts[i] = updateStatus(change.id(), change.expected(), change.status());
+        }
+        return counts;
+    }
+
+    @Override
+    public void insertAll(List<Job> batch) {
+        for (Job job : batch) {
+            save(job);
+        }
+    }
+
+    @Override
     public Optional<Job> findById(Long id) {
-        return Optional.ofNullable(jobs.get(id));
+        return Optional.ofNullable(jobs.get(id)).map(JobRepository::copy);
     }
 
+    @Override
     public List<Job> findAll() {
-        return new ArrayList<>(jobs.values());
+        List<Job> result = new ArrayList<>(jobs.size());
+        for (Job job : jobs.values()) {
+            result.add(copy(job));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Job> findAllById(Iterable<Long> ids) {
+        List<Job> result = new ArrayList<>();
+        for (Long id : ids) {
+            Job job = jobs.get(id);
+            if (job != null) {
+                result.add(copy(job));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Job> findByTechnicianId(Long technicianId) {
+        return lookup(byTechnician, technicianId, j -> Objects.equals(j.getTechnicianId(), technicianId));
+    }
+
+    @Override
+    public List<Job> findByCustomerId(Long customerId) {
+        return lookup(byCustomer, customerId, j -> Objects.equals(j.getCustomerId(), customerId));
+    }
+
+    @Override
+    public List<Job> findByStatus(JobStatus status) {
+        return lookup(byStatus, status, j -> j.getStatus() == status);
+    }
+
+    @Override
+    public List<TechnicianLoad> countOpenJobsByTechnician() {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Job job : jobs.values()) {
+            if (job.getTechnicianId() != null && job.getStatus() != null && job.getStatus().isOpen()) {
+                counts.merge(job.getTechnicianId(), 1L, Long::sum);
+            }
+        }
+        List<TechnicianLoad> result = new ArrayList<>(counts.size());
+        counts.forEach((technicianId, openJobs) -> result.add(new TechnicianLoad(technicianId, openJobs)));
+        return result;
+    }
+
+    @Override
+    public List<DailyJobCount> countJobsByDay() {
+        record Key(LocalDate day, JobStatus status, String serviceType, Long technicianId) {}
+        Map<Key, Long> counts = new HashMap<>();
+        for (Job job : jobs.values()) {
+            if (job.getCreatedAt() != null) {
+                counts.merge(new Key(job.getCreatedAt().toLocalDate(), job.getStatus(), job.getServiceType(), job.getTechnicianId()), 1L, Long::sum);
+            }
+        }
+        List<DailyJobCount> result = new ArrayList<>(counts.size());
+        counts.forEach((key, jobs) -> result.add(new DailyJobCount(key.day(), key.status(), key.serviceType(), key.technicianId(), jobs)));
+        return result;
+    }
+
+    @Override
+    public List<Job> findPage(JobQuery query, int limit) {
+        return streamAll(query).limit(limit).toList();
+    }
+
+    @Override
+    public Stream<Job> streamAll(JobQuery query) {
+        Stream<Job> stored = query.status() == null
+                ? jobs.values().stream()
+                : byStatus.get(query.status()).stream().map(jobs::get).filter(Objects::nonNull);
+        return stored
+                .filter(query::matches)
+                .sorted(query.order())
+                .map(JobRepository::copy);
     }
 
+    @Override
     public void deleteById(Long id) {
-        jobs.remove(id);
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            Job previous = jobs.remove(id);
+            if (previous != null) {
+                unindex(previous);
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
+    @Override
     public void deleteAll() {
-        jobs.clear();
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+        try {
+            jobs.clear();
+            byTechnician.clear();
+            byCustomer.clear();
+            byStatus.clear();
+        } finally {
+            for (ReentrantLock lock : locks) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private int updateIf(Long id, Predicate<Job> condition, Consumer<Job> change) {
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            Job previous = jobs.get(id);
+            if (previous == null || !condition.test(previous)) {
+                return 0;
+            }
+            Job updated = copy(previous);
+            change.accept(updated);
+            updated.setVersion(previous.getVersion() + 1);
+            replace(previous, updated);
+            return 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the job's lock
+    private void replace(Job previous, Job stored) {
+        jobs.put(stored.getId(), stored);
+        if (previous == null) {
+            index(stored);
+            return;
+        }
+        move(byTechnician, previous.getTechnicianId(), stored.getTechnicianId(), stored.getId());
+        move(byCustomer, previous.getCustomerId(), stored.getCustomerId(), stored.getId());
+        move(byStatus, previous.getStatus(), stored.getStatus(), stored.getId());
+    }
+
+    // Only a changed key moves, and the new entry comes first, so a concurrent lookup by
+    // either key finds the job throughout (the lookup re-checks which one it matches)
+    private static <K> void move(Index<K> index, K from, K to, Long id) {
+        if (!Objects.equals(from, to)) {
+            index.add(to, id);
+            index.remove(from, id);
+        }
+    }
+
+    private <K> List<Job> lookup(Index<K> index, K key, Predicate<Job> matches) {
+        List<Job> result = new ArrayList<>();
+        for (Long id : index.get(key)) {
+            Job job = jobs.get(id);
+            // An index entry can be observed a moment before its primary entry is
+            // replaced; re-check so a lookup never returns a job that does not match
+            if (job != null && matches.test(job)) {
+                result.add(copy(job));
+            }
+        }
+        return result;
+    }
+
+    private void index(Job job) {
+        byTechnician.add(job.getTechnicianId(), job.getId());
+        byCustomer.add(job.getCustomerId(), job.getId());
+        byStatus.add(job.getStatus(), job.getId());
+    }
+
+    private void unindex(Job job) {
+        byTechnician.remove(job.getTechnicianId(), job.getId());
+        byCustomer.remove(job.getCustomerId(), job.getId());
+        byStatus.remove(job.getStatus(), job.getId());
+    }
+
+    private ReentrantLock lockFor(Long id) {
+        return locks[Long.hashCode(id) & (STRIPES - 1)];
+    }
+
+    private static Job copy(Job job) {
+        Job copy = new Job(job.getId(), job.getCustomerId(), job.getServiceType(), job.getTechnicianId(), job.getStatus(), job.getCreatedAt());
+        copy.setVersion(job.getVersion());
+        return copy;
+    }
+
+    /** Secondary index from an attribute value to the ids of the jobs holding it. */
+    private static final class Index<K> {
+        private final Map<K, Set<Long>> entries = new ConcurrentHashMap<>();
+
+        // Both add and remove mutate the id set inside compute, which is atomic per key,
+        // so an add for one job can never land in a set another job's remove is dropping
+        void add(K key, Long id) {
+            if (key != null) {
+                entries.compute(key, (k, ids) -> {
+                    Set<Long> target = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                    target.add(id);
+                    return target;
+                });
+            }
+        }
+
+        void remove(K key, Long id) {
+            if (key != null) {
+                entries.computeIfPresent(key, (k, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+
+        Set<Long> get(K key) {
+            Set<Long> ids = entries.get(key);
+            return ids == null ? Set.of() : ids;
+        }
+
+        void clear() {
+            entries.clear();
+        }
     }
 }
@@ -1,10 +1,39 @@
 package com.technican.restservice.repository;
 
 import com.technican.restservice.model.Job;
+import com.technican.restservice.model.JobStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 
-public interface JobRepositoryJpa extends JpaRepository<Job, Long> {
+public interface JobRepositoryJpa extends JpaRepository<Job, Long>, JobStore, JobQueries, JobBatchInserts, JobBatchUpdates {
     List<Job> findByTechnicianId(Long technicianId);
     List<Job> findByCustomerId(Long customerId);
+    List<Job> findByStatus(JobStatus status);
+
+    @Query("select new com.technican.restservice.repository.TechnicianLoad(j.technicianId, count(j)) from Job j"
+            + " where j.technicianId is not null and j.status <> com.technican.restservice.model.JobStatus.COMPLETED"
+            + " group by j.technicianId")
+    List<TechnicianLoad> countOpenJobsByTechnician();
+
+    @Query("select new com.technican.restservice.repository.DailyJobCount(cast(j.createdAt as LocalDate), j.status, j.serviceType, j.technicianId, count(j))"
+            + " from Job j where j.createdAt is not null"
+            + " group by cast(j.createdAt as LocalDate), j.status, j.serviceType, j.technicianId")
+    List<DailyJobCount> countJobsByDay();
+
+    // Bulk updates bypass the persistence context: bump the version by hand, and clear the
+    // context so a job loaded earlier in the transaction is not flushed over the new row.
+    // A row without a version counts as version 0, as in JobService
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Job j set j.status = :status, j.version = coalesce(j.version, 0) + 1 where j.id = :id and j.status = :expected")
+    int updateStatus(@Param("id") Long id, @Param("expected") JobStatus expected, @Param("status") JobStatus status);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Job j set j.technicianId = :technicianId, j.version = coalesce(j.version, 0) + 1 where j.id = :id and coalesce(j.version, 0) = :expectedVersion")
+    int updateTechnician(@Param("id") Long id, @Param("expectedVersion") long expectedVersion, @Param("technicianId") Long technicianId);
 }
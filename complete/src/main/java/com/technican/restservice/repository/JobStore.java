@@ -0,0 +1,33 @@
+package com.technican.restservice.repository;
+
+import com.technican.restservice.model.Job;
+import com.technican.restservice.model.JobStatus;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage operations {@code JobService} relies on. Implemented by the JPA repository
+ * (default) and by the in-memory {@link JobRepository} (profile {@code inmemory}).
+ */
+public interface JobStore extends JobQueries, JobBatchInserts, JobBatchUpdates {
+    Job save(Job job);
+    Optional<Job> findById(Long id);
+    List<Job> findAll();
+    /** The jobs among {@code ids} that exist, in no particular order. */
+    List<Job> findAllById(Iterable<Long> ids);
+    List<Job> findByTechnicianId(Long technicianId);
+    List<Job> findByCustomerId(Long customerId);
+    List<Job> findByStatus(JobStatus status);
+    /** Open-job counts of every technician that has any. */
+    List<TechnicianLoad> countOpenJobsByTechnician();
+    /** Job counts per creation day, status, service type and technician. */
+    List<DailyJobCount> countJobsByDay();
+    void deleteById(Long id);
+
+    /** Sets the status only if the job is still in {@code expected}; returns the number of jobs changed (0 or 1). */
+    int updateStatus(Long id, JobStatus expected, JobStatus status);
+
+    /** Sets the technician only if the job is still at {@code expectedVersion}; returns the number of jobs changed (0 or 1). */
+    int updateTechnician(Long id, long expectedVersion, Long technicianId);
+    void deleteAll();
+}
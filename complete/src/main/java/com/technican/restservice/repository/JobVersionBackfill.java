@@ -0,0 +1,20 @@
+package com.technican.restservice.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives jobs stored without a version the version 0 at startup. Flyway's V2 migration does
+ * this where the schema is migrated, but {@code ddl-auto=update} never alters an existing
+ * column, so a database that had the nullable {@code version} column keeps its NULL rows;
+ * Spring Data would take such a job for a new one and try to insert it again on save.
+ */
+@Component
+public class JobVersionBackfill {
+
+    // The EntityManagerFactory parameter only orders this after Hibernate has updated the schema
+    public JobVersionBackfill(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        jdbcTemplate.update("update jobs set version = 0 where version is null");
+    }
+}
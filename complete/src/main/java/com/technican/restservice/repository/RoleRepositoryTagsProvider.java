@@ -0,0 +1,21 @@
+package com.technican.restservice.repository;
+
+import com.technican.restservice.security.AuthenticatedUser;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tags each {@code spring.data.repository.invocations} timing (repository, method, state,
+ * exception) with the role of the user whose request made the call, "anonymous" for
+ * background work such as ingestion and startup loads.
+ */
+@Component
+public class RoleRepositoryTagsProvider extends DefaultRepositoryTagsProvider {
+    @Override
+    public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+        return Tags.of(super.repositoryTags(invocation)).and("role", AuthenticatedUser.metricsRole(AuthenticatedUser.current()));
+    }
+}
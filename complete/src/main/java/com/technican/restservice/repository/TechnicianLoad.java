@@ -0,0 +1,4 @@
+package com.technican.restservice.repository;
+
+/** Number of open (not completed) jobs assigned to a technician. */
+public record TechnicianLoad(Long technicianId, long openJobs) {}
@@ -1,40 +1,159 @@
 package com.technican.restservice.repository;
 
+import com.technican.restservice.model.Role;
 import com.technican.restservice.model.User;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Repository;
 
+/**
+ * Thread-safe in-memory user storage, used instead of {@link UserRepositoryJpa}
+ * when the {@code inmemory} profile is active.
+ *
+ * A username-to-id index makes {@link #findByUsername(String)} a single hash lookup.
+ * The index doubles as the uniqueness constraint: a username is claimed with
+ * {@code putIfAbsent} inside the per-id {@code compute} of the primary map, so two
+ * concurrent registrations of the same name cannot both succeed.
+ */
 @Repository
-public class UserRepository {
-    private final Map<Long, User> users = new HashMap<>();
+@Primary
+@Profile("inmemory")
+public class UserRepository implements UserStore {
+    private final Map<Long, User> users = new ConcurrentHashMap<>();
+    private final Map<String, Long> usernames = new ConcurrentHashMap<>();
     private final AtomicLong idGen = new AtomicLong(1);
 
+    @Override
     public User save(User user) {
-        if (user.getId() == null) {
-            user.setId(idGen.getAndIncrement());
+        if (user.getUsername() == null) {
+            throw new DataIntegrityViolationException("username is required");
+        }
+        boolean assignedId = user.getId() == null;
+        Long id = assignedId ? idGen.getAndIncrement() : user.getId();
+        User stored = copy(user);
+        stored.setId(id);
+        users.compute(id, (key, previous) -> {
+            String previousName = previous == null ? null : previous.getUsername();
+            if (!stored.getUsername().equals(previousName)) {
+                Long owner = usernames.putIfAbsent(stored.getUsername(), key);
+                if (owner != null && !owner.equals(key)) {
+                    throw new DataIntegrityViolationException("Duplicate username: " + stored.getUsername());
+                }
+                if (previousName != null) {
+                    usernames.remove(previousName, key);
+                }
+            }
+            return stored;
+        });
+        if (assignedId) {
+            user.setId(id);
         }
-        users.put(user.getId(), user);
         return user;
     }
 
+    @Override
     public Optional<User> findById(Long id) {
-        return Optional.ofNullable(users.get(id));
+        return Optional.ofNullable(users.get(id)).map(UserRepository::copy);
     }
 
+    @Override
     public Optional<User> findByUsername(String username) {
-        return users.values().stream().filter(u -> u.getUsername().equals(username)).findFirst();
+        Long id = username == null ? null : usernames.get(username);
+        if (id == null) {
+            return Optional.empty();
+        }
+        // The index may briefly point at a user that is being renamed or deleted
+        return Optional.ofNullable(users.get(id))
+                .filter(u -> u.getUsername().equals(username))
+                .map(UserRepository::copy);
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return username != null && usernames.containsKey(username);
+    }
+
+    @Override
+    public boolean hasRole(Long id, Role role) {
+        User user = users.get(id);
+        return user != null && user.getRoles() != null && user.getRoles().contains(role);
+    }
+
+    @Override
+    public long count() {
+        return users.size();
     }
 
+    @Override
     public List<User> findAll() {
-        return new ArrayList<>(users.values());
+        List<User> result = new ArrayList<>(users.size());
+        for (User user : users.values()) {
+            result.add(copy(user));
+        }
+        return result;
+    }
+
+    @Override
+    public List<User> findAllById(Iterable<Long> ids) {
+        List<User> result = new ArrayList<>();
+        for (Long id : ids) {
+            User user = users.get(id);
+            if (user != null) {
+                result.add(copy(user));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<User> findByRole(Role role) {
+        List<User> result = new ArrayList<>();
+        for (User user : users.values()) {
+            if (user.getRoles() != null && user.getRoles().contains(role)) {
+                result.add(copy(user));
+            }
+        }
+        return result;
     }
 
+    @Override
+    public int updatePassword(Long id, String current, String replacement) {
+        int[] updated = {0};
+        users.computeIfPresent(id, (key, previous) -> {
+            if (!Objects.equals(previous.getPassword(), current)) {
+                return previous;
+            }
+            User stored = copy(previous);
+            stored.setPassword(replacement);
+            updated[0] = 1;
+            return stored;
+        });
+        return updated[0];
+    }
+
+    @Override
     public void deleteById(Long id) {
-        users.remove(id);
+        users.computeIfPresent(id, (key, previous) -> {
+            usernames.remove(previous.getUsername(), key);
+            return null;
+        });
     }
 
+    @Override
     public void deleteAll() {
-        users.clear();
+        for (Long id : users.keySet()) {
+            deleteById(id);
+        }
+    }
+
+    private static User copy(User user) {
+        Set<Role> roles = user.getRoles() == null ? null : new HashSet<>(user.getRoles());
+        User copy = new User(user.getId(), user.getUsername(), user.getPassword(), roles, user.getContactInfo(), user.getAddress());
+        copy.setSkills(user.getSkills() == null ? null : new HashSet<>(user.getSkills()));
+        return copy;
     }
 }
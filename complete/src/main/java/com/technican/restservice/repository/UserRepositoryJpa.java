@@ -1,9 +1,38 @@
 package com.technican.restservice.repository;
 
+import com.technican.restservice.model.Role;
 import com.technican.restservice.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
 import java.util.Optional;
 
-public interface UserRepositoryJpa extends JpaRepository<User, Long> {
+public interface UserRepositoryJpa extends JpaRepository<User, Long>, UserStore {
+    // Roles are lazy; the lookups below join them in so callers never trigger a second select
+    @EntityGraph(attributePaths = "roles")
     Optional<User> findByUsername(String username);
+
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findById(Long id);
+
+    @EntityGraph(attributePaths = "roles")
+    List<User> findAll();
+
+    @EntityGraph(attributePaths = {"roles", "skills"})
+    @Query("select distinct u from User u join u.roles r where r = :role")
+    List<User> findByRole(@Param("role") Role role);
+
+    boolean existsByUsername(String username);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :replacement where u.id = :id and u.password = :current")
+    int updatePassword(@Param("id") Long id, @Param("current") String current, @Param("replacement") String replacement);
+
+    @Query("select count(u) > 0 from User u join u.roles r where u.id = :id and r = :role")
+    boolean hasRole(@Param("id") Long id, @Param("role") Role role);
 }
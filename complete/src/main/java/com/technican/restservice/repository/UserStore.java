@@ -0,0 +1,31 @@
+package com.technican.restservice.repository;
+
+import com.technican.restservice.model.Role;
+import com.technican.restservice.model.User;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage operations {@code UserService} relies on. Implemented by the JPA repository
+ * (default) and by the in-memory {@link UserRepository} (profile {@code inmemory}).
+ * Saving a user whose username is already taken fails with a
+ * {@link org.springframework.dao.DataIntegrityViolationException} in both.
+ */
+public interface UserStore {
+    User save(User user);
+    Optional<User> findById(Long id);
+    Optional<User> findByUsername(String username);
+    boolean existsByUsername(String username);
+    /** Whether the user exists and holds the role, without loading the user. */
+    boolean hasRole(Long id, Role role);
+    /** Replaces the password hash only if it is still {@code current}; returns the rows updated. */
+    int updatePassword(Long id, String current, String replacement);
+    long count();
+    List<User> findAll();
+    /** The users among {@code ids} that exist, in no particular order. */
+    List<User> findAllById(Iterable<Long> ids);
+    /** Users holding the role, with roles and skills loaded. */
+    List<User> findByRole(Role role);
+    void deleteById(Long id);
+    void deleteAll();
+}
@@ -0,0 +1,15 @@
+package com.technican.restservice.route;
+
+import java.util.List;
+
+/**
+ * A technician's scheduled jobs in visiting order. {@code fromBase} tells whether the route
+ * starts at the technician's base address or, lacking one, at the first stop. Jobs whose
+ * customer address has no known position cannot be placed and are listed separately.
+ * Distances are in km, rounded to 0.1.
+ */
+public record RoutePlan(Long technicianId, boolean fromBase, List<Stop> stops, List<Long> unlocatedJobIds, double distanceKm) {
+
+    /** One job on the route; {@code legKm} is the distance from the previous stop (or the base). */
+    public record Stop(Long jobId, Long customerId, String serviceType, double latitude, double longitude, double legKm) {}
+}
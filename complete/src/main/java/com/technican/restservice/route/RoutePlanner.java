@@ -0,0 +1,132 @@
+package com.technican.restservice.route;
+
+import com.technican.restservice.dispatch.GeoPoint;
+
+/**
+ * Visiting order for a set of stops: a nearest-neighbour tour improved by 2-opt until
+ * no segment reversal shortens it. Works on a row-major {@code double[]} distance matrix
+ * and {@code int[]} tours, so planning 200 stops allocates two arrays and no objects.
+ *
+ * <p>Node 0 is the start and stays first; the route ends at whichever stop is last, so
+ * the technician does not have to return. A start with no known position is modelled as
+ * a node at distance 0 from every stop, which leaves the first stop free as well.
+ */
+public final class RoutePlanner {
+    // Reversals that gain less than this are rounding noise and would loop forever
+    private static final double EPSILON = 1e-9;
+
+    private RoutePlanner() {
+    }
+
+    /**
+     * Great-circle distances in km between {@code points}, row-major. A null point (the
+     * start without a position) is at distance 0 from everything.
+     */
+    public static double[] distanceMatrix(GeoPoint[] points) {
+        int n = points.length;
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        double[] cosLatitudes = new double[n];
+        for (int i = 0; i < n; i++) {
+            if (points[i] != null) {
+                latitudes[i] = Math.toRadians(points[i].latitude());
+                longitudes[i] = Math.toRadians(points[i].longitude());
+                cosLatitudes[i] = Math.cos(latitudes[i]);
+            }
+        }
+        double[] distances = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            if (points[i] == null) {
+                continue;
+            }
+            for (int j = i + 1; j < n; j++) {
+                if (points[j] == null) {
+                    continue;
+                }
+                // Haversine, as GeoPoint.distanceKm, with the cosines computed once per point
+                double sinLatitude = Math.sin((latitudes[j] - latitudes[i]) / 2);
+                double sinLongitude = Math.sin((longitudes[j] - longitudes[i]) / 2);
+                double h = sinLatitude * sinLatitude + cosLatitudes[i] * cosLatitudes[j] * sinLongitude * sinLongitude;
+                double d = 2 * GeoPoint.EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(h)));
+                distances[i * n + j] = d;
+                distances[j * n + i] = d;
+            }
+        }
+        return distances;
+    }
+
+    /** Order to visit the {@code n} nodes of the matrix in, starting with node 0. */
+    public static int[] plan(double[] distances, int n) {
+        int[] tour = nearestNeighbour(distances, n);
+        twoOpt(distances, n, tour);
+        return tour;
+    }
+
+    /** Length of the route through {@code tour} in order, without returning to the start. */
+    public static double length(double[] distances, int n, int[] tour) {
+        double total = 0;
+        for (int i = 1; i < tour.length; i++) {
+            total += distances[tour[i - 1] * n + tour[i]];
+        }
+        return total;
+    }
+
+    static int[] nearestNeighbour(double[] distances, int n) {
+        int[] tour = new int[n];
+        boolean[] visited = new boolean[n];
+        visited[0] = true;
+        for (int position = 1; position < n; position++) {
+            int from = tour[position - 1] * n;
+            int next = -1;
+            double nearest = Double.POSITIVE_INFINITY;
+            for (int candidate = 1; candidate < n; candidate++) {
+                if (!visited[candidate] && distances[from + candidate] < nearest) {
+                    nearest = distances[from + candidate];
+                    next = candidate;
+                }
+            }
+            tour[position] = next;
+            visited[next] = true;
+        }
+        return tour;
+    }
+
+    /**
+     * Reverses {@code tour[i+1..j]} whenever that shortens the route, sweeping until a
+     * whole pass finds nothing. The last stop has no outgoing edge, so a reversal that
+     * reaches the end only swaps one edge.
+     */
+    static void twoOpt(double[] distances, int n, int[] tour) {
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int i = 0; i < n - 2; i++) {
+                int a = tour[i];
+                int b = tour[i + 1];
+                double ab = distances[a * n + b];
+                for (int j = i + 2; j < n; j++) {
+                    int c = tour[j];
+                    double delta = distances[a * n + c] - ab;
+                    if (j + 1 < n) {
+                        int d = tour[j + 1];
+                        delta += distances[b * n + d] - distances[c * n + d];
+                    }
+                    if (delta < -EPSILON) {
+                        reverse(tour, i + 1, j);
+                        b = tour[i + 1];
+                        ab = distances[a * n + b];
+                        improved = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private static void reverse(int[] tour, int from, int to) {
+        while (from < to) {
+            int swap = tour[from];
+            tour[from++] = tour[to];
+            tour[to--] = swap;
+        }
+    }
+}
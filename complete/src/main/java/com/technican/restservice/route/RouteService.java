@@ -0,0 +1,184 @@
+package com.technican.restservice.route;
+
+import com.technican.restservice.dispatch.AddressGeocoder;
+import com.technican.restservice.dispatch.GeoPoint;
+import com.technican.restservice.event.UserChangedEvent;
+import com.technican.restservice.model.Job;
+import com.technican.restservice.model.JobStatus;
+import com.technican.restservice.model.Role;
+import com.technican.restservice.model.User;
+import com.technican.restservice.repository.JobQuery;
+import com.technican.restservice.service.JobService;
+import com.technican.restservice.service.JobVersions;
+import com.technican.restservice.service.UserService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Visiting order for each technician's SCHEDULED jobs, planned by {@link RoutePlanner}
+ * from the customers' addresses. A plan is kept until the technician's jobs change (per
+ * {@link JobVersions}), and every plan is rebuilt at {@code routes.nightly-cron} on a
+ * fork-join pool of {@code routes.planning-threads}, so the morning's requests are
+ * answered from memory.
+ */
+@Service
+public class RouteService {
+    private static final JobQuery SCHEDULED_JOBS =
+            new JobQuery(JobStatus.SCHEDULED, null, null, null, JobQuery.Sort.ID, false, null, null);
+    // Customers are fetched by id in IN lists of this size
+    private static final int CUSTOMER_CHUNK = 1000;
+
+    @Autowired
+    private JobService jobService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JobVersions jobVersions;
+    @Autowired
+    private AddressGeocoder geocoder;
+
+    private final ForkJoinPool planners;
+    private final Map<Long, CachedPlan> plans = new ConcurrentHashMap<>();
+
+    // The technician's job-list ETag when the plan's input was read; a different current one means stale
+    private record CachedPlan(String version, RoutePlan plan) {}
+
+    public RouteService(@Value("${routes.planning-threads:0}") int planningThreads) {
+        this.planners = new ForkJoinPool(planningThreads > 0 ? planningThreads : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        planners.shutdownNow();
+    }
+
+    /** The technician's route through their SCHEDULED jobs; empty if the user is not a technician. */
+    public Optional<RoutePlan> planFor(Long technicianId) {
+        // Read before the jobs, as JobVersions requires
+        String version = jobVersions.technicianJobsETag(technicianId);
+        CachedPlan cached = plans.get(technicianId);
+        if (cached != null && cached.version().equals(version)) {
+            return Optional.of(cached.plan());
+        }
+        if (!userService.hasRole(technicianId, Role.TECHNICIAN)) {
+            return Optional.empty();
+        }
+        GeoPoint base = userService.findById(technicianId).flatMap(user -> geocoder.locate(user.getAddress())).orElse(null);
+        List<Job> jobs = new ArrayList<>();
+        for (Job job : jobService.findByTechnicianId(technicianId)) {
+            if (job.getStatus() == JobStatus.SCHEDULED) {
+                jobs.add(job);
+            }
+        }
+        Map<Long, GeoPoint> customers = locateCustomers(jobs);
+        RoutePlan plan = plan(technicianId, base, jobs, customers::get);
+        plans.put(technicianId, new CachedPlan(version, plan));
+        return Optional.of(plan);
+    }
+
+    /**
+     * Replans every technician: reads all SCHEDULED jobs and the customers they visit in
+     * bulk, then plans the routes in parallel. Returns the number of technicians planned.
+     */
+    public int planAll() {
+        List<User> technicians = userService.findByRole(Role.TECHNICIAN);
+        Map<Long, String> versions = new HashMap<>();
+        for (User technician : technicians) {
+            versions.put(technician.getId(), jobVersions.technicianJobsETag(technician.getId()));
+        }
+        Map<Long, List<Job>> jobs = new HashMap<>();
+        jobService.streamJobs(SCHEDULED_JOBS, job -> {
+            if (job.getTechnicianId() != null) {
+                jobs.computeIfAbsent(job.getTechnicianId(), id -> new ArrayList<>()).add(job);
+            }
+        });
+        List<Job> allJobs = new ArrayList<>();
+        jobs.values().forEach(allJobs::addAll);
+        Map<Long, GeoPoint> customers = locateCustomers(allJobs);
+        // Plans share nothing but the read-only maps, so each technician is an independent task
+        planners.submit(() -> technicians.parallelStream().forEach(technician -> {
+            Long id = technician.getId();
+            GeoPoint base = geocoder.locate(technician.getAddress()).orElse(null);
+            RoutePlan plan = plan(id, base, jobs.getOrDefault(id, List.of()), customers::get);
+            plans.put(id, new CachedPlan(versions.get(id), plan));
+        })).join();
+        return technicians.size();
+    }
+
+    @Scheduled(cron = "${routes.nightly-cron:0 0 4 * * *}")
+    public void planNightly() {
+        planAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.type() == UserChangedEvent.Type.DELETED) {
+            plans.remove(event.userId());
+        }
+    }
+
+    private Map<Long, GeoPoint> locateCustomers(List<Job> jobs) {
+        Set<Long> ids = new HashSet<>();
+        for (Job job : jobs) {
+            ids.add(job.getCustomerId());
+        }
+        Map<Long, GeoPoint> located = new HashMap<>();
+        List<Long> chunk = new ArrayList<>(CUSTOMER_CHUNK);
+        Iterator<Long> remaining = ids.iterator();
+        while (remaining.hasNext()) {
+            chunk.add(remaining.next());
+            if (chunk.size() == CUSTOMER_CHUNK || !remaining.hasNext()) {
+                for (User customer : userService.findAllById(chunk)) {
+                    geocoder.locate(customer.getAddress()).ifPresent(point -> located.put(customer.getId(), point));
+                }
+                chunk.clear();
+            }
+        }
+        return located;
+    }
+
+    private static RoutePlan plan(Long technicianId, GeoPoint base, List<Job> jobs, Function<Long, GeoPoint> customerLocation) {
+        // By id, so the same jobs always give the same route
+        List<Job> ordered = new ArrayList<>(jobs);
+        ordered.sort(Comparator.comparing(Job::getId));
+        List<Job> placed = new ArrayList<>(ordered.size());
+        List<GeoPoint> points = new ArrayList<>(ordered.size() + 1);
+        List<Long> unlocated = new ArrayList<>();
+        // Node 0 is the base; without one it is at distance 0 from every stop
+        points.add(base);
+        for (Job job : ordered) {
+            GeoPoint location = customerLocation.apply(job.getCustomerId());
+            if (location == null) {
+                unlocated.add(job.getId());
+            } else {
+                placed.add(job);
+                points.add(location);
+            }
+        }
+        int n = points.size();
+        double[] distances = RoutePlanner.distanceMatrix(points.toArray(new GeoPoint[0]));
+        int[] tour = RoutePlanner.plan(distances, n);
+        List<RoutePlan.Stop> stops = new ArrayList<>(placed.size());
+        for (int i = 1; i < n; i++) {
+            Job job = placed.get(tour[i] - 1);
+            GeoPoint location = points.get(tour[i]);
+            double leg = distances[tour[i - 1] * n + tour[i]];
+            stops.add(new RoutePlan.Stop(job.getId(), job.getCustomerId(), job.getServiceType(),
+                    location.latitude(), location.longitude(), round(leg)));
+        }
+        return new RoutePlan(technicianId, base != null, stops, unlocated, round(RoutePlanner.length(distances, n, tour)));
+    }
+
+    private static double round(double km) {
+        return Math.round(km * 10) / 10.0;
+    }
+}
@@ -0,0 +1,134 @@
+package com.technican.restservice.security;
+
+import com.technican.restservice.model.Role;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Principal of a request authenticated by {@link JwtAuthFilter}. Roles are kept as a
+ * bitmask over {@link Role} ordinals, so controllers check authorization with a single
+ * AND instead of re-reading the token or comparing strings.
+ */
+public final class AuthenticatedUser {
+    /** Request attribute holding the principal, readable after the security context is cleared. */
+    public static final String REQUEST_ATTRIBUTE = AuthenticatedUser.class.getName();
+    private static final Role[] ROLES = Role.values();
+    // Most privileged first; the first one a user has is the role metrics are tagged with
+    private static final Role[] METRICS_PRECEDENCE = {Role.ADMIN, Role.SCHEDULER, Role.TECHNICIAN, Role.CUSTOMER};
+    private static final String[] METRICS_TAGS = Arrays.stream(ROLES).map(role -> role.name().toLowerCase(Locale.ROOT)).toArray(String[]::new);
+    // Authorities for every possible role combination, built once and shared by all requests
+    private static final List<List<GrantedAuthority>> AUTHORITIES = authoritiesByMask();
+
+    private final Long userId;
+    private final String username;
+    private final int roleMask;
+
+    public AuthenticatedUser(Long userId, String username, Set<Role> roles) {
+        this.userId = userId;
+        this.username = username;
+        int mask = 0;
+        for (Role role : roles) {
+            mask |= 1 << role.ordinal();
+        }
+        this.roleMask = mask;
+    }
+
+    /** Builds the principal for verified claims, ignoring role names this build does not know. */
+    public static AuthenticatedUser from(JwtClaims claims) {
+        EnumSet<Role> roles = EnumSet.noneOf(Role.class);
+        for (String name : claims.roles()) {
+            for (Role role : ROLES) {
+                if (role.name().equals(name)) {
+                    roles.add(role);
+                }
+            }
+        }
+        return new AuthenticatedUser(claims.userId(), claims.username(), roles);
+    }
+
+    /** The user of the request being handled on this thread; null outside an authenticated request. */
+    public static AuthenticatedUser current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user ? user : null;
+    }
+
+    /** Tag value for metrics: the user's most privileged role in lower case, or "anonymous". */
+    public static String metricsRole(AuthenticatedUser user) {
+        if (user != null) {
+            for (Role role : METRICS_PRECEDENCE) {
+                if (user.hasRole(role)) {
+                    return METRICS_TAGS[role.ordinal()];
+                }
+            }
+        }
+        return "anonymous";
+    }
+
+    /** Bitmask of the given roles, for use with {@link #hasAnyRole(int)}. */
+    public static int mask(Role... roles) {
+        int mask = 0;
+        for (Role role : roles) {
+            mask |= 1 << role.ordinal();
+        }
+        return mask;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public boolean hasRole(Role role) {
+        return (roleMask & (1 << role.ordinal())) != 0;
+    }
+
+    public boolean hasAnyRole(int mask) {
+        return (roleMask & mask) != 0;
+    }
+
+    public EnumSet<Role> getRoles() {
+        EnumSet<Role> roles = EnumSet.noneOf(Role.class);
+        for (Role role : ROLES) {
+            if (hasRole(role)) {
+                roles.add(role);
+            }
+        }
+        return roles;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return AUTHORITIES.get(roleMask);
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+
+    private static List<List<GrantedAuthority>> authoritiesByMask() {
+        List<List<GrantedAuthority>> byMask = new ArrayList<>(1 << ROLES.length);
+        for (int mask = 0; mask < 1 << ROLES.length; mask++) {
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            for (Role role : ROLES) {
+                if ((mask & (1 << role.ordinal())) != 0) {
+                    authorities.add(new SimpleGrantedAuthority("ROLE_" + role.name()));
+                }
+            }
+            byMask.add(Collections.unmodifiableList(authorities));
+        }
+        return Collections.unmodifiableList(byMask);
+    }
+}
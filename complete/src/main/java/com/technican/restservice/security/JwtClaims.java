@@ -0,0 +1,16 @@
+package com.technican.restservice.security;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been verified.
+ * Built once per token by {@link JwtUtil#parseClaims(String)} and turned into the
+ * request's {@link AuthenticatedUser} by {@link JwtAuthFilter}.
+ */
+public record JwtClaims(Long userId, String username, Set<String> roles, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -1,17 +1,51 @@
 package com.technican.restservice.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
     private final String jwtSecret = "supersecretkeysupersecretkeysupersecretkey";
     private final long jwtExpirationMs = 86400000; // 1 day
     private final SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // JwtParser is immutable and thread-safe, so one instance serves every request
+    private final JwtParser parser = Jwts.parser().verifyWith(key).build();
+    // Verified claims keyed by SHA-256 of the token; each entry expires with its token
+    private final Cache<String, JwtClaims> verifiedTokens;
+    // auth.jwt.parse by result, registered up front so timing a request allocates nothing
+    private final Timer cachedTimer;
+    private final Timer verifiedTimer;
+    private final Timer invalidTimer;
+
+    public JwtUtil(@Value("${jwt.cache.max-entries:10000}") long cacheMaxEntries, MeterRegistry meterRegistry) {
+        this.cachedTimer = Timer.builder("auth.jwt.parse").tag("result", "cached").register(meterRegistry);
+        this.verifiedTimer = Timer.builder("auth.jwt.parse").tag("result", "verified").register(meterRegistry);
+        this.invalidTimer = Timer.builder("auth.jwt.parse").tag("result", "invalid").register(meterRegistry);
+        this.verifiedTokens = cacheMaxEntries > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(cacheMaxEntries)
+                        .expireAfter(Expiry.creating((String digest, JwtClaims claims) ->
+                                Duration.between(Instant.now(), claims.expiresAt())))
+                        .build()
+                : null;
+    }
 
     public String generateToken(Long userId, String username, Set<String> roles) {
         return Jwts.builder()
@@ -25,23 +59,66 @@ public class JwtUtil {
     }
 
     public Jws<Claims> validateToken(String token) {
-        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
+        return parser.parseSignedClaims(token);
+    }
+
+    /**
+     * Verifies the token and returns its claims. A token that was already verified
+     * is served from the cache until it expires, skipping the signature check.
+     */
+    public JwtClaims parseClaims(String token) {
+        long start = System.nanoTime();
+        // Until verify() returns, the token counts as invalid
+        Timer timer = invalidTimer;
+        try {
+            JwtClaims claims;
+            if (verifiedTokens == null) {
+                claims = verify(token);
+            } else {
+                String digest = digest(token);
+                claims = verifiedTokens.getIfPresent(digest);
+                if (claims != null && !claims.isExpired(Instant.now())) {
+                    timer = cachedTimer;
+                    return claims;
+                }
+                claims = verify(token);
+                verifiedTokens.put(digest, claims);
+            }
+            timer = verifiedTimer;
+            return claims;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     public String getUsernameFromToken(String token) {
-        Jws<Claims> jwt = validateToken(token);
-        return jwt.getPayload().getSubject();
+        return parseClaims(token).username();
     }
 
     public Long getUserIdFromToken(String token) {
-        Jws<Claims> jwt = validateToken(token);
-        return jwt.getPayload().get("userId", Long.class);
+        return parseClaims(token).userId();
     }
 
     public Set<String> getRolesFromToken(String token) {
-        Jws<Claims> jwt = validateToken(token);
-        String roles = jwt.getPayload().get("roles", String.class);
-        Set<String> roleSet = Set.of(roles.split(","));
-        return roleSet;
+        return parseClaims(token).roles();
+    }
+
+    private JwtClaims verify(String token) {
+        Claims payload = validateToken(token).getPayload();
+        String roles = payload.get("roles", String.class);
+        return new JwtClaims(
+                payload.get("userId", Long.class),
+                payload.getSubject(),
+                Set.of(roles.split(",")),
+                payload.getExpiration().toInstant());
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
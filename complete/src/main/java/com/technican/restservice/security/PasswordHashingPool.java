@@ -0,0 +1,143 @@
+package com.technican.restservice.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt hashing on a small dedicated pool so a burst of logins cannot occupy
+ * every request thread. The pool's queue is bounded: when it is full, work is
+ * rejected straight away with {@link RejectedExecutionException}, and callers answer
+ * 503 rather than letting requests pile up behind the hashes.
+ *
+ * <p>Metrics: {@code auth.password.hash} (hash time, tagged by operation),
+ * {@code auth.password.queue.wait} (time spent queued), {@code auth.password.queue.depth}
+ * and {@code auth.password.rejected}.
+ */
+@Component
+public class PasswordHashingPool {
+    private final PasswordEncoder passwordEncoder;
+    private final int strength;
+    private final long timeoutMs;
+    private final ThreadPoolExecutor executor;
+    private final Timer verifyTimer;
+    private final Timer encodeTimer;
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    public PasswordHashingPool(PasswordEncoder passwordEncoder,
+                               @Value("${auth.bcrypt.strength:10}") int strength,
+                               @Value("${auth.bcrypt.pool-size:0}") int poolSize,
+                               @Value("${auth.bcrypt.queue-capacity:64}") int queueCapacity,
+                               @Value("${auth.bcrypt.timeout-ms:5000}") long timeoutMs,
+                               MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.strength = strength;
+        this.timeoutMs = timeoutMs;
+        int threadCount = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threadCount, threadCount, 0, TimeUnit.MILLISECONDS, queue, r -> {
+            Thread thread = new Thread(r, "bcrypt-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.verifyTimer = Timer.builder("auth.password.hash").tag("operation", "verify").register(meterRegistry);
+        this.encodeTimer = Timer.builder("auth.password.hash").tag("operation", "encode").register(meterRegistry);
+        this.queueWait = Timer.builder("auth.password.queue.wait").register(meterRegistry);
+        this.rejected = Counter.builder("auth.password.rejected").register(meterRegistry);
+        Gauge.builder("auth.password.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    /**
+     * Checks {@code raw} against {@code encoded} on the pool and waits for the answer.
+     *
+     * @throws RejectedExecutionException if the queue is full or the hash did not finish in time
+     */
+    public boolean matches(String raw, String encoded) {
+        return await(submit(verifyTimer, () -> passwordEncoder.matches(raw, encoded)));
+    }
+
+    /**
+     * Hashes {@code raw} on the pool and waits for the result.
+     *
+     * @throws RejectedExecutionException if the queue is full or the hash did not finish in time
+     */
+    public String encode(String raw) {
+        return await(submit(encodeTimer, () -> passwordEncoder.encode(raw)));
+    }
+
+    /**
+     * Hashes {@code raw} in the background and hands the result to {@code onEncoded} on
+     * {@code executor}, so what it does (such as a database write) never occupies a hashing
+     * thread. Returns false, doing nothing, when the pool has no room; the caller can try
+     * again later.
+     */
+    public boolean encodeLater(String raw, Executor executor, Consumer<String> onEncoded) {
+        try {
+            submit(encodeTimer, () -> passwordEncoder.encode(raw)).thenAcceptAsync(onEncoded, executor);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /** True when {@code encoded} was hashed at a BCrypt cost other than the configured one. */
+    public boolean needsRehash(String encoded) {
+        // $2a$10$... : the cost is the two digits after the version
+        if (encoded == null || encoded.length() < 7 || encoded.charAt(0) != '$' || encoded.charAt(3) != '$') {
+            return passwordEncoder.upgradeEncoding(encoded);
+        }
+        try {
+            return Integer.parseInt(encoded.substring(4, 6)) != strength;
+        } catch (NumberFormatException e) {
+            return passwordEncoder.upgradeEncoding(encoded);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> hash) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return timer.record(hash);
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            rejected.increment();
+            throw new RejectedExecutionException("Password hashing timed out", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.technican.restservice.security;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the caller's role ({@link AuthenticatedUser#metricsRole}) to the standard
+ * {@code http.server.requests} timer, next to its uri, method, status and outcome tags.
+ * The role is read from the request attribute {@link JwtAuthFilter} sets, since the
+ * security context is already cleared when the request's timer stops.
+ */
+@Component
+public class RoleRequestObservationConvention extends DefaultServerRequestObservationConvention {
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        AuthenticatedUser user = (AuthenticatedUser) context.getCarrier().getAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE);
+        return super.getLowCardinalityKeyValues(context).and(KeyValue.of("role", AuthenticatedUser.metricsRole(user)));
+    }
+}
@@ -0,0 +1,32 @@
+package com.technican.restservice.service;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.technican.restservice.model.Job;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * A JSON array of jobs written from their cached JSON (see {@link JobJsonCache}) as the
+ * response goes out, element by element. Controllers return it as a response body; other
+ * formats (CBOR) serialize it as the plain list of jobs.
+ */
+public record EncodedJobs(List<Job> jobs, JobJsonCache cache) {
+    @JsonValue
+    @Override
+    public List<Job> jobs() {
+        return jobs;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write('[');
+        for (int i = 0; i < jobs.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(cache.json(jobs.get(i)));
+        }
+        out.write(']');
+    }
+}
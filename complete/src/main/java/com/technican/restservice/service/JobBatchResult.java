@@ -0,0 +1,14 @@
+package com.technican.restservice.service;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk job import. {@code errors} lists rejected items by their
+ * position in the request, capped at {@link #MAX_REPORTED_ERRORS}; {@code failed}
+ * is always the full count.
+ */
+public record JobBatchResult(int received, int created, int failed, List<ItemError> errors) {
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    public record ItemError(int index, String error) {}
+}
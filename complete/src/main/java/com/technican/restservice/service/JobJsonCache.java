@@ -0,0 +1,80 @@
+package com.technican.restservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.technican.restservice.event.JobChangedEvent;
+import com.technican.restservice.model.Job;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Each job's JSON, serialized once by the application's {@link ObjectMapper} and kept as
+ * UTF-8 bytes, so job listings copy bytes instead of running Jackson per element. Bounded
+ * by {@code jobs.json-cache.max-entries}.
+ *
+ * <p>An entry is only used for the job version it was made from; every update bumps the
+ * version, so a job read before a change can never be answered with bytes of another state,
+ * whatever order reads, writes and evictions happen in. Entries are also evicted from
+ * {@link JobChangedEvent}s, which keeps the cache free of versions nobody will ask for.
+ *
+ * <p>Hit/miss counts are published as {@code cache.gets{cache=jobJson}}.
+ */
+@Component
+public class JobJsonCache {
+    private record Encoded(long version, byte[] json) {}
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Encoded> encoded;
+
+    public JobJsonCache(ObjectMapper objectMapper,
+                        @Value("${jobs.json-cache.max-entries:100000}") long maxEntries,
+                        MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.encoded = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, encoded, "jobJson");
+    }
+
+    /** The job's JSON; shared, so callers must not modify it. */
+    public byte[] json(Job job) {
+        if (job.getId() == null || job.getVersion() == null) {
+            return serialize(job);
+        }
+        Encoded cached = encoded.getIfPresent(job.getId());
+        if (cached != null && cached.version() == job.getVersion()) {
+            return cached.json();
+        }
+        byte[] json = serialize(job);
+        encoded.put(job.getId(), new Encoded(job.getVersion(), json));
+        return json;
+    }
+
+    /** The jobs as a JSON array response body. */
+    public EncodedJobs encode(List<Job> jobs) {
+        return new EncodedJobs(jobs, this);
+    }
+
+    // fallbackExecution: changes made outside a transaction (e.g. the in-memory store) evict immediately
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobChanged(JobChangedEvent event) {
+        encoded.invalidate(event.jobId());
+    }
+
+    private byte[] serialize(Job job) {
+        try {
+            return objectMapper.writeValueAsBytes(job);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.technican.restservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.technican.restservice.event.JobChangedEvent;
+import com.technican.restservice.model.Job;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of the job lists behind {@code GET /jobs/my}, one entry per
+ * technician and per customer, bounded by {@code jobs.cache.max-entries}.
+ *
+ * <p>Entries are invalidated from {@link JobChangedEvent}s once the change has committed:
+ * the job's customer, its technician and, on reassignment, its previous technician.
+ * A load racing with an invalidation cannot leave a stale entry behind: Caffeine makes
+ * the invalidation wait for the in-flight load of that key and then removes its result.
+ *
+ * <p>Hit/miss counts are published as {@code cache.gets{cache=jobLists}}.
+ */
+@Component
+public class JobListCache {
+    /** Listener order of the eviction; listeners that must observe an evicted cache run after it. */
+    public static final int EVICTION_ORDER = 0;
+
+    private enum Owner { TECHNICIAN, CUSTOMER }
+
+    private record Key(Owner owner, Long id) {}
+
+    private final Cache<Key, List<Job>> lists;
+
+    public JobListCache(@Value("${jobs.cache.max-entries:10000}") long maxEntries, MeterRegistry meterRegistry) {
+        this.lists = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, lists, "jobLists");
+    }
+
+    public List<Job> technicianJobs(Long technicianId, Function<Long, List<Job>> loader) {
+        return get(new Key(Owner.TECHNICIAN, technicianId), loader);
+    }
+
+    public List<Job> customerJobs(Long customerId, Function<Long, List<Job>> loader) {
+        return get(new Key(Owner.CUSTOMER, customerId), loader);
+    }
+
+    // fallbackExecution: changes made outside a transaction (e.g. the in-memory store) evict immediately
+    @Order(EVICTION_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobChanged(JobChangedEvent event) {
+        evict(Owner.CUSTOMER, event.customerId());
+        evict(Owner.TECHNICIAN, event.technicianId());
+        evict(Owner.TECHNICIAN, event.previousTechnicianId());
+    }
+
+    private List<Job> get(Key key, Function<Long, List<Job>> loader) {
+        if (key.id() == null) {
+            return loader.apply(null);
+        }
+        return lists.get(key, k -> List.copyOf(loader.apply(k.id())));
+    }
+
+    private void evict(Owner owner, Long id) {
+        if (id != null) {
+            lists.invalidate(new Key(owner, id));
+        }
+    }
+}
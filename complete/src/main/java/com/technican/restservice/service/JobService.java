@@ -1,21 +1,126 @@
 package com.technican.restservice.service;
 
+import com.technican.restservice.datasource.ReplicaReads;
+import com.technican.restservice.event.JobChangedEvent;
 import com.technican.restservice.model.Job;
 import com.technican.restservice.model.JobStatus;
-import com.technican.restservice.repository.JobRepositoryJpa;
+import com.technican.restservice.model.Role;
+import com.technican.restservice.repository.JobBatchUpdates.StatusChange;
+import com.technican.restservice.repository.JobQuery;
+import com.technican.restservice.repository.JobStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import java.time.LocalDateTime;
 
 @Service
 public class JobService {
     @Autowired
-    private JobRepositoryJpa jobRepository;
+    private JobStore jobRepository;
     @Autowired
     private com.technican.restservice.service.UserService userService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ApplicationEventPublisher events;
+    @Autowired
+    private JobListCache jobListCache;
+    @Autowired
+    private ReplicaReads replicaReads;
+    @Value("${jobs.batch.chunk-size:500}")
+    private int batchChunkSize;
 
     public Job createJob(Job job) {
+        prepareNewJob(job);
+        Job created = jobRepository.save(job);
+        events.publishEvent(JobChangedEvent.created(created));
+        return created;
+    }
+
+    /**
+     * Imports jobs in chunks of {@code jobs.batch.chunk-size}, each inserted as JDBC
+     * batches in its own transaction. Items are validated like {@link #createJob(Job)};
+     * invalid ones are reported by index and skipped. Reading stops at the first item
+     * the source cannot parse, keeping the chunks already committed.
+     */
+    public JobBatchResult createJobs(Iterator<Job> source) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<Job> chunk = new ArrayList<>(batchChunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(batchChunkSize);
+        List<JobBatchResult.ItemError> errors = new ArrayList<>();
+        int received = 0;
+        int created = 0;
+        int failed = 0;
+        while (true) {
+            Job job;
+            try {
+                if (!source.hasNext()) {
+                    break;
+                }
+                job = source.next();
+            } catch (RuntimeException e) {
+                failed++;
+                addError(errors, received, "Malformed job, import stopped: " + e.getMessage());
+                break;
+            }
+            int index = received++;
+            try {
+                prepareNewJob(job);
+            } catch (IllegalArgumentException e) {
+                failed++;
+                addError(errors, index, e.getMessage());
+                continue;
+            }
+            chunk.add(job);
+            chunkIndexes.add(index);
+            if (chunk.size() == batchChunkSize) {
+                int inserted = insertChunk(transaction, chunk, chunkIndexes, errors);
+                created += inserted;
+                failed += chunk.size() - inserted;
+                chunk.clear();
+                chunkIndexes.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            int inserted = insertChunk(transaction, chunk, chunkIndexes, errors);
+            created += inserted;
+            failed += chunk.size() - inserted;
+        }
+        return new JobBatchResult(received, created, failed, errors);
+    }
+
+    private int insertChunk(TransactionTemplate transaction, List<Job> chunk, List<Integer> indexes, List<JobBatchResult.ItemError> errors) {
+        try {
+            transaction.executeWithoutResult(status -> jobRepository.insertAll(chunk));
+            for (Job job : chunk) {
+                events.publishEvent(JobChangedEvent.created(job));
+            }
+            return chunk.size();
+        } catch (DataAccessException e) {
+            for (Integer index : indexes) {
+                addError(errors, index, "Chunk rolled back: " + e.getMostSpecificCause().getMessage());
+            }
+            return 0;
+        }
+    }
+
+    private static void addError(List<JobBatchResult.ItemError> errors, int index, String message) {
+        if (errors.size() < JobBatchResult.MAX_REPORTED_ERRORS) {
+            errors.add(new JobBatchResult.ItemError(index, message));
+        }
+    }
+
+    private void prepareNewJob(Job job) {
         // Input validation: customerId and serviceType must not be null/empty
         if (job.getCustomerId() == null) {
             throw new IllegalArgumentException("customerId is required");
@@ -23,50 +128,155 @@ public class JobService {
         if (job.getServiceType() == null || job.getServiceType().isBlank()) {
             throw new IllegalArgumentException("serviceType is required");
         }
+        job.setId(null);
+        job.setVersion(null);
         job.setCreatedAt(LocalDateTime.now());
         job.setStatus(JobStatus.SCHEDULED);
-        return jobRepository.save(job);
     }
 
     public Optional<Job> findById(Long id) {
         return jobRepository.findById(id);
     }
 
+    // The listings below read from the replica, if one is configured; see ReplicaReads
     public List<Job> findAll() {
-        return jobRepository.findAll();
+        return replicaReads.query(null, jobRepository::findAll);
     }
 
+    // GET /jobs pages carry an ETag from JobVersions, so they read the primary for a while after any change
+    public List<Job> findPage(JobQuery query, int limit) {
+        return replicaReads.queryAllJobs(() -> jobRepository.findPage(query, limit));
+    }
+
+    /**
+     * Feeds every job matching the query to {@code sink} while the rows are read,
+     * so the full result is never held in memory.
+     */
+    @Transactional(readOnly = true)
+    public void streamJobs(JobQuery query, Consumer<Job> sink) {
+        // The transaction takes its connection at the first query, inside this scope
+        replicaReads.query(null, () -> {
+            try (Stream<Job> jobs = jobRepository.streamAll(query)) {
+                jobs.forEach(sink);
+            }
+            return null;
+        });
+    }
+
+    // Served from JobListCache; mutations below publish the JobChangedEvents that invalidate it
     public List<Job> findByTechnicianId(Long technicianId) {
-        return jobRepository.findByTechnicianId(technicianId);
+        return jobListCache.technicianJobs(technicianId,
+                id -> replicaReads.query(id, () -> jobRepository.findByTechnicianId(id)));
     }
 
     public List<Job> findByCustomerId(Long customerId) {
-        return jobRepository.findByCustomerId(customerId);
+        return jobListCache.customerJobs(customerId,
+                id -> replicaReads.query(id, () -> jobRepository.findByCustomerId(id)));
     }
 
-    public void updateJobStatus(Long id, JobStatus status) {
-        Job job = jobRepository.findById(id).orElse(null);
-        if (job != null) {
-            job.setStatus(status);
-            jobRepository.save(job);
+    /**
+     * Moves a job one step along {@link JobStatus} with a single conditional UPDATE, so of
+     * two concurrent identical transitions exactly one succeeds. Requesting the status the
+     * job already has is a no-op; any other transition throws {@link IllegalStateException}.
+     * Returns the job as updated, or empty if it does not exist.
+     */
+    @Transactional
+    public Optional<Job> updateJobStatus(Long id, JobStatus status) {
+        JobStatus expected = status.requiredPrevious();
+        if (expected != null && jobRepository.updateStatus(id, expected, status) == 1) {
+            // Read back in the same transaction for the event; the UPDATE holds the row lock
+            Job job = jobRepository.findById(id).orElseThrow();
+            events.publishEvent(JobChangedEvent.statusChanged(job, expected));
+            return Optional.of(job);
+        }
+        Optional<Job> current = jobRepository.findById(id);
+        if (current.isPresent() && current.get().getStatus() != status) {
+            throw new IllegalStateException("Job is " + current.get().getStatus() + " and cannot move to " + status);
+        }
+        return current;
+    }
+
+    /** A status to move a job to, and the user on whose behalf it moves. */
+    public record StatusAdvance(JobStatus status, Long actorId) {}
+
+    /**
+     * Moves the jobs forward to the statuses {@code target} picks for them, with the
+     * UPDATEs sent as one JDBC batch in one transaction. Unlike {@link #updateJobStatus}, a
+     * job may skip steps; a target that is null or not after the job's current status is
+     * ignored. Each UPDATE is conditional on the status read, so a job changed concurrently
+     * keeps the other writer's change. Returns the number of jobs changed.
+     */
+    @Transactional
+    public int advanceStatuses(Collection<Long> ids, Function<Job, StatusAdvance> target) {
+        List<Job> candidates = new ArrayList<>();
+        List<StatusChange> changes = new ArrayList<>();
+        List<Long> actors = new ArrayList<>();
+        for (Job job : jobRepository.findAllById(ids)) {
+            StatusAdvance advance = target.apply(job);
+            if (advance != null && advance.status().isAfter(job.getStatus())) {
+                candidates.add(job);
+                changes.add(new StatusChange(job.getId(), job.getStatus(), advance.status()));
+                actors.add(advance.actorId());
+            }
+        }
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        int[] counts = jobRepository.updateStatuses(changes);
+        int changed = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                Job job = candidates.get(i);
+                JobStatus previous = job.getStatus();
+                job.setStatus(changes.get(i).status());
+                job.setVersion(versionOf(job) + 1);
+                events.publishEvent(JobChangedEvent.statusChanged(job, previous, actors.get(i)));
+                changed++;
+            }
         }
+        return changed;
     }
 
+    @Transactional
     public void assignTechnician(Long jobId, Long technicianId) {
+        assignTechnician(jobId, technicianId, null);
+    }
+
+    /**
+     * Assigns the technician unless the job changed since {@code expectedVersion} (the version
+     * the caller last saw) or, when that is null, since it was read here. A concurrent change
+     * makes this throw {@link OptimisticLockingFailureException} instead of being overwritten.
+     */
+    @Transactional
+    public void assignTechnician(Long jobId, Long technicianId, Long expectedVersion) {
         // Validate technician exists and has TECHNICIAN role
-        var userOpt = userService.findById(technicianId);
-        if (userOpt.isEmpty() || userOpt.get().getRoles() == null ||
-            userOpt.get().getRoles().stream().noneMatch(r -> r == com.technican.restservice.model.Role.TECHNICIAN)) {
+        if (!userService.hasRole(technicianId, Role.TECHNICIAN)) {
             throw new IllegalArgumentException("Technician does not exist or does not have TECHNICIAN role");
         }
         Job job = jobRepository.findById(jobId).orElse(null);
         if (job != null) {
+            long version = expectedVersion != null ? expectedVersion : versionOf(job);
+            if (jobRepository.updateTechnician(jobId, version, technicianId) == 0) {
+                throw new OptimisticLockingFailureException("Job " + jobId + " was modified concurrently");
+            }
+            Long previous = job.getTechnicianId();
+            // The version matched, so the rest of the job is as read
             job.setTechnicianId(technicianId);
-            jobRepository.save(job);
+            job.setVersion(version + 1);
+            events.publishEvent(JobChangedEvent.assigned(job, previous));
         }
     }
 
+    // Rows stored before the version column was required may still lack one; the updates count it as 0
+    private static long versionOf(Job job) {
+        return job.getVersion() != null ? job.getVersion() : 0L;
+    }
+
+    @Transactional
     public void deleteJob(Long id) {
-        jobRepository.deleteById(id);
+        jobRepository.findById(id).ifPresent(job -> {
+            jobRepository.deleteById(id);
+            events.publishEvent(JobChangedEvent.deleted(job));
+        });
     }
 }
@@ -0,0 +1,124 @@
+package com.technican.restservice.service;
+
+import com.technican.restservice.cluster.ClusterBus;
+import com.technican.restservice.event.JobChangedEvent;
+import com.technican.restservice.event.OrderedJobChange;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+import java.util.zip.CRC32;
+
+/**
+ * Versions of the job collections clients poll: all jobs, and the jobs of each
+ * technician and customer. A version moves after every committed change to its
+ * collection, so an ETag built from it identifies the collection's content
+ * without querying it. The ETags are weak: one version is served in several
+ * representations (JSON or CBOR, compressed or not), and Tomcat does not compress
+ * responses with a strong ETag.
+ *
+ * <p>On a single instance a version is the number of the collection's last change
+ * since start, and the ETags carry the boot time as well. When the cluster bus orders
+ * its messages, a version is the bus position of the last change instead and the ETags
+ * carry the bus's epoch, so every node gives a collection the same ETag and a client may
+ * revalidate on any of them. Between a change and its arrival in that order, the node
+ * serves an ETag of its own for the collection, which no other node can match.
+ *
+ * <p>Callers must read the ETag <em>before</em> loading the collection: a response
+ * loaded just before a concurrent change then carries the older version, and the
+ * next poll sees the bump and refetches.
+ */
+@Component
+public class JobVersions {
+    private final boolean clustered;
+    private final String epoch;
+    // Tells this node's ETags for changes not yet in the bus order from other nodes'
+    private final String node = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    // Changes seen here: their numbers on a single instance, in a cluster only the ETags' own part
+    private final AtomicLong changes = new AtomicLong();
+    private final Version initial;
+    private final AtomicReference<Version> all;
+    private final Map<Long, Version> technicians = new ConcurrentHashMap<>();
+    private final Map<Long, Version> customers = new ConcurrentHashMap<>();
+
+    public JobVersions(ClusterBus bus) {
+        this.clustered = bus.epoch() != null;
+        this.epoch = clustered ? bus.epoch() : Long.toString(System.currentTimeMillis(), 36);
+        // Changes from before this node joined are in what it loads, whatever their position
+        this.initial = new Version(bus.joinedAt(), 0, 0);
+        this.all = new AtomicReference<>(initial);
+    }
+
+    /** ETag of one listing of all jobs; {@code query} identifies its filters, sort and cursor. */
+    public String allJobsETag(Object query) {
+        CRC32 checksum = new CRC32();
+        checksum.update(String.valueOf(query).getBytes(StandardCharsets.UTF_8));
+        return "W/\"" + epoch + "-a" + all.get().tag(node) + "-" + Long.toString(checksum.getValue(), 36) + "\"";
+    }
+
+    public String technicianJobsETag(Long technicianId) {
+        return "W/\"" + epoch + "-t" + technicianId + "-" + version(technicians, technicianId).tag(node) + "\"";
+    }
+
+    public String customerJobsETag(Long customerId) {
+        return "W/\"" + epoch + "-c" + customerId + "-" + version(customers, customerId).tag(node) + "\"";
+    }
+
+    // Runs after JobListCache has evicted, so a poll that sees the new version cannot be served the old cached list.
+    // fallbackExecution: changes made outside a transaction (e.g. the in-memory store) bump immediately
+    @Order(JobListCache.EVICTION_ORDER + 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobChanged(JobChangedEvent event) {
+        long change = changes.incrementAndGet();
+        // In a cluster the position follows in onOrderedJobChange, for this node's changes and the others' alike
+        apply(event, clustered ? version -> version.pending(change) : version -> new Version(change, 0, 0));
+    }
+
+    @Order(JobListCache.EVICTION_ORDER + 1)
+    @EventListener
+    public void onOrderedJobChange(OrderedJobChange ordered) {
+        apply(ordered.change(), version -> version.ordered(ordered.position()));
+    }
+
+    private void apply(JobChangedEvent event, UnaryOperator<Version> change) {
+        all.updateAndGet(change);
+        update(customers, event.customerId(), change);
+        update(technicians, event.technicianId(), change);
+        if (event.previousTechnicianId() != null && !event.previousTechnicianId().equals(event.technicianId())) {
+            update(technicians, event.previousTechnicianId(), change);
+        }
+    }
+
+    private Version version(Map<Long, Version> versions, Long id) {
+        return versions.getOrDefault(id, initial);
+    }
+
+    private void update(Map<Long, Version> versions, Long id, UnaryOperator<Version> change) {
+        if (id != null) {
+            versions.compute(id, (key, version) -> change.apply(version == null ? initial : version));
+        }
+    }
+
+    // The position of a collection's last change in order, and how many changes since are yet to
+    // take their place there, the latest of them numbered change
+    private record Version(long position, int pending, long change) {
+        Version pending(long change) {
+            return new Version(position, pending + 1, change);
+        }
+
+        Version ordered(long position) {
+            return new Version(position, Math.max(0, pending - 1), change);
+        }
+
+        String tag(String node) {
+            return pending == 0 ? Long.toString(position) : position + "." + node + "." + change;
+        }
+    }
+}
@@ -1,22 +1,53 @@
 package com.technican.restservice.service;
 
+import com.technican.restservice.datasource.ReplicaReads;
+import com.technican.restservice.event.UserChangedEvent;
+import com.technican.restservice.model.Role;
 import com.technican.restservice.model.User;
-import com.technican.restservice.repository.UserRepositoryJpa;
+import com.technican.restservice.repository.UserStore;
 import com.technican.restservice.security.JwtUtil;
+import com.technican.restservice.security.PasswordHashingPool;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class UserService {
     @Autowired
-    private UserRepositoryJpa userRepository;
+    private UserStore userRepository;
 
     @Autowired
     private JwtUtil jwtUtil;
 
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private PasswordHashingPool passwordHashing;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    @Autowired
+    private ReplicaReads replicaReads;
+    // Writes rehashed passwords, off the hashing pool
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
+    // auth.password.check by result: what a login waits for, queueing for the hashing pool included
+    private final Timer passwordMatched;
+    private final Timer passwordMismatched;
+    private final Timer passwordRejected;
+
+    public UserService(MeterRegistry meterRegistry) {
+        this.passwordMatched = Timer.builder("auth.password.check").tag("result", "match").register(meterRegistry);
+        this.passwordMismatched = Timer.builder("auth.password.check").tag("result", "mismatch").register(meterRegistry);
+        this.passwordRejected = Timer.builder("auth.password.check").tag("result", "rejected").register(meterRegistry);
+    }
 
     public User registerUser(User user) {
         // Input validation: username and password must not be null/empty
@@ -26,12 +57,48 @@ public class UserService {
         if (user.getPassword() == null || user.getPassword().isBlank()) {
             throw new IllegalArgumentException("Password is required");
         }
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        user.setPassword(passwordHashing.encode(user.getPassword()));
+        User saved = userRepository.save(user);
+        events.publishEvent(UserChangedEvent.registered(saved));
+        return saved;
+    }
+
+    /**
+     * Returns the user if the password matches. A hash made at an outdated BCrypt cost
+     * is replaced in the background after a successful check, so cost changes roll out
+     * as users log in.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException if the hashing pool is saturated
+     */
+    public Optional<User> authenticate(String username, String password) {
+        Optional<User> user = userRepository.findByUsername(username);
+        if (user.isEmpty() || password == null || !checkPassword(password, user.get().getPassword())) {
+            return Optional.empty();
+        }
+        String current = user.get().getPassword();
+        if (passwordHashing.needsRehash(current)) {
+            Long id = user.get().getId();
+            passwordHashing.encodeLater(password, taskExecutor, rehashed -> userRepository.updatePassword(id, current, rehashed));
+        }
+        return user;
     }
 
+    // From the replica, if one is configured; login (authenticate) stays on the primary
     public Optional<User> findByUsername(String username) {
-        return userRepository.findByUsername(username);
+        return replicaReads.query(null, () -> userRepository.findByUsername(username));
+    }
+
+    public boolean usernameExists(String username) {
+        return userRepository.existsByUsername(username);
+    }
+
+    // Single COUNT query; avoids loading every user (and their roles) just to test for emptiness
+    public boolean hasUsers() {
+        return userRepository.count() > 0;
+    }
+
+    public boolean hasRole(Long id, Role role) {
+        return userRepository.hasRole(id, role);
     }
 
     public Optional<User> findById(Long id) {
@@ -42,12 +109,30 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    public List<User> findAllById(Collection<Long> ids) {
+        return userRepository.findAllById(ids);
+    }
+
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        events.publishEvent(UserChangedEvent.deleted(id));
+    }
+
+    public List<User> findByRole(Role role) {
+        return userRepository.findByRole(role);
     }
 
     public boolean checkPassword(String raw, String encoded) {
-        return passwordEncoder.matches(raw, encoded);
+        long start = System.nanoTime();
+        // Until the pool answers, the check counts as rejected
+        Timer timer = passwordRejected;
+        try {
+            boolean matches = passwordHashing.matches(raw, encoded);
+            timer = matches ? passwordMatched : passwordMismatched;
+            return matches;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     public JwtUtil getJwtUtil() {
@@ -0,0 +1,106 @@
+package com.technican.restservice.warmup;
+
+import com.technican.restservice.model.JobStatus;
+import com.technican.restservice.security.JwtUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Warms a freshly started instance before it reports ready: the readiness probe only turns
+ * to {@code ACCEPTING_TRAFFIC} once every {@link ApplicationReadyEvent} listener has
+ * returned, so the first real requests do not pay for cold database pages and interpreted
+ * code.
+ *
+ * <p>It first pages through the job list in creation order and per status, up to
+ * {@code warmup.max-rows} rows each, which pulls the table and its indexes into the
+ * database cache. Then it sends {@code warmup.requests} read-only requests through the full
+ * HTTP, security and controller stack, enough for the JIT to compile the hot paths. Nothing
+ * is changed. Disabled when {@code warmup.requests} is 0 (the default) or there is no web
+ * server; failures only end the warm-up early.
+ */
+@Component
+public class StartupWarmup {
+    private static final int PAGE_SIZE = 1000;
+    private static final String[] REQUESTS = {
+            "/jobs?limit=100",
+            "/jobs?status=SCHEDULED&limit=100",
+            "/jobs?sort=id&order=desc&limit=100",
+            "/jobs/analytics",
+    };
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final int requests;
+    private final int maxRows;
+    private final Counter sent;
+
+    public StartupWarmup(@Value("${warmup.requests:0}") int requests,
+                         @Value("${warmup.max-rows:100000}") int maxRows,
+                         MeterRegistry meterRegistry) {
+        this.requests = requests;
+        this.maxRows = maxRows;
+        this.sent = Counter.builder("warmup.requests").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp(ApplicationReadyEvent event) {
+        if (requests <= 0 || !(event.getApplicationContext() instanceof WebServerApplicationContext web)) {
+            return;
+        }
+        String base = "http://localhost:" + web.getWebServer().getPort();
+        // Never stored anywhere; it expires with the rest of the tokens
+        String token = jwtUtil.generateToken(0L, "warmup", Set.of("ADMIN"));
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        try {
+            page(client, base, "/jobs?sort=createdAt", token);
+            for (JobStatus status : JobStatus.values()) {
+                page(client, base, "/jobs?status=" + status, token);
+            }
+            for (int i = 0; i < requests; i++) {
+                get(client, base + REQUESTS[i % REQUESTS.length], token);
+            }
+        } catch (IOException e) {
+            // Best effort; the instance works, only colder
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Follows the next-page cursor until maxRows rows were read or the list ends
+    private void page(HttpClient client, String base, String query, String token) throws IOException, InterruptedException {
+        String uri = base + query + "&limit=" + PAGE_SIZE;
+        for (int rows = 0; rows < maxRows; rows += PAGE_SIZE) {
+            Optional<String> next = get(client, uri, token).headers().firstValue("X-Next-Cursor");
+            if (next.isEmpty()) {
+                return;
+            }
+            uri = base + query + "&limit=" + PAGE_SIZE + "&cursor=" + next.get();
+        }
+    }
+
+    private HttpResponse<Void> get(HttpClient client, String uri, String token) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        sent.increment();
+        return response;
+    }
+}
@@ -0,0 +1,42 @@
+-- Schema of the entities in com.technican.restservice.model as of the first versioned release.
+-- Later entity changes need a new V<n>__*.sql here: the prod profile only validates the mapping.
+
+create sequence job_seq start with 1 increment by 50;
+
+create table jobs (
+    id bigint not null,
+    customer_id bigint not null,
+    service_type varchar(255) not null,
+    technician_id bigint,
+    status enum ('COMPLETED', 'IN_PROGRESS', 'SCHEDULED'),
+    created_at timestamp(6),
+    version bigint,
+    primary key (id)
+);
+
+-- GET /jobs/my: jobs of one technician or customer, newest listed by createdAt
+create index idx_jobs_technician_created on jobs (technician_id, created_at);
+create index idx_jobs_customer_created on jobs (customer_id, created_at);
+-- GET /jobs?status=...: status filter combined with the keyset order
+create index idx_jobs_status_created on jobs (status, created_at, id);
+-- GET /jobs keyset pagination on (createdAt, id)
+create index idx_jobs_created_id on jobs (created_at, id);
+
+create table users (
+    id bigint generated by default as identity,
+    username varchar(255) not null unique,
+    password varchar(255) not null,
+    contact_info varchar(255),
+    address varchar(255),
+    primary key (id)
+);
+
+create table user_roles (
+    user_id bigint not null references users,
+    role enum ('ADMIN', 'CUSTOMER', 'SCHEDULER', 'TECHNICIAN')
+);
+
+create table user_skills (
+    user_id bigint not null references users,
+    skill varchar(255)
+);
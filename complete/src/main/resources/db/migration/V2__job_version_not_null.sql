@@ -0,0 +1,6 @@
+-- Job.version is read as a number by JobService and compared by the conditional updates, which
+-- a NULL never matches: give rows from before it was set a version, and require one from now on.
+
+update jobs set version = 0 where version is null;
+alter table jobs alter column version set default 0;
+alter table jobs alter column version set not null;
@@ -0,0 +1,117 @@
+package com.technican.restservice.analytics;
+
+import com.technican.restservice.model.Job;
+import com.technican.restservice.model.JobStatus;
+import com.technican.restservice.model.Role;
+import com.technican.restservice.model.User;
+import com.technican.restservice.repository.JobStore;
+import com.technican.restservice.repository.UserStore;
+import com.technican.restservice.service.JobService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The incrementally maintained counts must always equal a full recount of the jobs in the
+ * store, both after a random mix of changes and after rebuilding from the database.
+ */
+@SpringBootTest
+public class JobAnalyticsTests {
+    private static final String[] SERVICE_TYPES = {"AC Repair", "Plumbing", "Inspection"};
+
+    @Autowired
+    private JobAnalytics jobAnalytics;
+    @Autowired
+    private JobService jobService;
+    @Autowired
+    private JobStore jobRepository;
+    @Autowired
+    private UserStore userRepository;
+
+    @AfterEach
+    public void cleanup() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testCountsMatchFullRecount() {
+        Random random = new Random(19);
+        List<Long> technicians = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            technicians.add(userRepository.save(new User(null, "analytics_tech_" + System.nanoTime(), "hash", Set.of(Role.TECHNICIAN), null, null)).getId());
+        }
+        List<Long> jobs = new ArrayList<>();
+        // Jobs from earlier days reach the counts only by rebuilding from the database
+        for (int i = 0; i < 30; i++) {
+            Job job = new Job(null, 5_000L + i, SERVICE_TYPES[i % SERVICE_TYPES.length], technicians.get(i % 3),
+                    JobStatus.values()[i % 3], LocalDateTime.now().minusDays(1 + i % 4));
+            jobs.add(jobRepository.save(job).getId());
+        }
+        jobAnalytics.reload();
+        assertMatchesRecount();
+
+        for (int i = 0; i < 30; i++) {
+            jobs.add(jobService.createJob(new Job(null, 6_000L + i, SERVICE_TYPES[random.nextInt(SERVICE_TYPES.length)], null, null, null)).getId());
+        }
+        for (int step = 0; step < 200; step++) {
+            Long jobId = jobs.get(random.nextInt(jobs.size()));
+            Job job = jobService.findById(jobId).orElse(null);
+            if (job == null) {
+                continue;
+            }
+            switch (random.nextInt(10)) {
+                case 0 -> jobService.deleteJob(jobId);
+                case 1, 2, 3 -> jobService.assignTechnician(jobId, technicians.get(random.nextInt(technicians.size())));
+                case 4 -> jobService.advanceStatuses(List.of(jobId), j -> new JobService.StatusAdvance(JobStatus.COMPLETED, null));
+                default -> {
+                    JobStatus next = job.getStatus() == JobStatus.SCHEDULED ? JobStatus.IN_PROGRESS : JobStatus.COMPLETED;
+                    if (job.getStatus() != JobStatus.COMPLETED) {
+                        jobService.updateJobStatus(jobId, next);
+                    }
+                }
+            }
+        }
+        assertMatchesRecount();
+        jobAnalytics.reload();
+        assertMatchesRecount();
+    }
+
+    private void assertMatchesRecount() {
+        LocalDate from = LocalDate.now().minusDays(10);
+        LocalDate to = LocalDate.now();
+        assertEquals(recount(from, to), jobAnalytics.days(from, to));
+    }
+
+    // The same report computed from every job in the store
+    private List<DailyJobCounts> recount(LocalDate from, LocalDate to) {
+        Map<LocalDate, List<Job>> byDay = new TreeMap<>();
+        for (Job job : jobService.findAll()) {
+            LocalDate day = job.getCreatedAt().toLocalDate();
+            if (!day.isBefore(from) && !day.isAfter(to)) {
+                byDay.computeIfAbsent(day, d -> new ArrayList<>()).add(job);
+            }
+        }
+        List<DailyJobCounts> days = new ArrayList<>();
+        byDay.forEach((day, jobs) -> {
+            Map<JobStatus, Long> byStatus = new HashMap<>();
+            Map<String, Map<JobStatus, Long>> byServiceType = new HashMap<>();
+            Map<Long, Map<JobStatus, Long>> byTechnician = new HashMap<>();
+            for (Job job : jobs) {
+                byStatus.merge(job.getStatus(), 1L, Long::sum);
+                byServiceType.computeIfAbsent(job.getServiceType(), t -> new HashMap<>()).merge(job.getStatus(), 1L, Long::sum);
+                if (job.getTechnicianId() != null) {
+                    byTechnician.computeIfAbsent(job.getTechnicianId(), t -> new HashMap<>()).merge(job.getStatus(), 1L, Long::sum);
+                }
+            }
+            days.add(new DailyJobCounts(day, jobs.size(), byStatus, byServiceType, byTechnician));
+        });
+        return days;
+    }
+}
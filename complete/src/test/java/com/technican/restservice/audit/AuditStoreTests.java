@@ -0,0 +1,109 @@
+package com.technican.restservice.audit;
+
+import com.technican.restservice.event.JobChangedEvent.Type;
+import com.technican.restservice.model.JobStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuditStoreTests {
+    // Ten records per segment
+    private static final int SEGMENT_SIZE = 10 * AuditStore.RECORD_SIZE;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testHistoryFollowsJobAcrossSegmentsAndReopen() throws Exception {
+        List<AuditEntry> first = new ArrayList<>();
+        List<AuditEntry> second = new ArrayList<>();
+        try (AuditStore store = AuditStore.open(directory, SEGMENT_SIZE)) {
+            // Interleaved, so each job's chain skips over the other's records and spans segments
+            for (int i = 0; i < 15; i++) {
+                first.add(entry(1, i));
+                second.add(entry(2, i));
+                store.append(first.get(i));
+                store.append(second.get(i));
+            }
+            assertEquals(first, store.history(1));
+            assertEquals(second, store.history(2));
+            assertEquals(List.of(), store.history(3));
+        }
+        assertTrue(Files.exists(directory.resolve("audit-00000002.seg")));
+        try (AuditStore store = AuditStore.open(directory, SEGMENT_SIZE)) {
+            assertEquals(first, store.history(1));
+            AuditEntry next = entry(2, 15);
+            store.append(next);
+            second.add(next);
+            assertEquals(second, store.history(2));
+        }
+    }
+
+    @Test
+    public void testDropsTornRecord() throws Exception {
+        try (AuditStore store = AuditStore.open(directory, SEGMENT_SIZE)) {
+            store.append(entry(1, 0));
+            store.append(entry(1, 1));
+        }
+        // A crash halfway through writing a third record
+        try (FileChannel file = FileChannel.open(directory.resolve("audit-00000000.seg"), StandardOpenOption.WRITE)) {
+            file.write(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}), 2L * AuditStore.RECORD_SIZE);
+        }
+        try (AuditStore store = AuditStore.open(directory, SEGMENT_SIZE)) {
+            assertEquals(List.of(entry(1, 0), entry(1, 1)), store.history(1));
+            store.append(entry(1, 2));
+        }
+        try (AuditStore store = AuditStore.open(directory, SEGMENT_SIZE)) {
+            assertEquals(List.of(entry(1, 0), entry(1, 1), entry(1, 2)), store.history(1));
+        }
+    }
+
+    @Test
+    public void testPreparesNextSegmentBeforeTheLastFills() throws Exception {
+        try (AuditStore store = AuditStore.open(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < 5; i++) {
+                store.append(entry(1, i));
+            }
+            // Created in the background, so the append that fills the segment need not
+            Path next = directory.resolve("audit-00000001.seg");
+            for (int i = 0; i < 100 && !Files.exists(next); i++) {
+                Thread.sleep(10);
+            }
+            assertTrue(Files.exists(next));
+            for (int i = 5; i < 12; i++) {
+                store.append(entry(1, i));
+            }
+            assertEquals(12, store.history(1).size());
+        }
+        try (AuditStore store = AuditStore.open(directory, SEGMENT_SIZE)) {
+            assertEquals(12, store.history(1).size());
+        }
+    }
+
+    @Test
+    public void testRefusesSecondWriter() throws Exception {
+        AuditStore store = AuditStore.open(directory, SEGMENT_SIZE);
+        try {
+            assertThrows(IllegalStateException.class, () -> AuditStore.open(directory, SEGMENT_SIZE));
+        } finally {
+            store.close();
+        }
+    }
+
+    private static AuditEntry entry(long jobId, int step) {
+        return new AuditEntry(jobId, step == 0 ? Type.CREATED : Type.ASSIGNED, step % 2 == 0 ? 7L : null,
+                step == 0 ? null : JobStatus.SCHEDULED, JobStatus.SCHEDULED,
+                step == 0 ? null : (long) step, (long) step + 1,
+                Instant.ofEpochSecond(1_760_000_000L + step, 123_456_000));
+    }
+}
@@ -0,0 +1,78 @@
+package com.technican.restservice.benchmark;
+
+import com.technican.restservice.audit.AuditEntry;
+import com.technican.restservice.audit.JobAuditLog;
+import com.technican.restservice.event.JobChangedEvent;
+import com.technican.restservice.model.Job;
+import com.technican.restservice.model.JobStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Job history over 100k jobs with ten changes each, in 64 MB segments. Measures:
+ * <ul>
+ *   <li>{@code record}: what a job change pays on top of its UPDATE, the audit listener
+ *       appending the {@link JobChangedEvent}</li>
+ *   <li>{@code history}: reading one job's history through the index and its chain</li>
+ * </ul>
+ * Run with {@code ./gradlew jmh -Pjmh.include=AuditLogBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class AuditLogBenchmark {
+    private static final int JOBS = 100_000;
+    private static final int CHANGES_PER_JOB = 10;
+
+    private Path directory;
+    private JobAuditLog log;
+    private JobChangedEvent[] events;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        directory = Files.createTempDirectory("audit-bench");
+        log = new JobAuditLog(directory.toString(), 64, new SimpleMeterRegistry());
+        events = new JobChangedEvent[JOBS];
+        for (int i = 0; i < JOBS; i++) {
+            Job job = new Job((long) i, 1_000L + i % 500, "Inspection", 7L, JobStatus.IN_PROGRESS, LocalDateTime.now());
+            events[i] = JobChangedEvent.statusChanged(job, JobStatus.SCHEDULED, 42L);
+        }
+        for (int change = 0; change < CHANGES_PER_JOB; change++) {
+            for (JobChangedEvent event : events) {
+                log.onJobChanged(event);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        log.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public void record() {
+        log.onJobChanged(events[next++ % JOBS]);
+    }
+
+    @Benchmark
+    public List<AuditEntry> history() {
+        return log.history((long) (next++ % JOBS));
+    }
+}
@@ -0,0 +1,103 @@
+package com.technican.restservice.benchmark;
+
+import com.technican.restservice.model.Role;
+import com.technican.restservice.security.AuthenticatedUser;
+import com.technican.restservice.security.JwtClaims;
+import com.technican.restservice.security.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authorization cost of each job endpoint's role check, comparing:
+ * <ul>
+ *   <li>{@code reparseToken}: the original handlers, which cut the token out of the
+ *   header and verified it again before comparing role strings</li>
+ *   <li>{@code claimsFromContext}: handlers reading the filter's claims back from the
+ *   security context and comparing role strings</li>
+ *   <li>{@code principalBitmask}: the {@link AuthenticatedUser} principal resolved by
+ *   {@code @AuthenticationPrincipal}, checked with a bitmask</li>
+ * </ul>
+ * Run with {@code ./gradlew jmh -Pjmh.include=AuthorizationBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorizationBenchmark {
+    private static final int DISPATCHERS = AuthenticatedUser.mask(Role.ADMIN, Role.SCHEDULER);
+    private static final int JOB_CREATORS = AuthenticatedUser.mask(Role.ADMIN, Role.SCHEDULER, Role.TECHNICIAN);
+    private static final Long JOB_TECHNICIAN = 42L;
+
+    @Param({"createJob", "listJobs", "myJobs", "updateJobStatus", "assignTechnician", "deleteJob"})
+    public String endpoint;
+
+    private JwtUtil uncached;
+    private String authHeader;
+    private AuthenticatedUser principal;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        uncached = new JwtUtil(0, new SimpleMeterRegistry());
+        authHeader = "Bearer " + uncached.generateToken(JOB_TECHNICIAN, "bench_tech", Set.of("TECHNICIAN"));
+        JwtClaims claims = uncached.parseClaims(authHeader.substring(7));
+        principal = AuthenticatedUser.from(claims);
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        authentication.setDetails(claims);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public boolean reparseToken() {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return false;
+        }
+        JwtClaims claims = uncached.parseClaims(authHeader.substring(7));
+        return allowed(claims.roles(), claims.userId());
+    }
+
+    @Benchmark
+    public boolean claimsFromContext() {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return false;
+        }
+        authHeader.substring(7);
+        JwtClaims claims = (JwtClaims) SecurityContextHolder.getContext().getAuthentication().getDetails();
+        return allowed(claims.roles(), claims.userId());
+    }
+
+    @Benchmark
+    public boolean principalBitmask() {
+        AuthenticatedUser user = principal;
+        return switch (endpoint) {
+            case "createJob" -> user.hasAnyRole(JOB_CREATORS);
+            case "myJobs" -> user.hasRole(Role.TECHNICIAN) || user.hasRole(Role.CUSTOMER);
+            case "updateJobStatus" -> user.hasAnyRole(DISPATCHERS)
+                    || (user.hasRole(Role.TECHNICIAN) && Objects.equals(JOB_TECHNICIAN, user.getUserId()));
+            default -> user.hasAnyRole(DISPATCHERS);
+        };
+    }
+
+    private boolean allowed(Set<String> roles, Long userId) {
+        return switch (endpoint) {
+            case "createJob" -> roles.contains("ADMIN") || roles.contains("TECHNICIAN") || roles.contains("SCHEDULER");
+            case "myJobs" -> roles.contains("TECHNICIAN") || roles.contains("CUSTOMER");
+            case "updateJobStatus" -> roles.contains("ADMIN") || roles.contains("SCHEDULER")
+                    || (roles.contains("TECHNICIAN") && Objects.equals(JOB_TECHNICIAN, userId));
+            default -> roles.contains("ADMIN") || roles.contains("SCHEDULER");
+        };
+    }
+}
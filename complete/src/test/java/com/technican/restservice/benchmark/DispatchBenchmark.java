@@ -0,0 +1,98 @@
+package com.technican.restservice.benchmark;
+
+import com.technican.restservice.dispatch.DispatchIndex;
+import com.technican.restservice.dispatch.GeoPoint;
+import com.technican.restservice.event.JobChangedEvent;
+import com.technican.restservice.model.Job;
+import com.technican.restservice.model.JobStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Auto-dispatch against 50k technicians carrying 1M open jobs between them (about 20
+ * each), spread over a 5° x 10° region with 20 service types, each technician holding
+ * one to three. Measures:
+ * <ul>
+ *   <li>{@code selectNearJob}: choosing a technician for a job at a random point</li>
+ *   <li>{@code selectWithoutLocation}: the least-loaded fallback for jobs without a position</li>
+ *   <li>{@code reassign}: applying the {@link JobChangedEvent} of a reassignment to the workload index</li>
+ * </ul>
+ * Run with {@code ./gradlew jmh -Pjmh.include=DispatchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class DispatchBenchmark {
+    private static final int TECHNICIANS = 50_000;
+    private static final int OPEN_JOBS = 1_000_000;
+    private static final int SERVICE_TYPES = 20;
+    private static final int QUERIES = 4096;
+
+    private DispatchIndex index;
+    private String[] serviceTypes;
+    private GeoPoint[] jobSites;
+    private Job[] jobs;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Generous caps so the 1M jobs leave most technicians eligible
+        index = new DispatchIndex(0.1, 10, 150, 60);
+        Random random = new Random(42);
+        serviceTypes = new String[SERVICE_TYPES];
+        for (int i = 0; i < SERVICE_TYPES; i++) {
+            serviceTypes[i] = "Service " + i;
+        }
+        for (long id = 1; id <= TECHNICIANS; id++) {
+            Set<String> skills = new HashSet<>();
+            int count = 1 + random.nextInt(3);
+            while (skills.size() < count) {
+                skills.add(serviceTypes[random.nextInt(SERVICE_TYPES)]);
+            }
+            index.putTechnician(id, skills, randomSite(random));
+        }
+        // Every open job goes through the same event path as production
+        for (long jobId = 1; jobId <= OPEN_JOBS; jobId++) {
+            Job job = new Job(jobId, 1L, serviceTypes[random.nextInt(SERVICE_TYPES)],
+                    1L + random.nextInt(TECHNICIANS), JobStatus.SCHEDULED, LocalDateTime.now());
+            index.onJobChanged(JobChangedEvent.created(job));
+        }
+        jobSites = new GeoPoint[QUERIES];
+        jobs = new Job[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            jobSites[i] = randomSite(random);
+            jobs[i] = new Job((long) i, 1L, serviceTypes[random.nextInt(SERVICE_TYPES)],
+                    1L + random.nextInt(TECHNICIANS), JobStatus.SCHEDULED, LocalDateTime.now());
+        }
+    }
+
+    @Benchmark
+    public Optional<DispatchIndex.Candidate> selectNearJob() {
+        int i = next++ & (QUERIES - 1);
+        return index.select(serviceTypes[i % SERVICE_TYPES], jobSites[i]);
+    }
+
+    @Benchmark
+    public Optional<DispatchIndex.Candidate> selectWithoutLocation() {
+        int i = next++ & (QUERIES - 1);
+        return index.select(serviceTypes[i % SERVICE_TYPES], null);
+    }
+
+    @Benchmark
+    public void reassign() {
+        Job job = jobs[next++ & (QUERIES - 1)];
+        Long previous = job.getTechnicianId();
+        job.setTechnicianId(1L + (previous % TECHNICIANS));
+        index.onJobChanged(JobChangedEvent.assigned(job, previous));
+    }
+
+    private static GeoPoint randomSite(Random random) {
+        return new GeoPoint(38 + random.nextDouble() * 5, -85 + random.nextDouble() * 10);
+    }
+}
@@ -0,0 +1,159 @@
+package com.technican.restservice.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.technican.restservice.RestServiceApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opens {@code feed.connections} (default 10000) idle {@code GET /jobs/feed} streams
+ * against a real port, reports the JVM thread count before and after, then assigns a
+ * job and measures how long the {@code assigned} event takes to reach every stream.
+ * Client and server share the JVM, so each connection costs two file descriptors;
+ * raise {@code ulimit -n} accordingly. Run with
+ * {@code ./gradlew benchmark --tests '*FeedConnectionBenchmark'}.
+ */
+@Tag("benchmark")
+public class FeedConnectionBenchmark {
+    private static final int CONNECTIONS = Integer.getInteger("feed.connections", 10000);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+
+    @Test
+    public void idleConnectionsAndFanOut() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(RestServiceApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:feed_load;DB_CLOSE_DELAY=-1",
+                "--server.tomcat.max-connections=" + (CONNECTIONS + 100),
+                "--logging.level.root=WARN")) {
+            String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            run(base);
+        }
+    }
+
+    private void run(String base) throws Exception {
+        String adminToken = token(base, register(base, null, "admin", "ADMIN").get("username").asText(), "adminpass");
+        JsonNode tech = register(base, adminToken, "tech", "TECHNICIAN");
+        long techId = tech.get("id").asLong();
+        String techToken = token(base, tech.get("username").asText(), "techpass");
+        String job = send(HttpRequest.newBuilder(URI.create(base + "/jobs"))
+                .header("Authorization", "Bearer " + adminToken)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"customerId\":1,\"serviceType\":\"Feed\"}")));
+        long jobId = objectMapper.readTree(job).get("id").asLong();
+
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        CountDownLatch open = new CountDownLatch(CONNECTIONS);
+        CountDownLatch delivered = new CountDownLatch(CONNECTIONS);
+        AtomicInteger failed = new AtomicInteger();
+        HttpRequest feed = HttpRequest.newBuilder(URI.create(base + "/jobs/feed"))
+                .header("Authorization", "Bearer " + techToken)
+                .header("Accept", "text/event-stream")
+                .GET().build();
+        long connectStart = System.nanoTime();
+        for (int i = 0; i < CONNECTIONS; i++) {
+            // The handler runs once the headers arrive; line subscribers then consume the stream
+            // without a thread per connection on the client side too
+            http.sendAsync(feed, info -> {
+                        open.countDown();
+                        return HttpResponse.BodySubscribers.fromLineSubscriber(new EventCounter(delivered));
+                    })
+                    .exceptionally(e -> {
+                        failed.incrementAndGet();
+                        open.countDown();
+                        delivered.countDown();
+                        return null;
+                    });
+        }
+        if (!open.await(120, TimeUnit.SECONDS)) {
+            System.out.println("[BENCH] feed: only " + (CONNECTIONS - open.getCount()) + " streams opened in 120 s");
+        }
+        double connectSeconds = (System.nanoTime() - connectStart) / 1e9;
+        // Let Tomcat settle into the idle state
+        Thread.sleep(2000);
+        int threadsIdle = ManagementFactory.getThreadMXBean().getThreadCount();
+        System.out.printf("[BENCH] feed: connections=%d opened in %.1f s, failed=%d, JVM threads %d -> %d%n",
+                CONNECTIONS, connectSeconds, failed.get(), threadsBefore, threadsIdle);
+
+        long assignStart = System.nanoTime();
+        send(HttpRequest.newBuilder(URI.create(base + "/jobs/" + jobId + "/assign"))
+                .header("Authorization", "Bearer " + adminToken)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"technicianId\":" + techId + "}")));
+        boolean all = delivered.await(60, TimeUnit.SECONDS);
+        System.out.printf("[BENCH] feed: 'assigned' reached %d/%d streams in %.1f ms%s%n",
+                CONNECTIONS - delivered.getCount(), CONNECTIONS, (System.nanoTime() - assignStart) / 1e6,
+                all ? "" : " (timed out)");
+    }
+
+    private JsonNode register(String base, String adminToken, String prefix, String role) throws Exception {
+        String username = prefix + "_" + System.nanoTime();
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", prefix + "pass", "roles", List.of(role)));
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + "/users"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (adminToken != null) {
+            request.header("Authorization", "Bearer " + adminToken);
+        }
+        return objectMapper.readTree(send(request));
+    }
+
+    private String token(String base, String username, String password) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", password));
+        String response = send(HttpRequest.newBuilder(URI.create(base + "/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+        return objectMapper.readTree(response).get("token").asText();
+    }
+
+    private String send(HttpRequest.Builder request) throws Exception {
+        HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+
+    // Counts the stream as delivered on its first 'event:assigned' line
+    private static final class EventCounter implements Flow.Subscriber<String> {
+        private final CountDownLatch delivered;
+
+        EventCounter(CountDownLatch delivered) {
+            this.delivered = delivered;
+        }
+
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        public void onNext(String line) {
+            if (line.equals("event:assigned")) {
+                delivered.countDown();
+            }
+        }
+
+        public void onError(Throwable throwable) {
+        }
+
+        public void onComplete() {
+        }
+    }
+}
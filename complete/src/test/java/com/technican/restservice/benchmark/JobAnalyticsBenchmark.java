@@ -0,0 +1,93 @@
+package com.technican.restservice.benchmark;
+
+import com.technican.restservice.analytics.DailyJobCounts;
+import com.technican.restservice.analytics.JobAnalytics;
+import com.technican.restservice.event.JobChangedEvent;
+import com.technican.restservice.model.Job;
+import com.technican.restservice.model.JobStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A 30-day dashboard over 1M jobs (about 33k a day), 20 service types and 2000 technicians.
+ * Measures:
+ * <ul>
+ *   <li>{@code query}: {@link JobAnalytics#days} for the 30 days, reading the buckets</li>
+ *   <li>{@code clientSide}: what dashboards did before, the same counts from every job of the listing</li>
+ *   <li>{@code statusChange}: applying one status change's {@link JobChangedEvent} to the counters</li>
+ * </ul>
+ * Run with {@code ./gradlew jmh -Pjmh.include=JobAnalyticsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class JobAnalyticsBenchmark {
+    private static final int JOBS = 1_000_000;
+    private static final int DAYS = 30;
+    private static final int SERVICE_TYPES = 20;
+    private static final int TECHNICIANS = 2_000;
+
+    private JobAnalytics analytics;
+    private List<Job> jobs;
+    private LocalDate from;
+    private LocalDate to;
+    private JobChangedEvent[] changes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        analytics = new JobAnalytics();
+        Random random = new Random(42);
+        to = LocalDate.now();
+        from = to.minusDays(DAYS - 1);
+        jobs = new ArrayList<>(JOBS);
+        for (long id = 0; id < JOBS; id++) {
+            LocalDateTime createdAt = from.plusDays(random.nextInt(DAYS)).atTime(8, 0);
+            Job job = new Job(id, id % 50_000, "Service " + random.nextInt(SERVICE_TYPES),
+                    1L + random.nextInt(TECHNICIANS), JobStatus.values()[random.nextInt(3)], createdAt);
+            jobs.add(job);
+            analytics.onJobChanged(JobChangedEvent.created(job));
+        }
+        // Alternately forward and back, so the counts stay put however long it runs
+        changes = new JobChangedEvent[2];
+        Job job = jobs.get(0);
+        job.setStatus(JobStatus.IN_PROGRESS);
+        changes[0] = JobChangedEvent.statusChanged(job, JobStatus.SCHEDULED, 1L);
+        Job back = new Job(job.getId(), job.getCustomerId(), job.getServiceType(), job.getTechnicianId(), JobStatus.SCHEDULED, job.getCreatedAt());
+        changes[1] = JobChangedEvent.statusChanged(back, JobStatus.IN_PROGRESS, 1L);
+    }
+
+    @Benchmark
+    public List<DailyJobCounts> query() {
+        return analytics.days(from, to);
+    }
+
+    @Benchmark
+    public Map<LocalDate, List<Map<?, Map<JobStatus, Long>>>> clientSide() {
+        Map<LocalDate, List<Map<?, Map<JobStatus, Long>>>> counts = new HashMap<>();
+        for (Job job : jobs) {
+            List<Map<?, Map<JobStatus, Long>>> day = counts.computeIfAbsent(job.getCreatedAt().toLocalDate(),
+                    d -> List.of(new HashMap<String, Map<JobStatus, Long>>(), new HashMap<Long, Map<JobStatus, Long>>()));
+            count(day.get(0), job.getServiceType(), job.getStatus());
+            count(day.get(1), job.getTechnicianId(), job.getStatus());
+        }
+        return counts;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> void count(Map<?, Map<JobStatus, Long>> counts, K key, JobStatus status) {
+        ((Map<K, Map<JobStatus, Long>>) counts).computeIfAbsent(key, k -> new EnumMap<>(JobStatus.class)).merge(status, 1L, Long::sum);
+    }
+
+    @Benchmark
+    public void statusChange() {
+        analytics.onJobChanged(changes[next++ & 1]);
+    }
+}
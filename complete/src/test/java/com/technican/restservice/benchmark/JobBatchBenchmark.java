@@ -0,0 +1,78 @@
+package com.technican.restservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.technican.restservice.security.JwtUtil;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Jobs per second through {@code POST /jobs/batch} at 10k and 100k items,
+ * against one {@code POST /jobs} per job. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+public class JobBatchBenchmark {
+    private static final int SINGLE_POSTS = 2_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    public void batchImport() throws Exception {
+        String token = jwtUtil.generateToken(1L, "bench_scheduler", Set.of("SCHEDULER"));
+        // Warm-up
+        importNdjson(token, 5_000);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < SINGLE_POSTS; i++) {
+            mockMvc.perform(post("/jobs")
+                    .header("Authorization", "Bearer " + token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(Map.of("customerId", 1, "serviceType", "Bench"))))
+                    .andExpect(status().isCreated());
+        }
+        report("POST /jobs x" + SINGLE_POSTS, SINGLE_POSTS, System.nanoTime() - start);
+
+        for (int items : new int[]{10_000, 100_000}) {
+            long elapsed = importNdjson(token, items);
+            report("POST /jobs/batch (" + items + " NDJSON items)", items, elapsed);
+        }
+    }
+
+    private long importNdjson(String token, int items) throws Exception {
+        StringBuilder body = new StringBuilder(items * 48);
+        for (int i = 0; i < items; i++) {
+            body.append("{\"customerId\":").append(1 + i % 500).append(",\"serviceType\":\"Bench\"}\n");
+        }
+        byte[] content = body.toString().getBytes();
+        long start = System.nanoTime();
+        mockMvc.perform(post("/jobs/batch")
+                .header("Authorization", "Bearer " + token)
+                .contentType("application/x-ndjson")
+                .content(content))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(items));
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String label, int jobs, long elapsedNanos) {
+        System.out.printf("[BENCH] %s: %.0f jobs/s (%d ms)%n", label, jobs / (elapsedNanos / 1e9), elapsedNanos / 1_000_000);
+    }
+}
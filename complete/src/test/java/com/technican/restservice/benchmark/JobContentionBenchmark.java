@@ -0,0 +1,154 @@
+package com.technican.restservice.benchmark;
+
+import com.technican.restservice.model.Job;
+import com.technican.restservice.model.JobStatus;
+import com.technican.restservice.model.Role;
+import com.technican.restservice.model.User;
+import com.technican.restservice.repository.UserStore;
+import com.technican.restservice.service.JobService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Concurrent dispatchers against {@link JobService}, checking that no update is lost.
+ * Status: every thread races every job through SCHEDULED → IN_PROGRESS → COMPLETED,
+ * and each step must be won exactly once. Assignment: threads reassign jobs in a
+ * read-version / assign / retry-on-409 loop, from one hot job to many cold ones, and
+ * every successful assignment must show up as exactly one version increment.
+ * Run with {@code ./gradlew benchmark --tests '*JobContentionBenchmark'}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+public class JobContentionBenchmark {
+    private static final int THREADS = Integer.getInteger("contention.threads", 16);
+    private static final int TRANSITION_JOBS = 2_000;
+    private static final int ASSIGNMENTS_PER_THREAD = 500;
+
+    @Autowired
+    private JobService jobService;
+    @Autowired
+    private UserStore userRepository;
+
+    @AfterEach
+    public void cleanup() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void contendedUpdates() throws Exception {
+        List<Long> technicians = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            technicians.add(userRepository.save(new User(null, "contention_tech_" + System.nanoTime(), "hash", Set.of(Role.TECHNICIAN), null, null)).getId());
+        }
+        transitions();
+        for (int hotJobs : new int[]{1, 16, 1024}) {
+            assignments(hotJobs, technicians);
+        }
+    }
+
+    private void transitions() throws Exception {
+        List<Long> jobs = createJobs(TRANSITION_JOBS);
+        AtomicLong rejected = new AtomicLong();
+        long elapsed = race(() -> {
+            // Each thread walks the jobs from a different offset so they collide mid-list too
+            int offset = ThreadLocalRandom.current().nextInt(jobs.size());
+            for (JobStatus step : new JobStatus[]{JobStatus.IN_PROGRESS, JobStatus.COMPLETED}) {
+                for (int i = 0; i < jobs.size(); i++) {
+                    Long id = jobs.get((offset + i) % jobs.size());
+                    try {
+                        jobService.updateJobStatus(id, step);
+                    } catch (IllegalStateException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            }
+        });
+        long attempts = (long) THREADS * jobs.size() * 2;
+        System.out.printf("[BENCH] status transitions: threads=%d jobs=%d attempts=%d in %.0f ms (%.0f attempts/s), rejected=%d%n",
+                THREADS, jobs.size(), attempts, elapsed / 1e6, attempts / (elapsed / 1e9), rejected.get());
+        for (Long id : jobs) {
+            Job job = jobService.findById(id).orElseThrow();
+            assertEquals(JobStatus.COMPLETED, job.getStatus());
+            // Created at 0, then one winning UPDATE per step; the losers changed nothing
+            assertEquals(2L, job.getVersion(), "job " + id + " was transitioned more than once per step");
+        }
+    }
+
+    private void assignments(int hotJobs, List<Long> technicians) throws Exception {
+        List<Long> jobs = createJobs(hotJobs);
+        Map<Long, AtomicLong> succeeded = new ConcurrentHashMap<>();
+        AtomicLong conflicts = new AtomicLong();
+        long elapsed = race(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < ASSIGNMENTS_PER_THREAD; i++) {
+                Long id = jobs.get(random.nextInt(jobs.size()));
+                Long technician = technicians.get(random.nextInt(technicians.size()));
+                while (true) {
+                    long version = jobService.findById(id).orElseThrow().getVersion();
+                    try {
+                        jobService.assignTechnician(id, technician, version);
+                        succeeded.computeIfAbsent(id, k -> new AtomicLong()).incrementAndGet();
+                        break;
+                    } catch (OptimisticLockingFailureException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+            }
+        });
+        long total = (long) THREADS * ASSIGNMENTS_PER_THREAD;
+        System.out.printf("[BENCH] assignments: threads=%d jobs=%-4d %d in %.0f ms (%.0f assignments/s), conflicts retried=%d (%.1f per assignment)%n",
+                THREADS, hotJobs, total, elapsed / 1e6, total / (elapsed / 1e9), conflicts.get(), conflicts.get() / (double) total);
+        long counted = 0;
+        for (Long id : jobs) {
+            long wins = succeeded.getOrDefault(id, new AtomicLong()).get();
+            counted += wins;
+            // No lost update: every acknowledged assignment is one version step
+            assertEquals(wins, jobService.findById(id).orElseThrow().getVersion(), "job " + id + " lost an assignment");
+        }
+        assertEquals(total, counted);
+    }
+
+    private List<Long> createJobs(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(jobService.createJob(new Job(null, 1L, "Contention", null, null, null)).getId());
+        }
+        return ids;
+    }
+
+    private interface Work {
+        void run() throws Exception;
+    }
+
+    // Runs the work on every thread at once and returns the wall time in nanoseconds
+    private static long race(Work work) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            threads.add(pool.submit(() -> {
+                start.await();
+                work.run();
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> thread : threads) {
+            thread.get(10, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - begin;
+        pool.shutdown();
+        return elapsed;
+    }
+}
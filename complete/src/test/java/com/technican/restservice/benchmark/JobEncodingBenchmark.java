@@ -0,0 +1,83 @@
+package com.technican.restservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.technican.restservice.model.Job;
+import com.technican.restservice.model.JobStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON against CBOR for {@code GET /jobs/my} bodies: a technician's day (20 jobs) and a
+ * long backlog (1000). Both mappers are configured like the application's, so the documents
+ * hold the same values. Measures encoding and decoding the list; the sizes, raw and gzipped,
+ * are printed as {@code [BENCH]} lines when each trial starts.
+ * Run with {@code ./gradlew jmh -Pjmh.include=JobEncodingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class JobEncodingBenchmark {
+    private static final String[] SERVICE_TYPES = {"Boiler service", "AC Repair", "Plumbing", "Electrical inspection", "Appliance install"};
+
+    @Param({"20", "1000"})
+    public int jobs;
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private List<Job> list;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper = format.equals("cbor") ? builder.factory(new CBORFactory()).build() : builder.build();
+        Random random = new Random(42);
+        LocalDateTime day = LocalDateTime.of(2026, 10, 18, 7, 0);
+        list = new ArrayList<>(jobs);
+        for (int i = 0; i < jobs; i++) {
+            JobStatus status = JobStatus.values()[random.nextInt(JobStatus.values().length)];
+            Job job = new Job(1_200_000L + random.nextInt(5_000_000), 10_000L + random.nextInt(90_000),
+                    SERVICE_TYPES[random.nextInt(SERVICE_TYPES.length)], 4_711L, status,
+                    day.minusMinutes(random.nextInt(60 * 24 * 30)).withNano(random.nextInt(1_000_000) * 1_000));
+            job.setVersion((long) random.nextInt(4));
+            list.add(job);
+        }
+        encoded = mapper.writeValueAsBytes(list);
+        System.out.printf("[BENCH] %-4s %4d jobs: %7d bytes, gzipped %6d bytes%n", format, jobs, encoded.length, gzip(encoded));
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public Job[] decode() throws IOException {
+        return mapper.readValue(encoded, Job[].class);
+    }
+
+    private static int gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,89 @@
+package com.technican.restservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.technican.restservice.controller.EncodedJobsConverter;
+import com.technican.restservice.model.Job;
+import com.technican.restservice.model.JobStatus;
+import com.technican.restservice.service.JobJsonCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a 10k-job listing response, through the message converter each path uses:
+ * <ul>
+ *   <li>{@code jackson}: the list handed to Jackson, as {@code ResponseEntity.ok(list)} did</li>
+ *   <li>{@code cached}: {@link JobJsonCache} bytes copied out by {@link EncodedJobsConverter},
+ *       every job already cached</li>
+ * </ul>
+ * The response body is discarded, so only the serialization is measured. Run with
+ * {@code ./gradlew jmh -Pjmh.include=JobJsonBenchmark} and add {@code -prof gc} (JMH option)
+ * for bytes allocated per call ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class JobJsonBenchmark {
+    private static final int JOBS = 10_000;
+
+    private final HttpOutputMessage response = new HttpOutputMessage() {
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    };
+
+    private List<Job> jobs;
+    private MappingJackson2HttpMessageConverter jackson;
+    private JobJsonCache cache;
+    private EncodedJobsConverter encoded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Configured like Spring Boot's: ISO-8601 LocalDateTime
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        jackson = new MappingJackson2HttpMessageConverter(objectMapper);
+        cache = new JobJsonCache(objectMapper, 100_000, new SimpleMeterRegistry());
+        encoded = new EncodedJobsConverter();
+        jobs = new ArrayList<>(JOBS);
+        LocalDateTime start = LocalDateTime.now();
+        for (int i = 0; i < JOBS; i++) {
+            Job job = new Job((long) i, 1_000L + i % 500, "Inspection", 7L + i % 50, JobStatus.SCHEDULED, start.plusSeconds(i));
+            job.setVersion(0L);
+            jobs.add(job);
+            cache.json(job);
+        }
+    }
+
+    @Benchmark
+    public HttpHeaders jackson() throws Exception {
+        jackson.write(jobs, MediaType.APPLICATION_JSON, response);
+        return response.getHeaders();
+    }
+
+    @Benchmark
+    public HttpHeaders cached() throws Exception {
+        encoded.write(cache.encode(jobs), MediaType.APPLICATION_JSON, response);
+        return response.getHeaders();
+    }
+}
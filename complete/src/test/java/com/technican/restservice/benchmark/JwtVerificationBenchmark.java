@@ -0,0 +1,86 @@
+package com.technican.restservice.benchmark;
+
+import com.technican.restservice.security.JwtClaims;
+import com.technican.restservice.security.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Set;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares requests per second for the JWT work done on a {@code GET /jobs/my} call:
+ * the old path verified the signature four times (filter: username + roles,
+ * controller: roles + userId), the new path verifies once and then hits the cache.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+public class JwtVerificationBenchmark {
+    private static final long WARMUP_MS = 2_000;
+    private static final long MEASURE_MS = 5_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    public void verificationPerRequest() {
+        String token = jwtUtil.generateToken(42L, "bench_tech", Set.of("TECHNICIAN"));
+        JwtUtil uncached = new JwtUtil(0, new SimpleMeterRegistry());
+
+        Runnable before = () -> {
+            uncached.getUsernameFromToken(token);
+            uncached.getRolesFromToken(token);
+            uncached.getRolesFromToken(token);
+            uncached.getUserIdFromToken(token);
+        };
+        Runnable after = () -> {
+            JwtClaims claims = jwtUtil.parseClaims(token);
+            claims.roles();
+            claims.userId();
+        };
+        double beforeRps = measure(before);
+        double afterRps = measure(after);
+        System.out.printf("[BENCH] JWT work per request: before=%.0f req/s, after=%.0f req/s (x%.1f)%n",
+                beforeRps, afterRps, afterRps / beforeRps);
+    }
+
+    @Test
+    public void myJobsEndToEnd() {
+        String token = jwtUtil.generateToken(42L, "bench_tech", Set.of("TECHNICIAN"));
+        double rps = measure(() -> {
+            try {
+                mockMvc.perform(get("/jobs/my").header("Authorization", "Bearer " + token))
+                        .andExpect(status().isOk());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        System.out.printf("[BENCH] GET /jobs/my (MockMvc, cached JWT): %.0f req/s%n", rps);
+    }
+
+    private static double measure(Runnable op) {
+        run(op, WARMUP_MS);
+        return run(op, MEASURE_MS) * 1000.0 / MEASURE_MS;
+    }
+
+    private static long run(Runnable op, long durationMs) {
+        long deadline = System.currentTimeMillis() + durationMs;
+        long count = 0;
+        while (System.currentTimeMillis() < deadline) {
+            op.run();
+            count++;
+        }
+        return count;
+    }
+}
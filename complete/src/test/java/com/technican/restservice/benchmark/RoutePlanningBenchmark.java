@@ -0,0 +1,102 @@
+package com.technican.restservice.benchmark;
+
+import com.technican.restservice.dispatch.GeoPoint;
+import com.technican.restservice.route.RoutePlanner;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Route planning throughput and quality at 20, 50 and 200 stops per technician, over
+ * {@code routes.technicians} (default 2000) random days in a 50 x 50 km area. Each plan
+ * includes building its distance matrix. Reports plans per second on one thread and on a
+ * fork-join pool of every core (as the nightly run does), and the planned distance
+ * against visiting the stops as listed and against the nearest-neighbour tour alone.
+ * Run with {@code ./gradlew benchmark --tests '*RoutePlanningBenchmark'}.
+ */
+@Tag("benchmark")
+public class RoutePlanningBenchmark {
+    private static final int TECHNICIANS = Integer.getInteger("routes.technicians", 2000);
+
+    @Test
+    public void plansPerSecondAndQuality() throws Exception {
+        for (int stops : new int[]{20, 50, 200}) {
+            List<GeoPoint[]> days = days(stops, new Random(stops));
+            // Warm up, then measure
+            planSequentially(days);
+            long start = System.nanoTime();
+            double planned = planSequentially(days);
+            double sequential = days.size() / ((System.nanoTime() - start) / 1e9);
+
+            ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+            pool.submit(() -> days.parallelStream().forEach(RoutePlanningBenchmark::plan)).get();
+            start = System.nanoTime();
+            pool.submit(() -> days.parallelStream().forEach(RoutePlanningBenchmark::plan)).get();
+            double parallel = days.size() / ((System.nanoTime() - start) / 1e9);
+            pool.shutdown();
+
+            double listed = 0;
+            double nearest = 0;
+            for (GeoPoint[] day : days) {
+                double[] distances = RoutePlanner.distanceMatrix(day);
+                int[] asListed = new int[day.length];
+                for (int i = 0; i < day.length; i++) {
+                    asListed[i] = i;
+                }
+                listed += RoutePlanner.length(distances, day.length, asListed);
+                nearest += RoutePlanner.length(distances, day.length, nearestNeighbourOnly(distances, day.length));
+            }
+            System.out.printf("[BENCH] routes: stops=%-3d %7.0f plans/s on 1 thread, %7.0f plans/s on %d; " +
+                            "avg %.0f km, %.1f%% shorter than as listed, %.1f%% shorter than nearest-neighbour%n",
+                    stops, sequential, parallel, pool.getParallelism(), planned / days.size(),
+                    100 * (1 - planned / listed), 100 * (1 - planned / nearest));
+        }
+    }
+
+    private static double planSequentially(List<GeoPoint[]> days) {
+        double total = 0;
+        for (GeoPoint[] day : days) {
+            total += plan(day);
+        }
+        return total;
+    }
+
+    private static double plan(GeoPoint[] day) {
+        double[] distances = RoutePlanner.distanceMatrix(day);
+        return RoutePlanner.length(distances, day.length, RoutePlanner.plan(distances, day.length));
+    }
+
+    // The first phase of RoutePlanner.plan, for comparison
+    private static int[] nearestNeighbourOnly(double[] distances, int n) {
+        int[] tour = new int[n];
+        boolean[] visited = new boolean[n];
+        visited[0] = true;
+        for (int position = 1; position < n; position++) {
+            int from = tour[position - 1];
+            int next = -1;
+            for (int candidate = 1; candidate < n; candidate++) {
+                if (!visited[candidate] && (next < 0 || distances[from * n + candidate] < distances[from * n + next])) {
+                    next = candidate;
+                }
+            }
+            tour[position] = next;
+            visited[next] = true;
+        }
+        return tour;
+    }
+
+    // Base plus stops, all within about 50 km of each other
+    private static List<GeoPoint[]> days(int stops, Random random) {
+        List<GeoPoint[]> days = new ArrayList<>(TECHNICIANS);
+        for (int t = 0; t < TECHNICIANS; t++) {
+            GeoPoint[] day = new GeoPoint[stops + 1];
+            for (int i = 0; i <= stops; i++) {
+                day[i] = new GeoPoint(40 + random.nextDouble() * 0.45, -75 + random.nextDouble() * 0.6);
+            }
+            days.add(day);
+        }
+        return days;
+    }
+}
@@ -0,0 +1,167 @@
+package com.technican.restservice.benchmark;
+
+import com.technican.restservice.RestServiceApplication;
+import com.technican.restservice.security.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first request and steady-state latency of the default setup (in-memory H2,
+ * Hibernate-generated schema) against the {@code prod} profile (file-backed H2, Flyway,
+ * fixed pool, startup warm-up). Every start is a new JVM, so nothing is warm that the
+ * application did not warm itself.
+ *
+ * <p>Four starts: default mode; prod on a fresh database file, which runs the migrations
+ * and is then seeded with {@code startup.jobs} jobs (default 50000); and two restarts on
+ * that file, with the warm-up off and with {@code warmup.requests=2000}. Each reports the
+ * time from process start until readiness is up, the first {@code GET /jobs} after that,
+ * the mean of the first 100, and p50/p99 over 2000 requests once 2000 more have run.
+ * Run with {@code ./gradlew benchmark --tests '*StartupBenchmark'}.
+ */
+@Tag("benchmark")
+public class StartupBenchmark {
+    private static final int JOBS = Integer.getInteger("startup.jobs", 50_000);
+    private static final int BATCH = 5_000;
+    private static final int WARM = 2_000;
+    private static final int MEASURED = 2_000;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String token = new JwtUtil(0, new SimpleMeterRegistry()).generateToken(1L, "bench_admin", Set.of("ADMIN"));
+    private String base;
+
+    private interface Step {
+        void run() throws Exception;
+    }
+
+    @Test
+    public void defaultVersusProdProfile() throws Exception {
+        Path dir = Path.of("build", "startup-bench", Long.toString(System.nanoTime())).toAbsolutePath();
+        String database = "--spring.datasource.url=jdbc:h2:file:" + dir.resolve("db/fieldtechdb");
+
+        run(dir, "default (empty)", false, null);
+        run(dir, "prod fresh (empty)", true, this::seed, database, "--warmup.requests=0");
+        run(dir, "prod restart, no warm-up", true, null, database, "--warmup.requests=0");
+        run(dir, "prod restart, warm-up", true, null, database, "--warmup.requests=2000");
+    }
+
+    private void run(Path dir, String mode, boolean prod, Step afterFirst, String... args) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        base = "http://localhost:" + port;
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                RestServiceApplication.class.getName(),
+                "--server.port=" + port,
+                "--logging.level.root=WARN",
+                "--jobs.ingest.log-dir=" + dir.resolve("ingest"),
+                "--jobs.audit.dir=" + dir.resolve("audit")));
+        if (prod) {
+            command.add("--spring.profiles.active=prod");
+        }
+        command.addAll(Arrays.asList(args));
+        Files.createDirectories(dir);
+        File log = dir.resolve("app.log").toFile();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(log)).start();
+        try {
+            while (!ready()) {
+                if (!process.isAlive() || System.nanoTime() - start > TimeUnit.MINUTES.toNanos(5)) {
+                    throw new IllegalStateException(mode + " did not start, see " + log);
+                }
+                Thread.sleep(20);
+            }
+            double readyMs = (System.nanoTime() - start) / 1e6;
+            long[] first = list(100);
+            if (afterFirst != null) {
+                afterFirst.run();
+            }
+            list(WARM);
+            long[] steady = list(MEASURED);
+            Arrays.sort(steady);
+            System.out.printf("[BENCH] %-26s ready=%6.0f ms  first GET /jobs=%6.1f ms  first 100 mean=%5.2f ms  steady p50=%.2f ms p99=%.2f ms%n",
+                    mode, readyMs, first[0] / 1e6, Arrays.stream(first).average().orElse(0) / 1e6,
+                    percentile(steady, 0.50), percentile(steady, 0.99));
+        } finally {
+            // A graceful stop, so the database file is closed cleanly for the next start
+            process.destroy();
+            if (!process.waitFor(60, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private boolean ready() {
+        try {
+            return http.send(HttpRequest.newBuilder(URI.create(base + "/actuator/health/readiness")).build(),
+                    HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // Latency of each of n sequential GET /jobs?limit=100
+    private long[] list(int n) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/jobs?limit=100"))
+                .header("Authorization", "Bearer " + token).GET().build();
+        long[] latencies = new long[n];
+        for (int i = 0; i < n; i++) {
+            long start = System.nanoTime();
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            latencies[i] = System.nanoTime() - start;
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("GET /jobs returned " + response.statusCode());
+            }
+        }
+        return latencies;
+    }
+
+    private void seed() throws Exception {
+        String[] serviceTypes = {"Plumbing", "Electrical", "HVAC", "Appliance"};
+        String[] statuses = {"SCHEDULED", "IN_PROGRESS", "COMPLETED"};
+        for (int sent = 0; sent < JOBS; sent += BATCH) {
+            StringBuilder body = new StringBuilder();
+            for (int i = sent; i < Math.min(JOBS, sent + BATCH); i++) {
+                body.append("{\"customerId\":").append(1 + i % 500)
+                        .append(",\"serviceType\":\"").append(serviceTypes[i % serviceTypes.length])
+                        .append("\",\"technicianId\":").append(1 + i % 50)
+                        .append(",\"status\":\"").append(statuses[i % statuses.length]).append("\"}\n");
+            }
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(base + "/jobs/batch"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/x-ndjson")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed: " + response.statusCode() + " " + response.body());
+            }
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(p * sorted.length))] / 1e6;
+    }
+}
@@ -0,0 +1,114 @@
+package com.technican.restservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.technican.restservice.ingest.StatusIngestor;
+import com.technican.restservice.model.Job;
+import com.technican.restservice.model.JobStatus;
+import com.technican.restservice.security.JwtUtil;
+import com.technican.restservice.service.JobService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A reconnecting fleet's backlog: every job goes IN_PROGRESS then COMPLETED. Compares one
+ * {@code PUT /jobs/{id}/status} per event against {@code POST /jobs/status-events} in
+ * device-sized batches, reporting the acknowledged rate and the time until every event
+ * is in the database. Run with {@code ./gradlew benchmark --tests '*StatusIngestBenchmark'}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+public class StatusIngestBenchmark {
+    private static final int JOBS = 2_000;
+    private static final int EVENTS_PER_REQUEST = 100;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private JobService jobService;
+    @Autowired
+    private StatusIngestor statusIngestor;
+
+    @Test
+    public void synchronousVersusWriteBehind() throws Exception {
+        String token = jwtUtil.generateToken(1L, "bench_scheduler", Set.of("SCHEDULER"));
+        // Warm-up
+        ingest(token, createJobs(500));
+        synchronous(token, createJobs(500));
+
+        List<Long> jobs = createJobs(JOBS);
+        long start = System.nanoTime();
+        synchronous(token, jobs);
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("[BENCH] status: PUT /jobs/{id}/status x%d: %.0f ms (%.0f events/s)%n",
+                2 * JOBS, elapsed / 1e6, 2 * JOBS / (elapsed / 1e9));
+
+        jobs = createJobs(JOBS);
+        start = System.nanoTime();
+        ingest(token, jobs);
+        long acknowledged = System.nanoTime() - start;
+        statusIngestor.flush();
+        long applied = System.nanoTime() - start;
+        for (Long id : jobs) {
+            Job job = jobService.findById(id).orElseThrow();
+            assertEquals(JobStatus.COMPLETED, job.getStatus());
+            // Both events coalesced into one write
+            assertEquals(1L, job.getVersion());
+        }
+        System.out.printf("[BENCH] status: POST /jobs/status-events x%d (%d per request): acknowledged in %.0f ms (%.0f events/s), applied after %.0f ms%n",
+                2 * JOBS, EVENTS_PER_REQUEST, acknowledged / 1e6, 2 * JOBS / (acknowledged / 1e9), applied / 1e6);
+    }
+
+    private void synchronous(String token, List<Long> jobs) throws Exception {
+        for (String step : new String[]{"IN_PROGRESS", "COMPLETED"}) {
+            for (Long id : jobs) {
+                mockMvc.perform(put("/jobs/" + id + "/status")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"" + step + "\"}"))
+                        .andExpect(status().isOk());
+            }
+        }
+    }
+
+    private void ingest(String token, List<Long> jobs) throws Exception {
+        Instant now = Instant.now();
+        List<Map<String, Object>> events = new ArrayList<>();
+        for (Long id : jobs) {
+            events.add(Map.of("jobId", id, "status", "IN_PROGRESS", "timestamp", now.toString()));
+            events.add(Map.of("jobId", id, "status", "COMPLETED", "timestamp", now.plusSeconds(60).toString()));
+        }
+        for (int from = 0; from < events.size(); from += EVENTS_PER_REQUEST) {
+            mockMvc.perform(post("/jobs/status-events")
+                    .header("Authorization", "Bearer " + token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(events.subList(from, Math.min(events.size(), from + EVENTS_PER_REQUEST)))))
+                    .andExpect(status().isAccepted());
+        }
+    }
+
+    private List<Long> createJobs(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(jobService.createJob(new Job(null, 1L, "Ingest", null, null, null)).getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,177 @@
+package com.technican.restservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.technican.restservice.RestServiceApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Load harness comparing Tomcat on platform threads with the {@code virtual} profile.
+ * Boots the application twice on a real port and drives {@code GET /jobs/my} and
+ * {@code POST /login} from {@code load.clients} concurrent clients (default 1000),
+ * each sending back-to-back requests for {@code load.seconds} (default 10).
+ * Run with {@code ./gradlew benchmark --tests '*ThreadingLoadBenchmark'}; virtual
+ * threads need Java 21+, older JVMs run the second pass on platform threads again.
+ */
+@Tag("benchmark")
+public class ThreadingLoadBenchmark {
+    private static final int CLIENTS = Integer.getInteger("load.clients", 1000);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 10);
+    private static final int JOBS_PER_TECHNICIAN = 20;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    public void platformVersusVirtualThreads() throws Exception {
+        if (Runtime.version().feature() < 21) {
+            System.out.println("[BENCH] Java " + Runtime.version().feature()
+                    + ": virtual threads unavailable, both passes use platform threads");
+        }
+        for (String mode : new String[]{"platform", "virtual"}) {
+            SpringApplicationBuilder app = new SpringApplicationBuilder(RestServiceApplication.class);
+            if (mode.equals("virtual")) {
+                app.profiles("virtual");
+            }
+            // Command-line arguments override application.properties; each pass gets its own database
+            try (ConfigurableApplicationContext context = app.run("--server.port=0",
+                    "--spring.datasource.url=jdbc:h2:mem:load_" + mode + ";DB_CLOSE_DELAY=-1",
+                    "--logging.level.root=WARN")) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                run(mode, "http://localhost:" + port);
+            }
+        }
+    }
+
+    private void run(String mode, String base) throws Exception {
+        String adminToken = token(base, register(base, null, "admin", "ADMIN"), "adminpass");
+        String techUsername = register(base, adminToken, "tech", "TECHNICIAN");
+        String techToken = token(base, techUsername, "techpass");
+        for (int i = 0; i < JOBS_PER_TECHNICIAN; i++) {
+            send(HttpRequest.newBuilder(URI.create(base + "/jobs"))
+                    .header("Authorization", "Bearer " + techToken)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"customerId\":1,\"serviceType\":\"Load\"}")));
+        }
+        HttpRequest myJobs = HttpRequest.newBuilder(URI.create(base + "/jobs/my"))
+                .header("Authorization", "Bearer " + techToken).GET().build();
+        String loginBody = objectMapper.writeValueAsString(Map.of("username", techUsername, "password", "techpass"));
+        HttpRequest login = HttpRequest.newBuilder(URI.create(base + "/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(loginBody)).build();
+
+        report(mode, "GET /jobs/my", load(() -> myJobs));
+        report(mode, "POST /login", load(() -> login));
+    }
+
+    private Result load(Supplier<HttpRequest> request) throws InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        Result result = new Result();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+        CountDownLatch done = new CountDownLatch(CLIENTS);
+        for (int c = 0; c < CLIENTS; c++) {
+            clients.execute(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = http.send(request.get(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        result.record(status, System.nanoTime() - start);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        clients.shutdown();
+        return result;
+    }
+
+    private void report(String mode, String endpoint, Result result) {
+        long[] latencies = result.sortedLatencies();
+        System.out.printf("[BENCH] %-8s %-13s clients=%d ok=%.0f req/s rejected(503)=%d errors=%d p50=%.1f ms p99=%.1f ms%n",
+                mode, endpoint, CLIENTS, result.ok.get() / (double) SECONDS, result.rejected.get(), result.errors.get(),
+                percentile(latencies, 0.50), percentile(latencies, 0.99));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(p * sorted.length))] / 1e6;
+    }
+
+    private String register(String base, String adminToken, String prefix, String role) throws Exception {
+        String username = prefix + "_" + System.nanoTime();
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", prefix + "pass", "roles", List.of(role)));
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + "/users"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (adminToken != null) {
+            request.header("Authorization", "Bearer " + adminToken);
+        }
+        send(request);
+        return username;
+    }
+
+    private String token(String base, String username, String password) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", password));
+        String response = send(HttpRequest.newBuilder(URI.create(base + "/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+        return objectMapper.readTree(response).get("token").asText();
+    }
+
+    private String send(HttpRequest.Builder request) throws Exception {
+        HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+
+    private static final class Result {
+        private final AtomicLong ok = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+
+        void record(int status, long nanos) {
+            if (status >= 200 && status < 300) {
+                ok.incrementAndGet();
+                latencies.add(nanos);
+            } else if (status == 503) {
+                rejected.incrementAndGet();
+            } else {
+                errors.incrementAndGet();
+            }
+        }
+
+        long[] sortedLatencies() {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.technican.restservice.benchmark;
+
+import com.technican.restservice.model.Role;
+import com.technican.restservice.model.User;
+import com.technican.restservice.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup latency of {@link UserRepository#findByUsername(String)} against the
+ * linear scan it replaced, at 1k, 100k and 1M users.
+ * Run with {@code ./gradlew jmh -Pjmh.include=UserLookupBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserLookupBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int users;
+
+    private UserRepository repository;
+    private List<User> scanBaseline;
+    private String[] usernames;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        repository = new UserRepository();
+        scanBaseline = new ArrayList<>(users);
+        usernames = new String[users];
+        for (int i = 0; i < users; i++) {
+            usernames[i] = "tech_" + i;
+            User user = new User(null, usernames[i], "hash", Set.of(Role.TECHNICIAN), null, null);
+            repository.save(user);
+            scanBaseline.add(user);
+        }
+    }
+
+    @Benchmark
+    public void indexedLookup(Blackhole bh) {
+        bh.consume(repository.findByUsername(randomUsername()));
+    }
+
+    @Benchmark
+    public void linearScan(Blackhole bh) {
+        String username = randomUsername();
+        Optional<User> found = scanBaseline.stream().filter(u -> u.getUsername().equals(username)).findFirst();
+        bh.consume(found);
+    }
+
+    private String randomUsername() {
+        return usernames[ThreadLocalRandom.current().nextInt(usernames.length)];
+    }
+}
@@ -0,0 +1,232 @@
+package com.technican.restservice.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.technican.restservice.RestServiceApplication;
+import com.technican.restservice.model.Job;
+import com.technican.restservice.security.JwtUtil;
+import com.technican.restservice.service.JobService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two instances in one JVM, sharing a database and a file cluster bus, as two nodes behind a load balancer would
+public class ClusterNodesTests {
+    private static final int LIMIT = 50;
+    private static final long WINDOW_MS = 3_600_000;
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    public static void startNodes() {
+        String bus = "build/test-cluster/" + UUID.randomUUID();
+        nodeA = start(bus);
+        nodeB = start(bus);
+    }
+
+    @AfterAll
+    public static void stopNodes() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    public void testJobChangeOnOneNodeInvalidatesTheOthersCache() throws Exception {
+        long technicianId = 910_000 + System.nanoTime() % 10_000;
+        String token = token(technicianId);
+        Job job = nodeA.getBean(JobService.class).createJob(
+                new Job(null, 77L, "Boiler service", technicianId, null, LocalDateTime.now()));
+
+        // B caches the technician's list and its version
+        HttpResponse<String> cached = await(nodeB, "/jobs/my", token, null, 1);
+        String etag = cached.headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<String> updated = http.send(request(nodeA, "/jobs/" + job.getId() + "/status", token)
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"status\":\"IN_PROGRESS\"}"))
+                .header("Content-Type", "application/json").build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, updated.statusCode(), updated.body());
+
+        HttpResponse<String> fresh = await(nodeB, "/jobs/my", token, etag, 1);
+        assertEquals("IN_PROGRESS", objectMapper.readTree(fresh.body()).get(0).get("status").asText());
+        assertNotEquals(etag, fresh.headers().firstValue("ETag").orElseThrow());
+    }
+
+    @Test
+    public void testETagFromOneNodeRevalidatesOnTheOther() throws Exception {
+        long technicianId = 930_000 + System.nanoTime() % 10_000;
+        String token = token(technicianId);
+        nodeA.getBean(JobService.class).createJob(new Job(null, 77L, "Boiler service", technicianId, null, LocalDateTime.now()));
+
+        String etag = await(nodeB, "/jobs/my", token, null, 1).headers().firstValue("ETag").orElseThrow();
+        // A numbers the change as B does once it has read it back from the bus
+        long deadline = System.currentTimeMillis() + 5000;
+        HttpResponse<String> revalidated;
+        while ((revalidated = get(nodeA, "/jobs/my", token, etag)).statusCode() != 304) {
+            assertTrue(System.currentTimeMillis() < deadline, "Still " + revalidated.statusCode() + " " + revalidated.headers().firstValue("ETag"));
+            Thread.sleep(50);
+        }
+        assertEquals(etag, revalidated.headers().firstValue("ETag").orElseThrow());
+    }
+
+    @Test
+    public void testFeedResumesOnTheOtherNode() throws Exception {
+        long technicianId = 940_000 + System.nanoTime() % 10_000;
+        String token = token(technicianId);
+        String lastEventId;
+        // The response starts with the first event
+        CompletableFuture<HttpResponse<Stream<String>>> subscribed = subscribe(nodeA, token, null);
+        MeterRegistry meters = nodeA.getBean(MeterRegistry.class);
+        for (int i = 0; i < 100 && meters.get("jobs.feed.subscribers").gauge().value() < 1; i++) {
+            Thread.sleep(50);
+        }
+        nodeA.getBean(JobService.class).createJob(new Job(null, 77L, "Boiler service", technicianId, null, LocalDateTime.now()));
+        try (Stream<String> feed = body(subscribed)) {
+            String[] created = nextEvent(feed.iterator());
+            assertEquals("created", created[1]);
+            lastEventId = created[0];
+        }
+        // Made on B while the client was away
+        Job missed = nodeB.getBean(JobService.class).createJob(
+                new Job(null, 77L, "Boiler service", technicianId, null, LocalDateTime.now()));
+        // Longer than a poll: B has read both changes from the bus
+        Thread.sleep(500);
+
+        try (Stream<String> feed = body(subscribe(nodeB, token, lastEventId))) {
+            String[] resumed = nextEvent(feed.iterator());
+            assertEquals("created", resumed[1], resumed[2]);
+            assertEquals(missed.getId().longValue(), objectMapper.readTree(resumed[2]).get("jobId").asLong());
+        }
+    }
+
+    @Test
+    public void testRateLimitIsSharedByTheNodes() throws Exception {
+        long untilReset = WINDOW_MS - System.currentTimeMillis() % WINDOW_MS;
+        if (untilReset < 10_000) {
+            Thread.sleep(untilReset + 100);
+        }
+        String token = token(920_000 + System.nanoTime() % 10_000);
+        int perNode = LIMIT - 10;
+        for (int i = 0; i < perNode; i++) {
+            assertEquals(200, get(nodeA, "/jobs/my", token, null).statusCode());
+        }
+        // Longer than a sync interval plus a poll
+        Thread.sleep(500);
+        int ok = 0;
+        int rejected = 0;
+        for (int i = 0; i < perNode; i++) {
+            HttpResponse<String> response = get(nodeB, "/jobs/my", token, null);
+            if (response.statusCode() == 200) {
+                ok++;
+            } else {
+                assertEquals(429, response.statusCode());
+                assertTrue(Long.parseLong(response.headers().firstValue("Retry-After").orElseThrow()) > 0);
+                rejected++;
+            }
+        }
+        assertEquals(LIMIT - perNode, ok);
+        assertEquals(2 * perNode - LIMIT, rejected);
+    }
+
+    private static ConfigurableApplicationContext start(String bus) {
+        return new SpringApplicationBuilder(RestServiceApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:cluster_nodes;DB_CLOSE_DELAY=-1",
+                "--cluster.bus=file",
+                "--cluster.file.dir=" + bus,
+                "--ratelimit.requests-per-window=" + LIMIT,
+                "--ratelimit.window-ms=" + WINDOW_MS,
+                "--ratelimit.sync-ms=50",
+                "--logging.level.root=WARN");
+    }
+
+    // GETs until the response is a 200 of expectedJobs jobs, for up to 5 seconds
+    private HttpResponse<String> await(ConfigurableApplicationContext node, String path, String token, String etag, int expectedJobs) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            HttpResponse<String> response = get(node, path, token, etag);
+            if (response.statusCode() == 200) {
+                JsonNode jobs = objectMapper.readTree(response.body());
+                if (jobs.size() == expectedJobs) {
+                    return response;
+                }
+            }
+            assertTrue(System.currentTimeMillis() < deadline, "Still " + response.statusCode() + " " + response.body());
+            Thread.sleep(100);
+        }
+    }
+
+    private CompletableFuture<HttpResponse<Stream<String>>> subscribe(ConfigurableApplicationContext node, String token, String lastEventId) {
+        HttpRequest.Builder request = request(node, "/jobs/feed", token).GET();
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return http.sendAsync(request.build(), HttpResponse.BodyHandlers.ofLines());
+    }
+
+    private static Stream<String> body(CompletableFuture<HttpResponse<Stream<String>>> subscribed) throws Exception {
+        HttpResponse<Stream<String>> response = subscribed.get(5, TimeUnit.SECONDS);
+        assertEquals(200, response.statusCode());
+        return response.body();
+    }
+
+    // The next event's id, name and data, skipping keep-alive comments; fails after 5 seconds
+    private static String[] nextEvent(Iterator<String> lines) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            String[] event = new String[3];
+            while (lines.hasNext()) {
+                String line = lines.next();
+                if (line.startsWith("id:")) {
+                    event[0] = line.substring(3);
+                } else if (line.startsWith("event:")) {
+                    event[1] = line.substring(6);
+                } else if (line.startsWith("data:")) {
+                    event[2] = line.substring(5);
+                } else if (line.isEmpty() && event[1] != null) {
+                    return event;
+                }
+            }
+            throw new IllegalStateException("Feed ended");
+        }).get(5, TimeUnit.SECONDS);
+    }
+
+    private HttpResponse<String> get(ConfigurableApplicationContext node, String path, String token, String etag) throws Exception {
+        HttpRequest.Builder request = request(node, path, token).GET();
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpRequest.Builder request(ConfigurableApplicationContext node, String path, String token) {
+        int port = ((WebServerApplicationContext) node).getWebServer().getPort();
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private static String token(long userId) {
+        return nodeA.getBean(JwtUtil.class).generateToken(userId, "cluster_" + userId, Set.of("TECHNICIAN"));
+    }
+}
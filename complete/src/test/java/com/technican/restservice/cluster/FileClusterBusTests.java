@@ -0,0 +1,90 @@
+package com.technican.restservice.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FileClusterBusTests {
+    public record Ping(int n) {}
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testDeliversInOrderAcrossSegmentsAndDeletesOldOnes() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        FileClusterBus sender = new FileClusterBus(objectMapper, directory, 1024, 10, new SimpleMeterRegistry());
+        FileClusterBus receiver = new FileClusterBus(objectMapper, directory, 1024, 10, new SimpleMeterRegistry());
+        List<Integer> sent = new ArrayList<>();
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        List<Integer> echoed = new CopyOnWriteArrayList<>();
+        receiver.subscribe(Ping.class, ping -> received.add(ping.n()));
+        sender.subscribe(Ping.class, ping -> echoed.add(ping.n()));
+        try {
+            // About 90 bytes a message: a new segment every dozen
+            for (int i = 0; i < 200; i++) {
+                sender.publish(new Ping(i));
+                sent.add(i);
+                if (i % 10 == 0) {
+                    Thread.sleep(20);
+                }
+            }
+            for (int i = 0; i < 200 && received.size() < sent.size(); i++) {
+                Thread.sleep(20);
+            }
+            assertEquals(sent, received);
+            // Nodes never hear their own messages
+            assertEquals(List.of(), echoed);
+            try (Stream<Path> files = Files.list(directory)) {
+                long segments = files.filter(file -> file.getFileName().toString().startsWith("bus-")).count();
+                assertTrue(segments <= 3, segments + " segments kept");
+            }
+        } finally {
+            sender.close();
+            receiver.close();
+        }
+    }
+
+    @Test
+    public void testEveryNodeSeesOneOrderWithTheSamePositions() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        FileClusterBus first = new FileClusterBus(objectMapper, directory, 1024, 10, new SimpleMeterRegistry());
+        FileClusterBus second = new FileClusterBus(objectMapper, directory, 1024, 10, new SimpleMeterRegistry());
+        List<String> seenFirst = new CopyOnWriteArrayList<>();
+        List<String> seenSecond = new CopyOnWriteArrayList<>();
+        first.subscribeInOrder(Ping.class, (ping, position) -> seenFirst.add(ping.n() + "@" + position));
+        second.subscribeInOrder(Ping.class, (ping, position) -> seenSecond.add(ping.n() + "@" + position));
+        try {
+            assertEquals(first.epoch(), second.epoch());
+            // Interleaved from both nodes, across segments
+            for (int i = 0; i < 60; i++) {
+                (i % 2 == 0 ? first : second).publish(new Ping(i));
+            }
+            for (int i = 0; i < 200 && (seenFirst.size() < 60 || seenSecond.size() < 60); i++) {
+                Thread.sleep(20);
+            }
+            assertEquals(60, seenFirst.size());
+            assertEquals(seenFirst, seenSecond);
+            long previous = first.joinedAt();
+            for (String seen : seenFirst) {
+                long position = Long.parseLong(seen.substring(seen.indexOf('@') + 1));
+                assertTrue(position > previous, seenFirst.toString());
+                previous = position;
+            }
+        } finally {
+            first.close();
+            second.close();
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.technican.restservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.technican.restservice.model.Role;
+import com.technican.restservice.model.User;
+import com.technican.restservice.repository.UserStore;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -21,6 +28,8 @@ public class AuthControllerTests {
     private MockMvc mockMvc;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private UserStore userRepository;
 
     @Test
     public void testLogin() throws Exception {
@@ -72,4 +81,33 @@ public class AuthControllerTests {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.token").exists());
     }
+
+    @Test
+    public void testLoginRehashesPasswordAtConfiguredCost() throws Exception {
+        String username = "legacy_" + System.nanoTime();
+        String legacyHash = new BCryptPasswordEncoder(4).encode("legacypass");
+        User legacy = userRepository.save(new User(null, username, legacyHash, Set.of(Role.TECHNICIAN), null, null));
+        // Registering the first admin in testLogin needs an empty user table
+        try {
+            mockMvc.perform(post("/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(Map.of("username", username, "password", "legacypass"))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.token").exists());
+
+            // The rehash runs after the response; wait for it to land
+            String stored = legacyHash;
+            for (int i = 0; i < 100 && stored.equals(legacyHash); i++) {
+                Thread.sleep(50);
+                stored = userRepository.findById(legacy.getId()).orElseThrow().getPassword();
+            }
+            assertTrue(stored.startsWith("$2a$10$"), "Expected a cost-10 hash but found " + stored);
+            mockMvc.perform(post("/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(Map.of("username", username, "password", "legacypass"))))
+                    .andExpect(status().isOk());
+        } finally {
+            userRepository.deleteById(legacy.getId());
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.technican.restservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.technican.restservice.model.JobStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,8 +11,14 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.List;
 import java.util.Map;
 
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -23,7 +30,15 @@ public class JobControllerTests {
     @Autowired
     private ObjectMapper objectMapper;
     @Autowired
-    private com.technican.restservice.repository.UserRepositoryJpa userRepository;
+    private com.technican.restservice.repository.UserStore userRepository;
+    @Autowired
+    private com.technican.restservice.ingest.StatusIngestor statusIngestor;
+    @Autowired
+    private com.technican.restservice.service.JobService jobService;
+    @Autowired
+    private org.springframework.jdbc.core.JdbcTemplate jdbcTemplate;
+    @Autowired
+    private io.micrometer.core.instrument.MeterRegistry meterRegistry;
     private String adminToken;
     private String techToken;
     private Long techUserId;
@@ -235,4 +250,628 @@ public class JobControllerTests {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(jobId));
     }
+
+    @Test
+    public void testListJobs_KeysetPagination() throws Exception {
+        String serviceType = "Paging_" + System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/jobs")
+                    .header("Authorization", "Bearer " + adminToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(Map.of("customerId", customerUserId, "serviceType", serviceType))))
+                    .andExpect(status().isCreated());
+        }
+        MvcResult first = mockMvc.perform(get("/jobs")
+                .param("serviceType", serviceType)
+                .param("limit", "2")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn();
+        String cursor = first.getResponse().getHeader("X-Next-Cursor");
+        long lastId = objectMapper.readTree(first.getResponse().getContentAsString()).get(1).get("id").asLong();
+        mockMvc.perform(get("/jobs")
+                .param("serviceType", serviceType)
+                .param("limit", "2")
+                .param("cursor", cursor)
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(greaterThan((int) lastId)))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    public void testListJobs_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/jobs")
+                .param("cursor", "not-a-cursor")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testStreamJobs_Ndjson() throws Exception {
+        String serviceType = "Stream_" + System.nanoTime();
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/jobs")
+                    .header("Authorization", "Bearer " + adminToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(Map.of("customerId", customerUserId, "serviceType", serviceType))))
+                    .andExpect(status().isCreated());
+        }
+        MvcResult started = mockMvc.perform(get("/jobs")
+                .param("serviceType", serviceType)
+                .accept("application/x-ndjson")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.strip().split("\n");
+        if (lines.length != 2) {
+            throw new AssertionError("Expected 2 NDJSON lines but got: " + body);
+        }
+        for (String line : lines) {
+            if (!serviceType.equals(objectMapper.readTree(line).get("serviceType").asText())) {
+                throw new AssertionError("Unexpected job in stream: " + line);
+            }
+        }
+    }
+
+    @Test
+    public void testCreateJobsBatch_ReportsItemErrors() throws Exception {
+        String serviceType = "Batch_" + System.nanoTime();
+        List<Map<String, Object>> jobs = List.of(
+                Map.of("customerId", customerUserId, "serviceType", serviceType),
+                Map.of("serviceType", serviceType),
+                Map.of("customerId", customerUserId, "serviceType", serviceType)
+        );
+        mockMvc.perform(post("/jobs/batch")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(jobs)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(3))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].error").value("customerId is required"));
+        mockMvc.perform(get("/jobs")
+                .param("serviceType", serviceType)
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    public void testCreateJobsBatch_Ndjson() throws Exception {
+        String serviceType = "BatchNd_" + System.nanoTime();
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            body.append(objectMapper.writeValueAsString(Map.of("customerId", customerUserId, "serviceType", serviceType))).append('\n');
+        }
+        mockMvc.perform(post("/jobs/batch")
+                .header("Authorization", "Bearer " + techToken)
+                .contentType("application/x-ndjson")
+                .content(body.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(3));
+        // Technicians can only import jobs for themselves
+        mockMvc.perform(get("/jobs/my")
+                .header("Authorization", "Bearer " + techToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.serviceType == '" + serviceType + "')]", hasSize(3)));
+    }
+
+    @Test
+    public void testMyJobs_ConditionalGet() throws Exception {
+        MvcResult first = mockMvc.perform(get("/jobs/my")
+                .header("Authorization", "Bearer " + techToken))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+        // Unchanged: 304 with no body
+        mockMvc.perform(get("/jobs/my")
+                .header("Authorization", "Bearer " + techToken)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        // Assigning a job to the technician changes their collection
+        MvcResult jobResult = mockMvc.perform(post("/jobs")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("customerId", customerUserId, "serviceType", "AC Repair"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long jobId = objectMapper.readTree(jobResult.getResponse().getContentAsString()).get("id").asLong();
+        mockMvc.perform(post("/jobs/" + jobId + "/assign")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("technicianId", techUserId))))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/jobs/my")
+                .header("Authorization", "Bearer " + techToken)
+                .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", org.hamcrest.Matchers.not(etag)))
+                .andExpect(jsonPath("$[?(@.id == " + jobId + ")]", hasSize(1)));
+    }
+
+    @Test
+    public void testListJobs_ConditionalGet() throws Exception {
+        String etag = mockMvc.perform(get("/jobs")
+                .param("limit", "5")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/jobs")
+                .param("limit", "5")
+                .header("Authorization", "Bearer " + adminToken)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        // Another query is another representation
+        mockMvc.perform(get("/jobs")
+                .param("limit", "6")
+                .header("Authorization", "Bearer " + adminToken)
+                .header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testUpdateStatus_EnforcesTransitions() throws Exception {
+        MvcResult jobResult = mockMvc.perform(post("/jobs")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("customerId", customerUserId, "serviceType", "AC Repair"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long jobId = objectMapper.readTree(jobResult.getResponse().getContentAsString()).get("id").asLong();
+        // SCHEDULED cannot skip IN_PROGRESS
+        mockMvc.perform(put("/jobs/" + jobId + "/status")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("status", "COMPLETED"))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Job is SCHEDULED and cannot move to COMPLETED"));
+        for (String step : new String[]{"IN_PROGRESS", "IN_PROGRESS", "COMPLETED"}) {
+            // Repeating the current status is accepted as a no-op
+            mockMvc.perform(put("/jobs/" + jobId + "/status")
+                    .header("Authorization", "Bearer " + adminToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(Map.of("status", step))))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(put("/jobs/" + jobId + "/status")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("status", "IN_PROGRESS"))))
+                .andExpect(status().isConflict());
+        mockMvc.perform(put("/jobs/" + Long.MAX_VALUE + "/status")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("status", "IN_PROGRESS"))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testStatusEvents_JobThatKeepsFailingIsMovedAside() throws Exception {
+        Long poisoned = routeJob(techUserId, customerUserId);
+        Long healthy = routeJob(techUserId, customerUserId);
+        // Every status update of the poisoned job now fails, and with it each batch holding it
+        jdbcTemplate.execute("alter table jobs add constraint poisoned_job check (id <> " + poisoned + " or status = 'SCHEDULED')");
+        double rejectedBefore = meterRegistry.get("jobs.ingest.rejected").counter().count();
+        try {
+            mockMvc.perform(post("/jobs/status-events")
+                    .header("Authorization", "Bearer " + techToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(List.of(
+                            Map.of("jobId", poisoned, "status", "IN_PROGRESS", "timestamp", "2026-10-18T10:00:00Z"),
+                            Map.of("jobId", healthy, "status", "IN_PROGRESS", "timestamp", "2026-10-18T10:00:00Z")))))
+                    .andExpect(status().isAccepted());
+            for (int i = 0; i < 20 && jobService.findById(healthy).orElseThrow().getStatus() != JobStatus.IN_PROGRESS; i++) {
+                statusIngestor.flush();
+            }
+        } finally {
+            jdbcTemplate.execute("alter table jobs drop constraint poisoned_job");
+        }
+        assertEquals(JobStatus.IN_PROGRESS, jobService.findById(healthy).orElseThrow().getStatus());
+        assertEquals(JobStatus.SCHEDULED, jobService.findById(poisoned).orElseThrow().getStatus());
+        assertEquals(1.0, meterRegistry.get("jobs.ingest.rejected").counter().count() - rejectedBefore);
+        // Nothing left to retry once the constraint is gone
+        statusIngestor.flush();
+        assertEquals(0.0, meterRegistry.get("jobs.ingest.pending").gauge().value());
+        assertEquals(JobStatus.SCHEDULED, jobService.findById(poisoned).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void testStatusEvents_AppliesLatestPerJobInDeviceOrder() throws Exception {
+        Long reordered = routeJob(techUserId, customerUserId);
+        Long started = routeJob(techUserId, customerUserId);
+        Long someoneElses = routeJob(register("other_tech", "TECHNICIAN", List.of(), "Elsewhere"), customerUserId);
+        // Uploaded out of order: the device finished the first job after starting it
+        List<Map<String, Object>> events = List.of(
+                Map.of("jobId", reordered, "status", "COMPLETED", "timestamp", "2026-10-18T10:05:00Z"),
+                Map.of("jobId", started, "status", "IN_PROGRESS", "timestamp", "2026-10-18T10:01:00Z"),
+                Map.of("jobId", reordered, "status", "IN_PROGRESS", "timestamp", "2026-10-18T10:00:00Z"),
+                Map.of("jobId", someoneElses, "status", "IN_PROGRESS", "timestamp", "2026-10-18T10:02:00Z"));
+        mockMvc.perform(post("/jobs/status-events")
+                .header("Authorization", "Bearer " + techToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(events)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.accepted").value(4));
+        statusIngestor.flush();
+
+        var completed = jobService.findById(reordered).orElseThrow();
+        assertEquals(JobStatus.COMPLETED, completed.getStatus());
+        // Coalesced into a single write
+        assertEquals(1L, completed.getVersion());
+        assertEquals(JobStatus.IN_PROGRESS, jobService.findById(started).orElseThrow().getStatus());
+        assertEquals(JobStatus.SCHEDULED, jobService.findById(someoneElses).orElseThrow().getStatus());
+
+        // A late event from before the current state changes nothing
+        mockMvc.perform(post("/jobs/status-events")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(
+                        Map.of("jobId", reordered, "status", "IN_PROGRESS", "timestamp", "2026-10-18T10:00:00Z")))))
+                .andExpect(status().isAccepted());
+        statusIngestor.flush();
+        assertEquals(1L, jobService.findById(reordered).orElseThrow().getVersion());
+
+        mockMvc.perform(post("/jobs/status-events")
+                .header("Authorization", "Bearer " + techToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(Map.of("jobId", started, "status", "DONE", "timestamp", "2026-10-18T10:00:00Z")))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Event 0: Invalid status value"));
+        String customerToken = login(customerUsername, "customerpass");
+        mockMvc.perform(post("/jobs/status-events")
+                .header("Authorization", "Bearer " + customerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void testAnalytics_CountsTodaysJobs() throws Exception {
+        String today = java.time.LocalDate.now().toString();
+        Long jobId = routeJob(techUserId, customerUserId);
+        mockMvc.perform(put("/jobs/" + jobId + "/status")
+                .header("Authorization", "Bearer " + techToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"IN_PROGRESS\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/jobs/analytics")
+                .param("from", today)
+                .param("to", today)
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.days", hasSize(1)))
+                .andExpect(jsonPath("$.days[0].day").value(today))
+                .andExpect(jsonPath("$.days[0].byStatus.IN_PROGRESS").value(greaterThan(0)))
+                .andExpect(jsonPath("$.days[0].byServiceType.Inspection.IN_PROGRESS").value(greaterThan(0)))
+                .andExpect(jsonPath("$.days[0].byTechnician['" + techUserId + "'].IN_PROGRESS").value(1));
+        mockMvc.perform(get("/jobs/analytics")
+                .param("from", "2026-10-18")
+                .param("to", "2024-01-01")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/jobs/analytics")
+                .param("from", "yesterday")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/jobs/analytics")
+                .header("Authorization", "Bearer " + techToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void testJobHistory_RecordsWhoChangedWhat() throws Exception {
+        MvcResult jobResult = mockMvc.perform(post("/jobs")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("customerId", customerUserId, "serviceType", "AC Repair"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long jobId = objectMapper.readTree(jobResult.getResponse().getContentAsString()).get("id").asLong();
+        mockMvc.perform(post("/jobs/" + jobId + "/assign")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("technicianId", techUserId))))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/jobs/" + jobId + "/status")
+                .header("Authorization", "Bearer " + techToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"IN_PROGRESS\"}"))
+                .andExpect(status().isOk());
+        // Applied later by the ingest thread, still on behalf of the technician
+        mockMvc.perform(post("/jobs/status-events")
+                .header("Authorization", "Bearer " + techToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(
+                        Map.of("jobId", jobId, "status", "COMPLETED", "timestamp", "2026-10-18T10:05:00Z")))))
+                .andExpect(status().isAccepted());
+        statusIngestor.flush();
+
+        String customerToken = login(customerUsername, "customerpass");
+        MvcResult history = mockMvc.perform(get("/jobs/" + jobId + "/history")
+                .header("Authorization", "Bearer " + customerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.history", hasSize(4)))
+                .andExpect(jsonPath("$.history[0].type").value("CREATED"))
+                .andExpect(jsonPath("$.history[0].previousStatus").doesNotExist())
+                .andExpect(jsonPath("$.history[1].type").value("ASSIGNED"))
+                .andExpect(jsonPath("$.history[1].previousTechnicianId").doesNotExist())
+                .andExpect(jsonPath("$.history[1].technicianId").value(techUserId))
+                .andExpect(jsonPath("$.history[2].type").value("STATUS_CHANGED"))
+                .andExpect(jsonPath("$.history[2].actorId").value(techUserId))
+                .andExpect(jsonPath("$.history[2].previousStatus").value("SCHEDULED"))
+                .andExpect(jsonPath("$.history[2].status").value("IN_PROGRESS"))
+                .andExpect(jsonPath("$.history[3].actorId").value(techUserId))
+                .andExpect(jsonPath("$.history[3].status").value("COMPLETED"))
+                .andReturn();
+        var entries = objectMapper.readTree(history.getResponse().getContentAsString()).get("history");
+        // The admin made the first two changes
+        assertTrue(entries.get(0).get("actorId").isNumber());
+        assertEquals(entries.get(0).get("actorId"), entries.get(1).get("actorId"));
+
+        Long otherTech = register("other_tech", "TECHNICIAN", List.of(), "Elsewhere");
+        String otherTechToken = login(userRepository.findById(otherTech).orElseThrow().getUsername(), "pass");
+        mockMvc.perform(get("/jobs/" + jobId + "/history")
+                .header("Authorization", "Bearer " + otherTechToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/jobs/" + Long.MAX_VALUE + "/history")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testAssign_StaleVersionConflicts() throws Exception {
+        MvcResult jobResult = mockMvc.perform(post("/jobs")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("customerId", customerUserId, "serviceType", "AC Repair"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.version").value(0))
+                .andReturn();
+        Long jobId = objectMapper.readTree(jobResult.getResponse().getContentAsString()).get("id").asLong();
+        // Two dispatchers both saw version 0; only the first assignment may land
+        mockMvc.perform(post("/jobs/" + jobId + "/assign")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("technicianId", techUserId, "version", 0))))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/jobs/" + jobId + "/assign")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("technicianId", techUserId, "version", 0))))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/jobs/" + jobId + "/assign")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("technicianId", techUserId, "version", 1))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testAssign_JobStoredWithoutVersion() throws Exception {
+        Long jobId = jobService.createJob(new com.technican.restservice.model.Job(null, customerUserId, "AC Repair", null, JobStatus.SCHEDULED, null)).getId();
+        // As left by ddl-auto=update before the column was required
+        jdbcTemplate.execute("alter table jobs alter column version set null");
+        try {
+            jdbcTemplate.update("update jobs set version = null where id = ?", jobId);
+            assertEquals(1, jobService.advanceStatuses(List.of(jobId),
+                    job -> new com.technican.restservice.service.JobService.StatusAdvance(JobStatus.IN_PROGRESS, null)));
+            assertEquals(1L, jdbcTemplate.queryForObject("select version from jobs where id = ?", Long.class, jobId));
+
+            jdbcTemplate.update("update jobs set version = null where id = ?", jobId);
+            jobService.assignTechnician(jobId, techUserId);
+            assertEquals(1L, jdbcTemplate.queryForObject("select version from jobs where id = ?", Long.class, jobId));
+        } finally {
+            jdbcTemplate.update("update jobs set version = 0 where version is null");
+            jdbcTemplate.execute("alter table jobs alter column version set not null");
+        }
+    }
+
+    @Test
+    public void testAutoAssign_PicksNearestQualifiedTechnician() throws Exception {
+        String skill = "Boiler Repair " + System.nanoTime();
+        Long near = register("near_tech", "TECHNICIAN", List.of(skill), "1 Elm St @ 40.01,-75.0");
+        register("far_tech", "TECHNICIAN", List.of(skill), "9 Oak St @ 40.5,-75.0");
+        register("unskilled_tech", "TECHNICIAN", List.of("Roofing"), "2 Elm St @ 40.0,-75.0");
+        Long customer = register("located_customer", "CUSTOMER", List.of(), "5 Main St @ 40.0,-75.0");
+        MvcResult jobResult = mockMvc.perform(post("/jobs")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("customerId", customer, "serviceType", skill))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long jobId = objectMapper.readTree(jobResult.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(post("/jobs/" + jobId + "/auto-assign")
+                .header("Authorization", "Bearer " + techToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/jobs/" + jobId + "/auto-assign")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.assigned").value(near))
+                .andExpect(jsonPath("$.openJobs").value(0))
+                .andExpect(jsonPath("$.distanceKm").value(1.1));
+        mockMvc.perform(post("/jobs/" + jobId + "/auto-assign")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isConflict());
+
+        MvcResult unmatched = mockMvc.perform(post("/jobs")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("customerId", customer, "serviceType", "Chimney Sweep " + System.nanoTime()))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long unmatchedId = objectMapper.readTree(unmatched.getResponse().getContentAsString()).get("id").asLong();
+        mockMvc.perform(post("/jobs/" + unmatchedId + "/auto-assign")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value(org.hamcrest.Matchers.startsWith("No available technician")));
+    }
+
+    @Test
+    public void testRoute_OrdersScheduledJobsFromBase() throws Exception {
+        Long technician = register("route_tech", "TECHNICIAN", List.of(), "1 Depot Rd @ 40.0,-75.0");
+        String token = login(userRepository.findById(technician).orElseThrow().getUsername(), "pass");
+        // Created far-first; the route must visit them northwards from the base
+        Long far = routeJob(technician, register("far_customer", "CUSTOMER", List.of(), "3 North St @ 40.3,-75.0"));
+        Long near = routeJob(technician, register("near_customer", "CUSTOMER", List.of(), "1 North St @ 40.1,-75.0"));
+        Long middle = routeJob(technician, register("mid_customer", "CUSTOMER", List.of(), "2 North St @ 40.2,-75.0"));
+        Long unlocated = routeJob(technician, register("nowhere_customer", "CUSTOMER", List.of(), "Somewhere"));
+        Long started = routeJob(technician, register("started_customer", "CUSTOMER", List.of(), "4 North St @ 40.05,-75.0"));
+        mockMvc.perform(put("/jobs/" + started + "/status")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"IN_PROGRESS\"}"))
+                .andExpect(status().isOk());
+
+        MvcResult route = mockMvc.perform(get("/jobs/route")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fromBase").value(true))
+                .andExpect(jsonPath("$.stops.length()").value(3))
+                .andExpect(jsonPath("$.stops[0].jobId").value(near))
+                .andExpect(jsonPath("$.stops[1].jobId").value(middle))
+                .andExpect(jsonPath("$.stops[2].jobId").value(far))
+                .andExpect(jsonPath("$.stops[0].legKm").value(11.1))
+                .andExpect(jsonPath("$.distanceKm").value(33.4))
+                .andExpect(jsonPath("$.unlocatedJobIds[0]").value(unlocated))
+                .andReturn();
+        String etag = route.getResponse().getHeader("ETag");
+        mockMvc.perform(get("/jobs/route")
+                .header("Authorization", "Bearer " + token)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        // Dispatchers name the technician; other technicians may not look
+        mockMvc.perform(get("/jobs/route").param("technicianId", technician.toString())
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stops[0].jobId").value(near));
+        mockMvc.perform(get("/jobs/route")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/jobs/route").param("technicianId", technician.toString())
+                .header("Authorization", "Bearer " + techToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/jobs/route").param("technicianId", customerUserId.toString())
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isNotFound());
+    }
+
+    private String login(String username, String password) throws Exception {
+        MvcResult result = mockMvc.perform(post("/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("username", username, "password", password))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    private Long routeJob(Long technicianId, Long customerId) throws Exception {
+        MvcResult result = mockMvc.perform(post("/jobs")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("customerId", customerId, "serviceType", "Inspection", "technicianId", technicianId))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private Long register(String prefix, String role, List<String> skills, String address) throws Exception {
+        MvcResult result = mockMvc.perform(post("/users")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "username", prefix + "_" + System.nanoTime(),
+                        "password", "pass",
+                        "roles", List.of(role),
+                        "skills", skills,
+                        "address", address))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    @Test
+    public void testFeed_PushesChangesAndResumes() throws Exception {
+        MvcResult feed = mockMvc.perform(get("/jobs/feed")
+                .header("Authorization", "Bearer " + techToken)
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult jobResult = mockMvc.perform(post("/jobs")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("customerId", customerUserId, "serviceType", "AC Repair"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long jobId = objectMapper.readTree(jobResult.getResponse().getContentAsString()).get("id").asLong();
+        mockMvc.perform(post("/jobs/" + jobId + "/assign")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("technicianId", techUserId))))
+                .andExpect(status().isOk());
+        String assigned = awaitEvent(feed, "assigned");
+        assertTrue(assigned.contains("\"jobId\":" + jobId), assigned);
+        // The unassigned creation was not this technician's business
+        assertFalse(feed.getResponse().getContentAsString().contains("event:created"));
+
+        String lastEventId = assigned.lines().filter(line -> line.startsWith("id:")).findFirst().orElseThrow().substring(3);
+        mockMvc.perform(put("/jobs/" + jobId + "/status")
+                .header("Authorization", "Bearer " + techToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("status", "IN_PROGRESS"))))
+                .andExpect(status().isOk());
+        // A client reconnecting after the assignment receives the status change it missed
+        MvcResult resumed = mockMvc.perform(get("/jobs/feed")
+                .header("Authorization", "Bearer " + techToken)
+                .header("Last-Event-ID", lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String missed = awaitEvent(resumed, "status_changed");
+        assertTrue(missed.contains("\"status\":\"IN_PROGRESS\""), missed);
+        assertFalse(resumed.getResponse().getContentAsString().contains("event:assigned"));
+    }
+
+    @Test
+    public void testFeed_UnknownLastEventIdResets() throws Exception {
+        MvcResult feed = mockMvc.perform(get("/jobs/feed")
+                .header("Authorization", "Bearer " + techToken)
+                .header("Last-Event-ID", "previousboot-42"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        awaitEvent(feed, "reset");
+    }
+
+    @Test
+    public void testFeed_RequiresAuthentication() throws Exception {
+        mockMvc.perform(get("/jobs/feed"))
+                .andExpect(status().isForbidden());
+    }
+
+    // Waits for the named event on an open feed and returns its lines
+    private static String awaitEvent(MvcResult feed, String name) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            String content = feed.getResponse().getContentAsString();
+            // Only events already terminated by a blank line; the last one may still be being written
+            String complete = content.substring(0, Math.max(0, content.lastIndexOf("\n\n")));
+            for (String event : complete.split("\n\n")) {
+                if (event.lines().anyMatch(line -> line.equals("event:" + name))) {
+                    return event;
+                }
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("No '" + name + "' event within 5s: " + feed.getResponse().getContentAsString());
+    }
 }
@@ -0,0 +1,88 @@
+package com.technican.restservice.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.technican.restservice.model.Job;
+import com.technican.restservice.security.JwtUtil;
+import com.technican.restservice.service.JobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Compression is done by Tomcat, so these go through a real server
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class JobEncodingTests {
+    private static final int JOBS = 40;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JobService jobService;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private ObjectMapper objectMapper;
+    private final HttpClient http = HttpClient.newHttpClient();
+    private String techToken;
+
+    @BeforeEach
+    public void setup() {
+        long technicianId = 800_000 + System.nanoTime() % 100_000;
+        techToken = jwtUtil.generateToken(technicianId, "encoding_tech", Set.of("TECHNICIAN"));
+        for (int i = 0; i < JOBS; i++) {
+            jobService.createJob(new Job(null, 77L, "Boiler service", technicianId, null, LocalDateTime.now()));
+        }
+    }
+
+    @Test
+    public void testCborCarriesTheSameJobsAsJson() throws Exception {
+        HttpResponse<byte[]> json = myJobs("application/json", null);
+        HttpResponse<byte[]> cbor = myJobs("application/cbor", null);
+        assertEquals(200, cbor.statusCode());
+        assertEquals("application/cbor", cbor.headers().firstValue("Content-Type").orElseThrow());
+        JsonNode expected = objectMapper.readTree(json.body());
+        assertEquals(JOBS, expected.size());
+        assertEquals(expected, new CBORMapper().readTree(cbor.body()));
+        assertTrue(cbor.body().length < json.body().length, cbor.body().length + " >= " + json.body().length);
+    }
+
+    @Test
+    public void testLargeResponsesAreGzipped() throws Exception {
+        HttpResponse<byte[]> plain = myJobs("application/json", null);
+        HttpResponse<byte[]> gzipped = myJobs("application/json", "gzip");
+        assertEquals("gzip", gzipped.headers().firstValue("Content-Encoding").orElseThrow());
+        byte[] body;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.body()))) {
+            body = in.readAllBytes();
+        }
+        assertEquals(objectMapper.readTree(plain.body()), objectMapper.readTree(body));
+        assertTrue(gzipped.body().length < plain.body().length / 4, gzipped.body().length + " of " + plain.body().length);
+        // Polls can still revalidate a compressed listing
+        assertTrue(gzipped.headers().firstValue("ETag").isPresent());
+    }
+
+    private HttpResponse<byte[]> myJobs(String accept, String acceptEncoding) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/jobs/my"))
+                .header("Authorization", "Bearer " + techToken)
+                .header("Accept", accept);
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
@@ -0,0 +1,80 @@
+package com.technican.restservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.technican.restservice.repository.UserStore;
+import com.technican.restservice.security.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Tests normally get a plain in-memory registry; this one needs the Prometheus one
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+public class MetricsEndpointTests {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private UserStore userRepository;
+
+    @AfterEach
+    public void cleanup() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testPrometheusTimersByRoleAndOutcome() throws Exception {
+        String adminToken = jwtUtil.generateToken(1L, "metrics_admin", Set.of("ADMIN"));
+        String techToken = jwtUtil.generateToken(2L, "metrics_tech", Set.of("TECHNICIAN"));
+        mockMvc.perform(get("/jobs").header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/jobs").header("Authorization", "Bearer " + techToken))
+                .andExpect(status().isForbidden());
+        String username = "metrics_user_" + System.nanoTime();
+        mockMvc.perform(post("/users")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("username", username, "password", "right", "roles", new String[]{"CUSTOMER"}))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("username", username, "password", "wrong"))))
+                .andExpect(status().isUnauthorized());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertHasSeries(scrape, "http_server_requests_seconds_bucket\\{.*role=\"technician\",status=\"403\",uri=\"/jobs\".*");
+        assertHasSeries(scrape, "http_server_requests_seconds_count\\{.*role=\"admin\",status=\"200\",uri=\"/jobs\".*");
+        assertHasSeries(scrape, "http_server_requests_seconds_count\\{.*role=\"anonymous\",status=\"401\",uri=\"/login\".*");
+        assertHasSeries(scrape, "auth_jwt_parse_seconds_count\\{result=\"(verified|cached)\"} [1-9].*");
+        assertHasSeries(scrape, "auth_password_check_seconds_count\\{result=\"mismatch\"} 1(\\.0)?");
+        assertHasSeries(scrape, "spring_data_repository_invocations_seconds_count\\{.*repository=\"JobRepositoryJpa\",role=\"admin\".*");
+
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + techToken))
+                .andExpect(status().isForbidden());
+    }
+
+    private static void assertHasSeries(String scrape, String regex) {
+        Pattern pattern = Pattern.compile(regex);
+        assertTrue(scrape.lines().anyMatch(line -> pattern.matcher(line).matches()), "no series matching " + regex);
+    }
+}
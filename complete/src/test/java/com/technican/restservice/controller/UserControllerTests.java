@@ -21,7 +21,7 @@ public class UserControllerTests {
     @Autowired
     private ObjectMapper objectMapper;
     @Autowired
-    private com.technican.restservice.repository.UserRepositoryJpa userRepository;
+    private com.technican.restservice.repository.UserStore userRepository;
 
     @BeforeEach
     public void setup() {
@@ -0,0 +1,115 @@
+package com.technican.restservice.datasource;
+
+import com.technican.restservice.model.Job;
+import com.technican.restservice.model.JobStatus;
+import com.technican.restservice.security.JwtUtil;
+import com.technican.restservice.service.JobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Two H2 databases of their own; the stand-in only replicates when a test calls copy()
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1",
+        "datasource.replica.url=jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1",
+        "datasource.replica.stand-in.interval-ms=3600000",
+        "datasource.replica.read-your-writes-ms=60000",
+})
+@AutoConfigureMockMvc
+public class ReplicaRoutingTests {
+    private static final long TECHNICIAN = 9101L;
+    private static final long CUSTOMER = 9102L;
+    private static final long OTHER_CUSTOMER = 9103L;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JobService jobService;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private H2ReplicationStandIn replication;
+
+    @BeforeEach
+    public void replicate() throws Exception {
+        replication.copy();
+    }
+
+    @Test
+    public void testListingsReadFromReplica() throws Exception {
+        Long id = jobService.createJob(new Job(null, OTHER_CUSTOMER, "Roofing", null, null, null)).getId();
+        assertFalse(jobService.findAll().stream().anyMatch(job -> job.getId().equals(id)));
+        // The job's customer is within the read-your-writes window and reads the primary
+        assertTrue(jobService.findByCustomerId(OTHER_CUSTOMER).stream().anyMatch(job -> job.getId().equals(id)));
+
+        replication.copy();
+        assertTrue(jobService.findAll().stream().anyMatch(job -> job.getId().equals(id)));
+    }
+
+    @Test
+    public void testTechnicianReadsOwnStatusChange() throws Exception {
+        Long id = jobService.createJob(new Job(null, CUSTOMER, "Boiler", TECHNICIAN, null, LocalDateTime.now())).getId();
+        replication.copy();
+        String technician = jwtUtil.generateToken(TECHNICIAN, "replica_tech", Set.of("TECHNICIAN"));
+        String customer = jwtUtil.generateToken(CUSTOMER, "replica_customer", Set.of("CUSTOMER"));
+
+        mockMvc.perform(put("/jobs/" + id + "/status")
+                        .header("Authorization", "Bearer " + technician)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"IN_PROGRESS\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/jobs/my").header("Authorization", "Bearer " + technician))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == " + id + ")].status").value(JobStatus.IN_PROGRESS.name()));
+        mockMvc.perform(get("/jobs/my").header("Authorization", "Bearer " + customer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == " + id + ")].status").value(JobStatus.IN_PROGRESS.name()));
+        // Everyone else reads the replica, which has not caught up yet
+        assertTrue(jobService.findAll().stream().anyMatch(job -> job.getId().equals(id) && job.getStatus() == JobStatus.SCHEDULED));
+    }
+
+    @Test
+    public void testPollAfterAnotherUsersChangeIsNotServedFromLaggingReplica() throws Exception {
+        Long id = jobService.createJob(new Job(null, CUSTOMER, "Boiler", TECHNICIAN, null, LocalDateTime.now())).getId();
+        replication.copy();
+        String technician = jwtUtil.generateToken(TECHNICIAN, "replica_tech", Set.of("TECHNICIAN"));
+        String dispatcher = jwtUtil.generateToken(9105L, "replica_poller", Set.of("SCHEDULER"));
+        String before = mockMvc.perform(get("/jobs?limit=1000").header("Authorization", "Bearer " + dispatcher))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Replication stays paused from here on
+        mockMvc.perform(put("/jobs/" + id + "/status")
+                        .header("Authorization", "Bearer " + technician)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"IN_PROGRESS\"}"))
+                .andExpect(status().isOk());
+        String after = mockMvc.perform(get("/jobs?limit=1000")
+                        .header("Authorization", "Bearer " + dispatcher)
+                        .header("If-None-Match", before))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == " + id + ")].status").value(JobStatus.IN_PROGRESS.name()))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(before, after);
+        // What the new ETag revalidates is the changed job
+        mockMvc.perform(get("/jobs?limit=1000")
+                        .header("Authorization", "Bearer " + dispatcher)
+                        .header("If-None-Match", after))
+                .andExpect(status().isNotModified());
+    }
+}
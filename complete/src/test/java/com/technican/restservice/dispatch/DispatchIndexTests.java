@@ -0,0 +1,103 @@
+package com.technican.restservice.dispatch;
+
+import com.technican.restservice.event.JobChangedEvent;
+import com.technican.restservice.model.Job;
+import com.technican.restservice.model.JobStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DispatchIndexTests {
+    private static final double LOAD_PENALTY_KM = 10;
+    private static final double MAX_DISTANCE_KM = 150;
+    private static final int MAX_OPEN_JOBS = 8;
+    private static final List<String> SKILLS = List.of("AC Repair", "Heater Repair", "Plumbing");
+
+    private final DispatchIndex index = new DispatchIndex(0.1, LOAD_PENALTY_KM, MAX_DISTANCE_KM, MAX_OPEN_JOBS);
+
+    @Test
+    public void testSelectionMatchesExhaustiveScan() {
+        Random random = new Random(7);
+        Map<Long, Set<String>> skills = new HashMap<>();
+        Map<Long, GeoPoint> locations = new HashMap<>();
+        Map<Long, Integer> loads = new HashMap<>();
+        for (long id = 1; id <= 3_000; id++) {
+            Set<String> held = new HashSet<>();
+            held.add(SKILLS.get(random.nextInt(SKILLS.size())));
+            held.add(SKILLS.get(random.nextInt(SKILLS.size())));
+            // Some technicians have no usable address
+            GeoPoint location = random.nextInt(10) == 0 ? null : new GeoPoint(40 + random.nextDouble() * 4, -80 + random.nextDouble() * 6);
+            int load = random.nextInt(MAX_OPEN_JOBS + 2);
+            index.putTechnician(id, held, location);
+            index.adjustLoad(id, load);
+            skills.put(id, held);
+            locations.put(id, location);
+            loads.put(id, load);
+        }
+        for (int query = 0; query < 2_000; query++) {
+            String skill = SKILLS.get(random.nextInt(SKILLS.size()));
+            // Includes jobs at the edge of and outside the technicians' area
+            GeoPoint job = new GeoPoint(39 + random.nextDouble() * 6, -81 + random.nextDouble() * 8);
+            Optional<DispatchIndex.Candidate> chosen = index.select(skill, job);
+            double expected = Double.POSITIVE_INFINITY;
+            for (Long id : skills.keySet()) {
+                GeoPoint location = locations.get(id);
+                if (skills.get(id).contains(skill) && location != null && loads.get(id) < MAX_OPEN_JOBS
+                        && job.distanceKm(location) <= MAX_DISTANCE_KM) {
+                    expected = Math.min(expected, job.distanceKm(location) + LOAD_PENALTY_KM * loads.get(id));
+                }
+            }
+            if (expected == Double.POSITIVE_INFINITY) {
+                assertTrue(chosen.isEmpty(), "query " + query + " found a technician where none qualifies");
+            } else {
+                DispatchIndex.Candidate candidate = chosen.orElseThrow();
+                assertEquals(expected, candidate.distanceKm() + LOAD_PENALTY_KM * candidate.openJobs(), 1e-9, "query " + query);
+            }
+        }
+    }
+
+    @Test
+    public void testWithoutLocationPicksLeastLoaded() {
+        index.putTechnician(1L, List.of("plumbing"), null);
+        index.putTechnician(2L, List.of("Plumbing", "AC Repair"), new GeoPoint(40, -75));
+        index.adjustLoad(1L, 3);
+        index.adjustLoad(2L, 1);
+        assertEquals(2L, index.select("PLUMBING", null).orElseThrow().technicianId());
+        index.adjustLoad(2L, 4);
+        assertEquals(1L, index.select("plumbing", null).orElseThrow().technicianId());
+        assertTrue(index.select("Roofing", null).isEmpty());
+    }
+
+    @Test
+    public void testJobEventsMoveWorkload() {
+        GeoPoint site = new GeoPoint(40, -75);
+        index.putTechnician(1L, List.of("AC Repair"), new GeoPoint(40.01, -75));
+        index.putTechnician(2L, List.of("AC Repair"), new GeoPoint(40.15, -75));
+        assertEquals(1L, index.select("AC Repair", site).orElseThrow().technicianId());
+
+        // Two open jobs (20 km of penalty) on the nearer technician outweigh ~16 km of extra travel
+        Job first = job(1L, 1L, JobStatus.SCHEDULED);
+        Job second = job(2L, 1L, JobStatus.SCHEDULED);
+        index.onJobChanged(JobChangedEvent.created(first));
+        index.onJobChanged(JobChangedEvent.created(second));
+        assertEquals(2L, index.select("AC Repair", site).orElseThrow().technicianId());
+
+        second.setTechnicianId(2L);
+        index.onJobChanged(JobChangedEvent.assigned(second, 1L));
+        first.setStatus(JobStatus.COMPLETED);
+        index.onJobChanged(JobChangedEvent.statusChanged(first, JobStatus.IN_PROGRESS));
+        DispatchIndex.Candidate candidate = index.select("AC Repair", site).orElseThrow();
+        assertEquals(1L, candidate.technicianId());
+        assertEquals(0, candidate.openJobs());
+
+        index.removeTechnician(1L);
+        assertEquals(2L, index.select("AC Repair", site).orElseThrow().technicianId());
+    }
+
+    private static Job job(Long id, Long technicianId, JobStatus status) {
+        return new Job(id, 100L, "AC Repair", technicianId, status, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,62 @@
+package com.technican.restservice.feed;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FeedSubscriberTests {
+
+    @Test
+    public void testClientThatStopsReadingDoesNotHoldTheWriter() throws Exception {
+        // A single writer: if the stuck write held it, nobody else would get anything
+        ExecutorService writers = Executors.newSingleThreadExecutor();
+        ExecutorService senders = Executors.newCachedThreadPool();
+        CountDownLatch unblock = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(1);
+        CompletableFuture<FeedSubscriber> stalled = new CompletableFuture<>();
+        SseEmitter stuckEmitter = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IOException("Broken pipe");
+            }
+        };
+        SseEmitter healthyEmitter = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                delivered.countDown();
+            }
+        };
+        FeedSubscriber stuck = new FeedSubscriber(FeedKey.ALL, stuckEmitter, 4, "e", writers, senders, 200, stalled::complete);
+        FeedSubscriber healthy = new FeedSubscriber(FeedKey.ALL, healthyEmitter, 4, "e", writers, senders, 200, s -> {});
+        try {
+            stuck.queue().offer(FeedEvent.HEARTBEAT);
+            stuck.scheduleDrain();
+            healthy.queue().offer(FeedEvent.HEARTBEAT);
+            healthy.scheduleDrain();
+
+            assertTrue(delivered.await(5, TimeUnit.SECONDS));
+            assertSame(stuck, stalled.get(5, TimeUnit.SECONDS));
+            // Given up on: further events are not queued for a write
+            assertFalse(stuck.close());
+        } finally {
+            unblock.countDown();
+            writers.shutdownNow();
+            senders.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.technican.restservice.ingest;
+
+import com.technican.restservice.model.JobStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatusLogTests {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testReplaysWhatWasNotCheckpointed() throws Exception {
+        List<StatusEvent> first = List.of(event(1, JobStatus.IN_PROGRESS), event(2, JobStatus.IN_PROGRESS));
+        List<StatusEvent> second = List.of(event(1, JobStatus.COMPLETED));
+        try (StatusLog log = StatusLog.open(directory)) {
+            long applied = log.append(first);
+            log.sync(applied);
+            log.sync(log.append(second));
+            log.checkpoint(applied);
+        }
+        try (StatusLog log = StatusLog.open(directory)) {
+            assertEquals(second, log.unapplied());
+            assertEquals(3L * StatusLog.RECORD_SIZE, log.end());
+        }
+    }
+
+    @Test
+    public void testCutsOffTornRecord() throws Exception {
+        try (StatusLog log = StatusLog.open(directory)) {
+            log.sync(log.append(List.of(event(1, JobStatus.IN_PROGRESS), event(2, JobStatus.COMPLETED))));
+        }
+        // A crash halfway through writing a third record
+        try (FileChannel file = FileChannel.open(directory.resolve("status-events.log"), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            file.write(java.nio.ByteBuffer.wrap(new byte[StatusLog.RECORD_SIZE / 2]));
+        }
+        try (StatusLog log = StatusLog.open(directory)) {
+            assertEquals(List.of(event(1, JobStatus.IN_PROGRESS), event(2, JobStatus.COMPLETED)), log.unapplied());
+            // Appends continue from the last whole record
+            log.sync(log.append(List.of(event(3, JobStatus.IN_PROGRESS))));
+        }
+        try (StatusLog log = StatusLog.open(directory)) {
+            assertEquals(3, log.unapplied().size());
+            assertEquals(event(3, JobStatus.IN_PROGRESS), log.unapplied().get(2));
+        }
+    }
+
+    @Test
+    public void testTruncatesOnceEverythingIsApplied() throws Exception {
+        try (StatusLog log = StatusLog.open(directory)) {
+            long end = log.append(List.of(event(1, JobStatus.IN_PROGRESS)));
+            log.sync(end);
+            log.checkpoint(end);
+            assertEquals(0, log.end());
+            assertEquals(0, Files.size(directory.resolve("status-events.log")));
+            log.sync(log.append(List.of(event(2, JobStatus.IN_PROGRESS))));
+        }
+        try (StatusLog log = StatusLog.open(directory)) {
+            assertEquals(List.of(event(2, JobStatus.IN_PROGRESS)), log.unapplied());
+        }
+    }
+
+    @Test
+    public void testRefusesSecondWriter() throws Exception {
+        StatusLog log = StatusLog.open(directory);
+        try {
+            assertThrows(IllegalStateException.class, () -> StatusLog.open(directory));
+        } finally {
+            log.close();
+        }
+    }
+
+    private static StatusEvent event(long jobId, JobStatus status) {
+        return new StatusEvent(jobId, status, 1_760_000_000_000L + jobId, 7L, false);
+    }
+}
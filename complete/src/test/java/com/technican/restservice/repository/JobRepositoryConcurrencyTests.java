@@ -0,0 +1,174 @@
+package com.technican.restservice.repository;
+
+import com.technican.restservice.model.Job;
+import com.technican.restservice.model.JobStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JobRepositoryConcurrencyTests {
+    private static final int THREADS = 8;
+    private static final int OPS_PER_THREAD = 20_000;
+    private static final int JOB_IDS = 500;
+    private static final long TECHNICIANS = 20;
+    private static final long CUSTOMERS = 20;
+
+    @Test
+    public void testIndexesNeverDivergeFromPrimaryStorage() throws Exception {
+        JobRepository repository = new JobRepository();
+        for (long id = 1; id <= JOB_IDS; id++) {
+            repository.save(new Job(id, id % CUSTOMERS, "AC Repair", null, JobStatus.SCHEDULED, LocalDateTime.now()));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS + 2);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<String> readerFailure = new AtomicReference<>();
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            writers.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                start.await();
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    long id = 1 + random.nextInt(JOB_IDS);
+                    switch (random.nextInt(4)) {
+                        case 0 -> repository.deleteById(id);
+                        case 1 -> repository.save(new Job(id, random.nextLong(CUSTOMERS), "Heater Repair", null, JobStatus.SCHEDULED, LocalDateTime.now()));
+                        case 2 -> repository.findById(id).ifPresent(job -> {
+                            job.setTechnicianId(random.nextLong(TECHNICIANS));
+                            repository.save(job);
+                        });
+                        default -> repository.findById(id).ifPresent(job -> {
+                            job.setStatus(JobStatus.values()[random.nextInt(JobStatus.values().length)]);
+                            repository.save(job);
+                        });
+                    }
+                }
+                return null;
+            }));
+        }
+        // Readers run alongside the writers: a lookup must never return a job that does not match
+        for (int r = 0; r < 2; r++) {
+            pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                start.await();
+                while (!writers.stream().allMatch(Future::isDone)) {
+                    long technicianId = random.nextLong(TECHNICIANS);
+                    for (Job job : repository.findByTechnicianId(technicianId)) {
+                        if (!Objects.equals(job.getTechnicianId(), technicianId)) {
+                            readerFailure.compareAndSet(null, "technician lookup returned job " + job.getId());
+                        }
+                    }
+                    JobStatus status = JobStatus.values()[random.nextInt(JobStatus.values().length)];
+                    for (Job job : repository.findByStatus(status)) {
+                        if (job.getStatus() != status) {
+                            readerFailure.compareAndSet(null, "status lookup returned job " + job.getId());
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        assertNull(readerFailure.get());
+
+        // Once quiescent, every index must describe exactly the primary storage
+        List<Job> all = repository.findAll();
+        for (long technicianId = 0; technicianId < TECHNICIANS; technicianId++) {
+            final long t = technicianId;
+            assertEquals(ids(all.stream().filter(j -> Objects.equals(j.getTechnicianId(), t)).toList()),
+                    ids(repository.findByTechnicianId(t)));
+        }
+        for (long customerId = 0; customerId < CUSTOMERS; customerId++) {
+            final long c = customerId;
+            assertEquals(ids(all.stream().filter(j -> Objects.equals(j.getCustomerId(), c)).toList()),
+                    ids(repository.findByCustomerId(c)));
+        }
+        int indexedByStatus = 0;
+        for (JobStatus status : JobStatus.values()) {
+            List<Job> indexed = repository.findByStatus(status);
+            indexedByStatus += indexed.size();
+            assertEquals(ids(all.stream().filter(j -> j.getStatus() == status).toList()), ids(indexed));
+        }
+        assertEquals(all.size(), indexedByStatus);
+    }
+
+    @Test
+    public void testConditionalUpdatesHaveOneWinner() throws Exception {
+        JobRepository repository = new JobRepository();
+        Job job = repository.save(new Job(null, 1L, "AC Repair", null, JobStatus.SCHEDULED, LocalDateTime.now()));
+        long version = job.getVersion();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> attempts = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long technicianId = t;
+            attempts.add(pool.submit(() -> {
+                start.await();
+                return repository.updateStatus(job.getId(), JobStatus.SCHEDULED, JobStatus.IN_PROGRESS)
+                        + repository.updateTechnician(job.getId(), version + 1, technicianId);
+            }));
+        }
+        start.countDown();
+        int changed = 0;
+        for (Future<Integer> attempt : attempts) {
+            changed += attempt.get(1, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+        // One status transition, then one assignment against the version it produced
+        assertEquals(2, changed);
+        Job stored = repository.findById(job.getId()).orElseThrow();
+        assertEquals(JobStatus.IN_PROGRESS, stored.getStatus());
+        assertEquals(version + 2, stored.getVersion());
+        assertEquals(Set.of(stored.getId()), ids(repository.findByTechnicianId(stored.getTechnicianId())));
+    }
+
+    @Test
+    public void testLookupsKeepFindingJobsWhoseKeyDidNotChange() throws Exception {
+        JobRepository repository = new JobRepository();
+        Job job = repository.save(new Job(null, 3L, "AC Repair", 7L, JobStatus.SCHEDULED, LocalDateTime.now()));
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        CountDownLatch start = new CountDownLatch(1);
+        // Status changes only: the job never leaves technician 7 or customer 3
+        Future<?> writer = pool.submit(() -> {
+            start.await();
+            for (int i = 0; i < OPS_PER_THREAD * 5; i++) {
+                repository.findById(job.getId()).ifPresent(stored -> {
+                    stored.setStatus(stored.getStatus() == JobStatus.SCHEDULED ? JobStatus.IN_PROGRESS : JobStatus.SCHEDULED);
+                    repository.save(stored);
+                });
+            }
+            return null;
+        });
+        start.countDown();
+        while (!writer.isDone()) {
+            assertEquals(1, repository.findByTechnicianId(7L).size());
+            assertEquals(1, repository.findByCustomerId(3L).size());
+        }
+        writer.get();
+        pool.shutdown();
+    }
+
+    @Test
+    public void testReturnedJobsAreDetachedFromStorage() {
+        JobRepository repository = new JobRepository();
+        Job saved = repository.save(new Job(null, 1L, "AC Repair", 7L, JobStatus.SCHEDULED, LocalDateTime.now()));
+        Job loaded = repository.findById(saved.getId()).orElseThrow();
+        loaded.setTechnicianId(8L);
+        assertEquals(1, repository.findByTechnicianId(7L).size());
+        assertTrue(repository.findByTechnicianId(8L).isEmpty());
+    }
+
+    private static Set<Long> ids(List<Job> jobs) {
+        return jobs.stream().map(Job::getId).collect(Collectors.toSet());
+    }
+}
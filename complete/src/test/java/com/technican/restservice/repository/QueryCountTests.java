@@ -0,0 +1,196 @@
+package com.technican.restservice.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.technican.restservice.model.Job;
+import com.technican.restservice.model.Role;
+import com.technican.restservice.model.User;
+import com.technican.restservice.security.JwtUtil;
+import com.technican.restservice.service.JobService;
+import com.technican.restservice.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the hot paths against regressing to full-table loads by counting the
+ * JDBC statements Hibernate prepares for a single request.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+public class QueryCountTests {
+    private static final int EXISTING_USERS = 25;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserStore userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private JobService jobService;
+    @Autowired
+    private UserService userService;
+    private Statistics statistics;
+    private String adminToken;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userRepository.deleteAll();
+        String adminUsername = "admin_" + System.nanoTime();
+        mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("username", adminUsername, "password", "adminpass", "roles", new String[]{"ADMIN"}))))
+                .andExpect(status().isCreated());
+        String login = mockMvc.perform(post("/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("username", adminUsername, "password", "adminpass"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        adminToken = objectMapper.readTree(login).get("token").asText();
+        // Enough users that a full load would show up as dozens of statements
+        for (int i = 0; i < EXISTING_USERS; i++) {
+            userRepository.save(new User(null, "existing_" + System.nanoTime(), "hash", Set.of(Role.TECHNICIAN), null, null));
+        }
+    }
+
+    @AfterEach
+    public void cleanup() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testRegisterDoesNotLoadExistingUsers() throws Exception {
+        Map<String, Object> tech = Map.of(
+                "username", "tech_" + System.nanoTime(),
+                "password", "techpass",
+                "roles", new String[]{"TECHNICIAN"}
+        );
+        statistics.clear();
+        mockMvc.perform(post("/users")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(tech)))
+                .andExpect(status().isCreated());
+        // COUNT for the first-admin check is skipped for non-admin roles:
+        // EXISTS on username, INSERT user, INSERT role
+        assertStatementsAtMost(3);
+    }
+
+    @Test
+    public void testRegisterFirstAdminCheckIsSingleCount() throws Exception {
+        Map<String, Object> admin = Map.of(
+                "username", "admin2_" + System.nanoTime(),
+                "password", "adminpass",
+                "roles", new String[]{"ADMIN"}
+        );
+        statistics.clear();
+        mockMvc.perform(post("/users")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(admin)))
+                .andExpect(status().isCreated());
+        // COUNT, EXISTS on username, INSERT user, INSERT role
+        assertStatementsAtMost(4);
+    }
+
+    @Test
+    public void testMyJobsIsSingleQuery() throws Exception {
+        User tech = userRepository.save(new User(null, "tech_" + System.nanoTime(), "hash", Set.of(Role.TECHNICIAN), null, null));
+        String techToken = jwtUtil.generateToken(tech.getId(), tech.getUsername(), Set.of("TECHNICIAN"));
+        statistics.clear();
+        mockMvc.perform(get("/jobs/my").header("Authorization", "Bearer " + techToken))
+                .andExpect(status().isOk());
+        assertStatementsAtMost(1);
+    }
+
+    @Test
+    public void testNotModifiedPollSkipsDatabase() throws Exception {
+        String etag = mockMvc.perform(get("/jobs").header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        statistics.clear();
+        mockMvc.perform(get("/jobs")
+                .header("Authorization", "Bearer " + adminToken)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        assertStatementsAtMost(0);
+    }
+
+    @Test
+    public void testLoginFetchesUserAndRolesInOneQuery() throws Exception {
+        String username = "login_" + System.nanoTime();
+        mockMvc.perform(post("/users")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("username", username, "password", "loginpass", "roles", new String[]{"TECHNICIAN", "SCHEDULER"}))))
+                .andExpect(status().isCreated());
+        statistics.clear();
+        mockMvc.perform(post("/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("username", username, "password", "loginpass"))))
+                .andExpect(status().isOk());
+        assertStatementsAtMost(1);
+    }
+
+    @Test
+    public void testAssignChecksRoleWithoutLoadingTechnician() throws Exception {
+        User tech = userRepository.save(new User(null, "tech_" + System.nanoTime(), "hash", Set.of(Role.TECHNICIAN), null, null));
+        Job job = jobService.createJob(new Job(null, tech.getId(), "AC Repair", null, null, null));
+        statistics.clear();
+        mockMvc.perform(post("/jobs/" + job.getId() + "/assign")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("technicianId", tech.getId()))))
+                .andExpect(status().isOk());
+        // role EXISTS, SELECT job, UPDATE job
+        assertStatementsAtMost(3);
+    }
+
+    @Test
+    public void testStatusTransitionIsConditionalUpdate() throws Exception {
+        Job job = jobService.createJob(new Job(null, 1L, "AC Repair", null, null, null));
+        statistics.clear();
+        mockMvc.perform(put("/jobs/" + job.getId() + "/status")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("status", "IN_PROGRESS"))))
+                .andExpect(status().isOk());
+        // SELECT job for the permission check, conditional UPDATE, SELECT job for the change event
+        assertStatementsAtMost(3);
+    }
+
+    @Test
+    public void testUserListingJoinsRoles() {
+        statistics.clear();
+        List<User> users = userService.findAll();
+        users.forEach(u -> u.getRoles().size());
+        assertTrue(users.size() > EXISTING_USERS);
+        assertStatementsAtMost(1);
+    }
+
+    private void assertStatementsAtMost(long expected) {
+        long actual = statistics.getPrepareStatementCount();
+        assertTrue(actual <= expected, "Expected at most " + expected + " SQL statements but Hibernate prepared " + actual);
+    }
+}
@@ -0,0 +1,108 @@
+package com.technican.restservice.route;
+
+import com.technican.restservice.dispatch.GeoPoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoutePlannerTests {
+
+    @Test
+    public void testStopsAlongARoadAreVisitedInOrder() {
+        // Base at the south end, stops every ~11 km northwards, handed over shuffled
+        List<GeoPoint> stops = new ArrayList<>();
+        for (int i = 1; i <= 12; i++) {
+            stops.add(new GeoPoint(40 + i * 0.1, -75));
+        }
+        Collections.shuffle(stops, new Random(3));
+        GeoPoint[] points = withStart(new GeoPoint(40, -75), stops);
+        double[] distances = RoutePlanner.distanceMatrix(points);
+        int[] tour = RoutePlanner.plan(distances, points.length);
+        for (int i = 1; i < tour.length; i++) {
+            assertTrue(points[tour[i]].latitude() > points[tour[i - 1]].latitude(), "stop " + i + " goes back south");
+        }
+        assertEquals(points[0].distanceKm(new GeoPoint(41.2, -75)), RoutePlanner.length(distances, points.length, tour), 1e-6);
+    }
+
+    @Test
+    public void testStartWithoutPositionBeginsAtAnEnd() {
+        List<GeoPoint> stops = new ArrayList<>();
+        double road = 0;
+        for (int i = 0; i < 10; i++) {
+            stops.add(new GeoPoint(40, -75 + i * 0.1));
+            road += i == 0 ? 0 : stops.get(i - 1).distanceKm(stops.get(i));
+        }
+        Collections.shuffle(stops, new Random(5));
+        GeoPoint[] points = withStart(null, stops);
+        double[] distances = RoutePlanner.distanceMatrix(points);
+        int[] tour = RoutePlanner.plan(distances, points.length);
+        // The best route runs from one end of the road to the other
+        assertEquals(road, RoutePlanner.length(distances, points.length, tour), 1e-6);
+    }
+
+    @Test
+    public void testPlansAreCloseToOptimal() {
+        Random random = new Random(11);
+        double planned = 0;
+        double optimal = 0;
+        for (int instance = 0; instance < 50; instance++) {
+            List<GeoPoint> stops = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                stops.add(new GeoPoint(40 + random.nextDouble(), -75 + random.nextDouble()));
+            }
+            GeoPoint[] points = withStart(new GeoPoint(40.5, -74.5), stops);
+            int n = points.length;
+            double[] distances = RoutePlanner.distanceMatrix(points);
+            int[] tour = RoutePlanner.plan(distances, n);
+
+            assertEquals(0, tour[0]);
+            assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8}, Arrays.stream(tour).sorted().toArray(), "not a permutation");
+            double length = RoutePlanner.length(distances, n, tour);
+            int[] nearest = RoutePlanner.nearestNeighbour(distances, n);
+            assertTrue(length <= RoutePlanner.length(distances, n, nearest) + 1e-9, "2-opt made the route longer");
+            planned += length;
+            optimal += shortest(distances, n);
+        }
+        // 2-opt is a local optimum, not the optimum; on small instances it is within a few percent
+        assertTrue(planned <= optimal * 1.03, "planned " + planned + " km vs optimal " + optimal + " km");
+    }
+
+    private static GeoPoint[] withStart(GeoPoint start, List<GeoPoint> stops) {
+        GeoPoint[] points = new GeoPoint[stops.size() + 1];
+        points[0] = start;
+        for (int i = 0; i < stops.size(); i++) {
+            points[i + 1] = stops.get(i);
+        }
+        return points;
+    }
+
+    // Exhaustive search over every order of the stops
+    private static double shortest(double[] distances, int n) {
+        int[] tour = new int[n];
+        for (int i = 0; i < n; i++) {
+            tour[i] = i;
+        }
+        return shortest(distances, n, tour, 1);
+    }
+
+    private static double shortest(double[] distances, int n, int[] tour, int position) {
+        if (position == n) {
+            return RoutePlanner.length(distances, n, tour);
+        }
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = position; i < n; i++) {
+            swap(tour, position, i);
+            best = Math.min(best, shortest(distances, n, tour, position + 1));
+            swap(tour, position, i);
+        }
+        return best;
+    }
+
+    private static void swap(int[] tour, int i, int j) {
+        int t = tour[i];
+        tour[i] = tour[j];
+        tour[j] = t;
+    }
+}
@@ -0,0 +1,103 @@
+package com.technican.restservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHashingPoolTests {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private PasswordHashingPool pool;
+
+    @AfterEach
+    public void cleanup() {
+        release.countDown();
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testRejectsWhenQueueIsFull() throws Exception {
+        // One worker, one queue slot: the worker blocks until released
+        pool = new PasswordHashingPool(blockingEncoder(), 4, 1, 1, 5000, registry);
+        assertTrue(pool.encodeLater("busy", Runnable::run, hash -> { }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(pool.encodeLater("queued", Runnable::run, hash -> { }));
+
+        assertThrows(RejectedExecutionException.class, () -> pool.matches("password", "hash"));
+        assertFalse(pool.encodeLater("rejected", Runnable::run, hash -> { }));
+        assertEquals(2, registry.get("auth.password.rejected").counter().count());
+        assertEquals(1, registry.get("auth.password.queue.depth").gauge().value());
+    }
+
+    @Test
+    public void testTimesOutSlowHashes() throws Exception {
+        pool = new PasswordHashingPool(blockingEncoder(), 4, 1, 4, 50, registry);
+        assertThrows(RejectedExecutionException.class, () -> pool.encode("slow"));
+    }
+
+    @Test
+    public void testVerifiesAndRecordsLatency() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        pool = new PasswordHashingPool(encoder, 4, 1, 4, 5000, registry);
+        String hash = pool.encode("secret");
+        assertTrue(pool.matches("secret", hash));
+        assertFalse(pool.matches("wrong", hash));
+        assertEquals(2, registry.get("auth.password.hash").tag("operation", "verify").timer().count());
+        assertEquals(3, registry.get("auth.password.queue.wait").timer().count());
+    }
+
+    @Test
+    public void testHandsEncodedPasswordToGivenExecutor() throws Exception {
+        pool = new PasswordHashingPool(new BCryptPasswordEncoder(4), 4, 1, 4, 5000, registry);
+        ExecutorService writer = Executors.newSingleThreadExecutor(r -> new Thread(r, "writer"));
+        try {
+            CompletableFuture<String> thread = new CompletableFuture<>();
+            assertTrue(pool.encodeLater("secret", writer, hash -> thread.complete(Thread.currentThread().getName())));
+            assertEquals("writer", thread.get(5, TimeUnit.SECONDS));
+        } finally {
+            writer.shutdown();
+        }
+    }
+
+    @Test
+    public void testNeedsRehashWhenCostDiffers() {
+        pool = new PasswordHashingPool(new BCryptPasswordEncoder(5), 5, 1, 4, 5000, registry);
+        assertTrue(pool.needsRehash(new BCryptPasswordEncoder(4).encode("secret")));
+        assertTrue(pool.needsRehash(new BCryptPasswordEncoder(6).encode("secret")));
+        assertFalse(pool.needsRehash(new BCryptPasswordEncoder(5).encode("secret")));
+    }
+
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence raw) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return raw.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence raw, String encoded) {
+                return encode(raw).equals(encoded);
+            }
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package com.technican.restservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.technican.restservice.model.Job;
+import com.technican.restservice.model.JobStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Cached job JSON must be byte for byte what Jackson writes for the job as it was read,
+ * whichever version of it that is.
+ */
+@SpringBootTest
+public class JobJsonCacheTests {
+    @Autowired
+    private JobJsonCache jobJsonCache;
+    @Autowired
+    private JobService jobService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void testSameBytesAsJackson() throws Exception {
+        Job job = jobService.createJob(new Job(null, 4242L, "Boiler", null, null, LocalDateTime.now()));
+        byte[] json = jobJsonCache.json(job);
+        assertArrayEquals(objectMapper.writeValueAsBytes(job), json);
+        assertSame(json, jobJsonCache.json(jobService.findById(job.getId()).orElseThrow()));
+
+        List<Job> jobs = List.of(job, jobService.createJob(new Job(null, 4242L, "Roofing", null, null, LocalDateTime.now())));
+        EncodedJobs encoded = jobJsonCache.encode(jobs);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encoded.writeTo(out);
+        assertArrayEquals(objectMapper.writeValueAsBytes(jobs), out.toByteArray());
+        out.reset();
+        jobJsonCache.encode(List.of()).writeTo(out);
+        assertEquals("[]", out.toString());
+    }
+
+    @Test
+    public void testEachVersionGetsItsOwnBytes() throws Exception {
+        Job before = jobService.createJob(new Job(null, 4243L, "Boiler", null, null, LocalDateTime.now()));
+        byte[] scheduled = jobJsonCache.json(before);
+        Job after = jobService.updateJobStatus(before.getId(), JobStatus.IN_PROGRESS).orElseThrow();
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(after), jobJsonCache.json(after));
+        // A copy read before the change, e.g. from a lagging replica, still gets its own state
+        assertArrayEquals(scheduled, jobJsonCache.json(before));
+        assertEquals(JobStatus.IN_PROGRESS.name(), objectMapper.readTree(jobJsonCache.json(after)).get("status").asText());
+    }
+}
@@ -0,0 +1,146 @@
+package com.technican.restservice.service;
+
+import com.technican.restservice.model.Job;
+import com.technican.restservice.model.JobStatus;
+import com.technican.restservice.model.Role;
+import com.technican.restservice.model.User;
+import com.technican.restservice.repository.JobStore;
+import com.technican.restservice.repository.UserStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every mutation must leave the cached {@code GET /jobs/my} lists identical to what
+ * the store returns; the checks read through {@link JobService} and compare with
+ * the store directly.
+ */
+@SpringBootTest
+public class JobListCacheTests {
+    private static final int TECHNICIANS = 4;
+    private static final int CUSTOMERS = 4;
+
+    @Autowired
+    private JobService jobService;
+    @Autowired
+    private JobStore jobRepository;
+    @Autowired
+    private UserStore userRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    private final List<Long> technicians = new ArrayList<>();
+    private final List<Long> customers = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        for (int i = 0; i < TECHNICIANS; i++) {
+            User tech = userRepository.save(new User(null, "cache_tech_" + System.nanoTime(), "hash", Set.of(Role.TECHNICIAN), null, null));
+            technicians.add(tech.getId());
+        }
+        // Customer ids far from any other test's data
+        long base = 1_000_000 + new Random().nextInt(1_000_000) * 10L;
+        for (int i = 0; i < CUSTOMERS; i++) {
+            customers.add(base + i);
+        }
+    }
+
+    @AfterEach
+    public void cleanup() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testReassignmentEvictsPreviousTechnician() {
+        Long first = technicians.get(0);
+        Long second = technicians.get(1);
+        Job job = jobService.createJob(new Job(null, customers.get(0), "AC Repair", null, null, null));
+        jobService.assignTechnician(job.getId(), first);
+        assertEquals(Set.of(job.getId()), ids(jobService.findByTechnicianId(first)));
+        assertEquals(Set.of(), ids(jobService.findByTechnicianId(second)));
+
+        jobService.assignTechnician(job.getId(), second);
+
+        assertEquals(Set.of(), ids(jobService.findByTechnicianId(first)));
+        assertEquals(Set.of(job.getId()), ids(jobService.findByTechnicianId(second)));
+    }
+
+    @Test
+    public void testNoStaleEntrySurvivesAnyMutation() {
+        Random random = new Random(42);
+        List<Long> jobs = new ArrayList<>();
+        for (int op = 0; op < 300; op++) {
+            // Warm every entry so each mutation has something to invalidate
+            assertCacheMatchesStore("before op " + op);
+            int kind = jobs.isEmpty() ? 0 : random.nextInt(4);
+            switch (kind) {
+                case 0 -> {
+                    Long technician = random.nextBoolean() ? pick(random, technicians) : null;
+                    jobs.add(jobService.createJob(new Job(null, pick(random, customers), "Heater Repair", technician, null, null)).getId());
+                }
+                case 1 -> jobService.assignTechnician(pick(random, jobs), pick(random, technicians));
+                case 2 -> {
+                    try {
+                        jobService.updateJobStatus(pick(random, jobs), JobStatus.values()[random.nextInt(JobStatus.values().length)]);
+                    } catch (IllegalStateException e) {
+                        // Out-of-order transition: rejected, and the lists must not change either
+                    }
+                }
+                default -> {
+                    Long id = jobs.remove(random.nextInt(jobs.size()));
+                    jobService.deleteJob(id);
+                }
+            }
+            assertCacheMatchesStore("after op " + op + " (kind " + kind + ")");
+        }
+    }
+
+    @Test
+    public void testHitsAndMissesAreCounted() {
+        Long technician = technicians.get(0);
+        double hits = gets("hit");
+        double misses = gets("miss");
+        jobService.findByTechnicianId(technician);
+        jobService.findByTechnicianId(technician);
+        jobService.findByTechnicianId(technician);
+        assertEquals(misses + 1, gets("miss"));
+        assertEquals(hits + 2, gets("hit"));
+    }
+
+    private void assertCacheMatchesStore(String when) {
+        for (Long technician : technicians) {
+            assertEquals(snapshot(jobRepository.findByTechnicianId(technician)), snapshot(jobService.findByTechnicianId(technician)),
+                    "technician " + technician + " list is stale " + when);
+        }
+        for (Long customer : customers) {
+            assertEquals(snapshot(jobRepository.findByCustomerId(customer)), snapshot(jobService.findByCustomerId(customer)),
+                    "customer " + customer + " list is stale " + when);
+        }
+    }
+
+    private double gets(String result) {
+        var counter = meterRegistry.find("cache.gets").tags("cache", "jobLists", "result", result).functionCounter();
+        assertTrue(counter != null, "cache.gets{result=" + result + "} not registered");
+        return counter.count();
+    }
+
+    private static Map<Long, String> snapshot(List<Job> jobs) {
+        return jobs.stream().collect(Collectors.toMap(Job::getId, j -> j.getTechnicianId() + "/" + j.getCustomerId() + "/" + j.getStatus()));
+    }
+
+    private static Set<Long> ids(List<Job> jobs) {
+        return jobs.stream().map(Job::getId).collect(Collectors.toSet());
+    }
+
+    private static Long pick(Random random, List<Long> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -0,0 +1,67 @@
+package com.technican.restservice.warmup;
+
+import com.technican.restservice.model.Job;
+import com.technican.restservice.model.JobStatus;
+import com.technican.restservice.service.JobService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The prod profile against a database file of its own, schema and all built by the migrations
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:file:./build/test-db/${random.uuid}/fieldtechdb",
+        "warmup.requests=40",
+})
+@ActiveProfiles("prod")
+public class StartupWarmupTests {
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JobService jobService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testSchemaComesFromMigrations() throws Exception {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"success\" AND \"version\" IS NOT NULL ORDER BY \"installed_rank\"", String.class);
+        assertEquals(List.of("1", "2"), versions);
+        assertTrue(dataSource.unwrap(HikariDataSource.class).getJdbcUrl().startsWith("jdbc:h2:file:"));
+
+        Long id = jobService.createJob(new Job(null, 7L, "Boiler", null, JobStatus.SCHEDULED, LocalDateTime.now())).getId();
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM jobs WHERE id = ?", Integer.class, id));
+    }
+
+    @Test
+    public void testWarmedUpBeforeReady() throws Exception {
+        // Every listing page plus the configured requests went out before startup finished
+        double sent = meterRegistry.get("warmup.requests").counter().count();
+        assertTrue(sent >= 40 + JobStatus.values().length + 1, "sent " + sent);
+
+        HttpResponse<String> readiness = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health/readiness")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, readiness.statusCode());
+        assertTrue(readiness.body().contains("\"UP\""), readiness.body());
+    }
+}